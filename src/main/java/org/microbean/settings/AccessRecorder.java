@@ -0,0 +1,375 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+import java.lang.annotation.Annotation;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import java.util.function.Predicate;
+
+/**
+ * An {@link AutoCloseable} that records the <a
+ * href="{@docRoot}/overview-summary.html#setting_name">names</a> and
+ * qualifiers of the settings read from a {@link Settings}, and writes
+ * them to a file from which a later {@link Settings} can {@linkplain
+ * Settings#prefetch(Path, Executor) prefetch} them.
+ *
+ * <p>Instances of this class are created by the {@link
+ * Settings#recordAccesses(Path)} method.  Recording is opt-in and
+ * lasts until the {@link AccessRecorder} is {@linkplain #close()
+ * closed}, at which point the file is written.  The file may also be
+ * written at any time, for example periodically by a {@link
+ * java.util.concurrent.ScheduledExecutorService}, by calling the
+ * {@link #flush()} method.  An {@link AccessRecorder} can also write
+ * a {@linkplain #writeSnapshot(Path) snapshot} of the current values
+ * of the settings it has recorded.</p>
+ *
+ * <p>The file does not use Java serialization.  Each qualifier is
+ * written as the name of its {@linkplain Annotation#annotationType()
+ * annotation type} and the values of its members, and is recreated
+ * from them when the file is read; reading loads no classes other
+ * than annotation types and the {@link Class} and enum types of their
+ * members, and initializes none of them other than the enum types.
+ * Accesses whose qualifiers cannot be written, or whose qualifiers'
+ * types are not present or usable when the file is read, are
+ * skipped.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads.
+ *
+ * @see Settings#recordAccesses(Path)
+ *
+ * @see Settings#prefetch(Path, Executor)
+ *
+ * @see SettingsSnapshot
+ */
+public final class AccessRecorder implements AutoCloseable {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final int VERSION = 2;
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Settings settings;
+
+  private final Path path;
+
+  // Keyed by setting name, so that recording a setting that has
+  // already been recorded allocates nothing.
+  private final ConcurrentMap<String, Set<Set<Annotation>>> accesses;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  AccessRecorder(final Settings settings, final Path path) {
+    super();
+    this.settings = Objects.requireNonNull(settings);
+    this.path = Objects.requireNonNull(path);
+    this.accesses = new ConcurrentHashMap<>();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the {@link Path} of the file this {@link AccessRecorder}
+   * writes.
+   *
+   * @return the {@link Path} of the file this {@link AccessRecorder}
+   * writes; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final Path getPath() {
+    return this.path;
+  }
+
+  final void record(final String name, final Set<Annotation> qualifiers) {
+    final Set<Annotation> key = qualifiers == null ? Collections.emptySet() : qualifiers;
+    final Set<Set<Annotation>> qualifierSets = this.accesses.get(name);
+    if (qualifierSets == null || !qualifierSets.contains(key)) {
+      // Qualifiers are copied only the first time a setting is
+      // accessed, since the supplied Set may be mutable.
+      this.accesses.computeIfAbsent(name, n -> ConcurrentHashMap.newKeySet())
+        .add(Collections.unmodifiableSet(new LinkedHashSet<>(key)));
+    }
+  }
+
+  private final List<Entry<String, Set<Annotation>>> getAccesses(final Predicate<? super String> namePredicate) {
+    final List<Entry<String, Set<Annotation>>> returnValue = new ArrayList<>();
+    for (final Entry<String, Set<Set<Annotation>>> entry : this.accesses.entrySet()) {
+      final String name = entry.getKey();
+      if (!namePredicate.test(name)) {
+        continue;
+      }
+      for (final Set<Annotation> qualifiers : entry.getValue()) {
+        returnValue.add(new SimpleImmutableEntry<>(name, qualifiers));
+      }
+    }
+    return returnValue;
+  }
+
+  /**
+   * Writes the names and qualifiers of all settings accessed since
+   * this {@link AccessRecorder} was created to the file {@linkplain
+   * #getPath() it was created with}, replacing that file's contents.
+   *
+   * <p>The file is written to a temporary file first and then moved
+   * into place, so that a concurrent {@linkplain
+   * Settings#prefetch(Path, Executor) prefetch} never reads a
+   * partially written file.</p>
+   *
+   * @exception IOException if the file could not be written
+   *
+   * @idempotency This method is idempotent if no settings have been
+   * accessed since it was last invoked.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final void flush() throws IOException {
+    final List<Entry<String, byte[]>> accesses = new ArrayList<>();
+    for (final Entry<String, Set<Annotation>> access : this.getAccesses(name -> true)) {
+      final byte[] qualifiers = AnnotationCodec.encodeQualifiers(access.getValue());
+      if (qualifiers != null) {
+        accesses.add(new SimpleImmutableEntry<>(access.getKey(), qualifiers));
+      }
+    }
+    writeAtomically(this.path, out -> {
+        out.writeInt(VERSION);
+        out.writeInt(accesses.size());
+        for (final Entry<String, byte[]> access : accesses) {
+          out.writeUTF(access.getKey());
+          out.write(access.getValue());
+        }
+      });
+  }
+
+  /**
+   * Writes a {@link SettingsSnapshot} of the current {@link Value}s
+   * of all settings accessed since this {@link AccessRecorder} was
+   * created to the file identified by the supplied {@link Path},
+   * replacing that file's contents.
+   *
+   * <p>This method calls the {@link #writeSnapshot(Path, Predicate)}
+   * method with the supplied {@link Path} and a {@link Predicate}
+   * that accepts every setting name.</p>
+   *
+   * <p><strong>The file contains the raw value of every setting
+   * accessed, including passwords and other secrets, in plain
+   * text.</strong>  Use the {@link #writeSnapshot(Path, Predicate)}
+   * method to exclude such settings.</p>
+   *
+   * @param path the {@link Path} of the file to write; must not be
+   * {@code null}
+   *
+   * @exception NullPointerException if {@code path} is {@code null}
+   *
+   * @exception IOException if the file could not be written
+   *
+   * @idempotency No guarantees of any kind are made with respect to
+   * the idempotency of this method, since the {@link Value}s written
+   * are acquired anew on each invocation.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #writeSnapshot(Path, Predicate)
+   *
+   * @see SettingsSnapshot
+   */
+  public final void writeSnapshot(final Path path) throws IOException {
+    this.writeSnapshot(path, name -> true);
+  }
+
+  /**
+   * Writes a {@link SettingsSnapshot} of the current {@link Value}s
+   * of those settings accessed since this {@link AccessRecorder} was
+   * created whose <a
+   * href="{@docRoot}/overview-summary.html#setting_name">names</a>
+   * are accepted by the supplied {@link Predicate} to the file
+   * identified by the supplied {@link Path}, replacing that file's
+   * contents.
+   *
+   * <p>The file is written in the same manner as by the {@link
+   * #flush()} method, and may be {@linkplain
+   * SettingsSnapshot#read(Path) read} by a {@link Settings} created
+   * later to serve those settings before its {@link Source}s are
+   * ready.  Settings not written are acquired from those {@link
+   * Source}s as usual.</p>
+   *
+   * <p><strong>The file contains the raw value of every setting
+   * written, in plain text.</strong>  The supplied {@link Predicate}
+   * should reject the names of passwords and other secrets, and the
+   * file should be protected accordingly.</p>
+   *
+   * @param path the {@link Path} of the file to write; must not be
+   * {@code null}
+   *
+   * @param namePredicate a {@link Predicate} that accepts the names
+   * of the settings to write; must not be {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code
+   * null}
+   *
+   * @exception IOException if the file could not be written
+   *
+   * @idempotency No guarantees of any kind are made with respect to
+   * the idempotency of this method, since the {@link Value}s written
+   * are acquired anew on each invocation.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads, provided that the supplied {@link Predicate} is.
+   *
+   * @see SettingsSnapshot
+   */
+  public final void writeSnapshot(final Path path, final Predicate<? super String> namePredicate) throws IOException {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(namePredicate);
+    final List<Entry<String, Set<Annotation>>> accesses = this.getAccesses(namePredicate);
+    writeAtomically(path, out -> SettingsSnapshot.write(out, this.settings, accesses));
+  }
+
+  /**
+   * Stops recording accesses and {@linkplain #flush() writes} the
+   * file {@linkplain #getPath() this <code>AccessRecorder</code> was
+   * created with}.
+   *
+   * @exception IOException if the file could not be written
+   *
+   * @idempotency This method is idempotent.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Override
+  public final void close() throws IOException {
+    this.settings.removeAccessRecorder(this);
+    this.flush();
+  }
+
+  @Override
+  public final String toString() {
+    return this.path.toString();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  static final Collection<Entry<String, Set<Annotation>>> read(final Path path) throws IOException {
+    try (final DataInputStream in = AnnotationCodec.newDataInputStream(path)) {
+      final int version = in.readInt();
+      if (version != VERSION) {
+        throw new StreamCorruptedException("Unsupported version: " + version);
+      }
+      final int size = AnnotationCodec.readSize(in);
+      final Collection<Entry<String, Set<Annotation>>> returnValue = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        final String name = in.readUTF();
+        final Set<Annotation> qualifiers = AnnotationCodec.readQualifiers(in);
+        if (qualifiers != null) {
+          returnValue.add(new SimpleImmutableEntry<>(name, qualifiers));
+        }
+      }
+      return returnValue;
+    }
+  }
+
+  // Writes to a temporary file first and then moves it into place, so
+  // that a concurrent reader never reads a partially written file.
+  private static final void writeAtomically(final Path path, final ContentWriter writer) throws IOException {
+    final Path directory = path.toAbsolutePath().getParent();
+    final Path temporaryFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+    try {
+      try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+        writer.write(out);
+      }
+      try {
+        Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+        Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  @FunctionalInterface
+  private static interface ContentWriter {
+
+    void write(final DataOutputStream out) throws IOException;
+
+  }
+
+}
@@ -0,0 +1,648 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.StreamCorruptedException;
+
+import java.lang.annotation.Annotation;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Reads and writes {@link Set}s of qualifier {@link Annotation}s, and
+ * nullable {@link String}s, in the explicit format used by the files
+ * written by {@link AccessRecorder}.
+ *
+ * <p>An annotation is written as the name of its type followed by
+ * the names and values of its members; no Java serialization is
+ * involved.  Reading an annotation loads only its type and the enum
+ * and {@link Class} types of its members.  Of these, only enum types
+ * are initialized, since their constants cannot be obtained
+ * otherwise.  Reading produces an instance that honors the {@link
+ * Annotation#equals(Object)} and {@link Annotation#hashCode()}
+ * contracts, and so is equal to any other annotation, such as an
+ * {@link javax.enterprise.util.AnnotationLiteral}, with the same type
+ * and member values.</p>
+ *
+ * <p>Input is always read from memory, so that no length or size read
+ * from it can cause more to be allocated than the input itself
+ * holds.</p>
+ *
+ * @threadsafety This class is safe for concurrent use by multiple
+ * threads.
+ *
+ * @see AccessRecorder
+ *
+ * @see SettingsSnapshot
+ */
+final class AnnotationCodec {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final int MAXIMUM_DEPTH = 16;
+
+  private static final Comparator<Method> memberComparator = Comparator.comparing(Method::getName);
+
+  private static final byte BOOLEAN = 'Z';
+
+  private static final byte BYTE = 'B';
+
+  private static final byte CHAR = 'C';
+
+  private static final byte SHORT = 'S';
+
+  private static final byte INT = 'I';
+
+  private static final byte LONG = 'J';
+
+  private static final byte FLOAT = 'F';
+
+  private static final byte DOUBLE = 'D';
+
+  private static final byte STRING = 's';
+
+  private static final byte CLASS = 'c';
+
+  private static final byte ENUM = 'e';
+
+  private static final byte ANNOTATION = '@';
+
+  private static final byte ARRAY = '[';
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private AnnotationCodec() {
+    super();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  // Returns a DataInputStream over the entire contents of the file
+  // identified by the supplied Path, as all reading methods of this
+  // class require.
+  static final DataInputStream newDataInputStream(final Path path) throws IOException {
+    return new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(path)));
+  }
+
+  // Returns the encoded form of the supplied qualifiers, or null if
+  // any of them could not be encoded, for example because the members
+  // of its annotation type cannot be made accessible, so that a
+  // caller may skip just the entry it belongs to.
+  static final byte[] encodeQualifiers(final Set<Annotation> qualifiers) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(qualifiers.size());
+      for (final Annotation qualifier : qualifiers) {
+        writeAnnotation(out, qualifier);
+      }
+    } catch (final IOException | RuntimeException unencodable) {
+      return null;
+    }
+    return bytes.toByteArray();
+  }
+
+  // Returns null if any qualifier could not be reconstituted, for
+  // example because its type is not present or its members cannot be
+  // made accessible; the qualifiers are read in full regardless, so
+  // that reading may continue.
+  static final Set<Annotation> readQualifiers(final DataInputStream in) throws IOException {
+    final int size = readSize(in);
+    if (size == 0) {
+      return Collections.emptySet();
+    }
+    final ClassLoader classLoader = getClassLoader();
+    final Set<Annotation> returnValue = new LinkedHashSet<>();
+    boolean complete = true;
+    for (int i = 0; i < size; i++) {
+      final Object qualifier = readAnnotation(in, 0);
+      if (complete) {
+        try {
+          returnValue.add((Annotation)resolve(qualifier, Annotation.class, classLoader));
+        } catch (final ReflectiveOperationException | InvalidObjectException | RuntimeException | LinkageError unresolvable) {
+          complete = false;
+        }
+      }
+    }
+    return complete ? Collections.unmodifiableSet(returnValue) : null;
+  }
+
+  static final void writeString(final DataOutput out, final String s) throws IOException {
+    if (s == null) {
+      out.writeInt(-1);
+    } else {
+      // DataOutput#writeUTF(String) is limited to 65535 bytes.
+      final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  static final String readString(final DataInputStream in) throws IOException {
+    final int length = in.readInt();
+    if (length < 0) {
+      if (length != -1) {
+        throw new StreamCorruptedException("Invalid length: " + length);
+      }
+      return null;
+    } else if (length > in.available()) {
+      throw new StreamCorruptedException("Invalid length: " + length);
+    }
+    final byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static final void writeAnnotation(final DataOutput out, final Annotation annotation) throws IOException {
+    final Class<? extends Annotation> annotationType = annotation.annotationType();
+    final Method[] members = getMembers(annotationType);
+    out.writeUTF(annotationType.getName());
+    out.writeInt(members.length);
+    for (final Method member : members) {
+      final Object value;
+      try {
+        value = member.invoke(annotation);
+      } catch (final IllegalAccessException | InvocationTargetException reflectiveOperationException) {
+        throw new IOException(reflectiveOperationException.getMessage(), reflectiveOperationException);
+      }
+      out.writeUTF(member.getName());
+      writeValue(out, value);
+    }
+  }
+
+  private static final void writeValue(final DataOutput out, final Object value) throws IOException {
+    if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean)value);
+    } else if (value instanceof Byte) {
+      out.writeByte(BYTE);
+      out.writeByte((Byte)value);
+    } else if (value instanceof Character) {
+      out.writeByte(CHAR);
+      out.writeChar((Character)value);
+    } else if (value instanceof Short) {
+      out.writeByte(SHORT);
+      out.writeShort((Short)value);
+    } else if (value instanceof Integer) {
+      out.writeByte(INT);
+      out.writeInt((Integer)value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long)value);
+    } else if (value instanceof Float) {
+      out.writeByte(FLOAT);
+      out.writeFloat((Float)value);
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double)value);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      writeString(out, (String)value);
+    } else if (value instanceof Class) {
+      out.writeByte(CLASS);
+      out.writeUTF(((Class<?>)value).getName());
+    } else if (value instanceof Enum) {
+      out.writeByte(ENUM);
+      out.writeUTF(((Enum<?>)value).getDeclaringClass().getName());
+      out.writeUTF(((Enum<?>)value).name());
+    } else if (value instanceof Annotation) {
+      out.writeByte(ANNOTATION);
+      writeAnnotation(out, (Annotation)value);
+    } else if (value != null && value.getClass().isArray()) {
+      out.writeByte(ARRAY);
+      final int length = Array.getLength(value);
+      out.writeInt(length);
+      for (int i = 0; i < length; i++) {
+        writeValue(out, Array.get(value, i));
+      }
+    } else {
+      throw new IOException("Not an annotation member value: " + value);
+    }
+  }
+
+  // Reads an annotation written by writeAnnotation(DataOutput,
+  // Annotation) without loading any classes.
+  private static final Object readAnnotation(final DataInputStream in, final int depth) throws IOException {
+    if (depth > MAXIMUM_DEPTH) {
+      throw new StreamCorruptedException("Annotations nested too deeply");
+    }
+    final String typeName = in.readUTF();
+    final int size = readSize(in);
+    final Map<String, Object> members = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      final String name = in.readUTF();
+      members.put(name, readValue(in, depth));
+    }
+    return new UnresolvedAnnotation(typeName, members);
+  }
+
+  private static final Object readValue(final DataInputStream in, final int depth) throws IOException {
+    final byte tag = in.readByte();
+    switch (tag) {
+    case BOOLEAN:
+      return Boolean.valueOf(in.readBoolean());
+    case BYTE:
+      return Byte.valueOf(in.readByte());
+    case CHAR:
+      return Character.valueOf(in.readChar());
+    case SHORT:
+      return Short.valueOf(in.readShort());
+    case INT:
+      return Integer.valueOf(in.readInt());
+    case LONG:
+      return Long.valueOf(in.readLong());
+    case FLOAT:
+      return Float.valueOf(in.readFloat());
+    case DOUBLE:
+      return Double.valueOf(in.readDouble());
+    case STRING:
+      final String s = readString(in);
+      if (s == null) {
+        throw new StreamCorruptedException("null String member value");
+      }
+      return s;
+    case CLASS:
+      return new UnresolvedClass(in.readUTF());
+    case ENUM:
+      return new UnresolvedEnum(in.readUTF(), in.readUTF());
+    case ANNOTATION:
+      return readAnnotation(in, depth + 1);
+    case ARRAY:
+      if (depth > MAXIMUM_DEPTH) {
+        throw new StreamCorruptedException("Arrays nested too deeply");
+      }
+      final int length = readSize(in);
+      final List<Object> elements = new ArrayList<>();
+      for (int i = 0; i < length; i++) {
+        elements.add(readValue(in, depth + 1));
+      }
+      return elements;
+    default:
+      throw new StreamCorruptedException("Unknown tag: " + tag);
+    }
+  }
+
+  // Reads the number of elements that follow, each of which occupies
+  // at least one byte.
+  static final int readSize(final DataInputStream in) throws IOException {
+    final int returnValue = in.readInt();
+    if (returnValue < 0 || returnValue > in.available()) {
+      throw new StreamCorruptedException("Invalid size: " + returnValue);
+    }
+    return returnValue;
+  }
+
+  // Converts a value produced by readValue(DataInputStream, int) into one
+  // of the supplied type, which is the return type of an annotation
+  // member.
+  private static final Object resolve(final Object value, final Class<?> type, final ClassLoader classLoader)
+    throws ReflectiveOperationException, InvalidObjectException {
+    final Object returnValue;
+    if (value instanceof UnresolvedAnnotation) {
+      final UnresolvedAnnotation unresolvedAnnotation = (UnresolvedAnnotation)value;
+      final Class<?> annotationType = Class.forName(unresolvedAnnotation.typeName, false, classLoader);
+      if (!annotationType.isAnnotation() || !type.isAssignableFrom(annotationType)) {
+        throw new InvalidObjectException("Not an annotation of type " + type.getName() + ": " + annotationType.getName());
+      }
+      @SuppressWarnings("unchecked")
+      final Class<? extends Annotation> a = (Class<? extends Annotation>)annotationType;
+      returnValue = newAnnotation(a, unresolvedAnnotation.members, classLoader);
+    } else if (value instanceof UnresolvedClass) {
+      if (type != Class.class) {
+        throw new InvalidObjectException("Not a " + type.getName() + ": " + value);
+      }
+      returnValue = Class.forName(((UnresolvedClass)value).name, false, classLoader);
+    } else if (value instanceof UnresolvedEnum) {
+      final UnresolvedEnum unresolvedEnum = (UnresolvedEnum)value;
+      final Class<?> enumType = Class.forName(unresolvedEnum.typeName, false, classLoader);
+      if (!enumType.isEnum() || !type.isAssignableFrom(enumType)) {
+        throw new InvalidObjectException("Not an enum of type " + type.getName() + ": " + enumType.getName());
+      }
+      returnValue = valueOf(enumType, unresolvedEnum.name);
+    } else if (value instanceof List) {
+      if (!type.isArray()) {
+        throw new InvalidObjectException("Not a " + type.getName() + ": " + value);
+      }
+      final List<?> elements = (List<?>)value;
+      final Class<?> componentType = type.getComponentType();
+      returnValue = Array.newInstance(componentType, elements.size());
+      for (int i = 0; i < elements.size(); i++) {
+        // Array#set(Object, int, Object) unboxes primitives and
+        // rejects elements of the wrong type.
+        Array.set(returnValue, i, resolve(elements.get(i), componentType, classLoader));
+      }
+    } else {
+      if (!wrap(type).isInstance(value)) {
+        throw new InvalidObjectException("Not a " + type.getName() + ": " + value);
+      }
+      returnValue = value;
+    }
+    return returnValue;
+  }
+
+  // Initializes the supplied enum type, if necessary.
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private static final Object valueOf(final Class<?> enumType, final String name) {
+    return Enum.valueOf((Class)enumType, name);
+  }
+
+  private static final <A extends Annotation> A newAnnotation(final Class<A> annotationType,
+                                                              final Map<String, Object> memberValues,
+                                                              final ClassLoader classLoader)
+    throws ReflectiveOperationException, InvalidObjectException {
+    final Method[] members = getMembers(annotationType);
+    final Object[] values = new Object[members.length];
+    for (int i = 0; i < members.length; i++) {
+      final Method member = members[i];
+      final Object value = memberValues.get(member.getName());
+      if (value == null) {
+        values[i] = member.getDefaultValue();
+        if (values[i] == null) {
+          throw new InvalidObjectException("No value for " + annotationType.getName() + "#" + member.getName());
+        }
+      } else {
+        values[i] = resolve(value, member.getReturnType(), classLoader);
+      }
+    }
+    return annotationType.cast(Proxy.newProxyInstance(annotationType.getClassLoader(),
+                                                      new Class<?>[] { annotationType },
+                                                      new AnnotationInvocationHandler(annotationType, members, values)));
+  }
+
+  private static final Method[] getMembers(final Class<? extends Annotation> annotationType) {
+    final Method[] members = annotationType.getDeclaredMethods();
+    Arrays.sort(members, memberComparator);
+    for (final Method member : members) {
+      // Annotation types need not be public.
+      member.setAccessible(true);
+    }
+    return members;
+  }
+
+  private static final ClassLoader getClassLoader() {
+    final ClassLoader returnValue = Thread.currentThread().getContextClassLoader();
+    return returnValue == null ? AnnotationCodec.class.getClassLoader() : returnValue;
+  }
+
+  private static final Class<?> wrap(final Class<?> type) {
+    if (!type.isPrimitive()) {
+      return type;
+    } else if (type == boolean.class) {
+      return Boolean.class;
+    } else if (type == byte.class) {
+      return Byte.class;
+    } else if (type == char.class) {
+      return Character.class;
+    } else if (type == short.class) {
+      return Short.class;
+    } else if (type == int.class) {
+      return Integer.class;
+    } else if (type == long.class) {
+      return Long.class;
+    } else if (type == float.class) {
+      return Float.class;
+    } else {
+      return Double.class;
+    }
+  }
+
+  private static final int memberValueHashCode(final Object value) {
+    if (value instanceof boolean[]) {
+      return Arrays.hashCode((boolean[])value);
+    } else if (value instanceof byte[]) {
+      return Arrays.hashCode((byte[])value);
+    } else if (value instanceof char[]) {
+      return Arrays.hashCode((char[])value);
+    } else if (value instanceof short[]) {
+      return Arrays.hashCode((short[])value);
+    } else if (value instanceof int[]) {
+      return Arrays.hashCode((int[])value);
+    } else if (value instanceof long[]) {
+      return Arrays.hashCode((long[])value);
+    } else if (value instanceof float[]) {
+      return Arrays.hashCode((float[])value);
+    } else if (value instanceof double[]) {
+      return Arrays.hashCode((double[])value);
+    } else if (value instanceof Object[]) {
+      return Arrays.hashCode((Object[])value);
+    } else {
+      return value.hashCode();
+    }
+  }
+
+  private static final Object cloneArray(final Object value) {
+    if (value instanceof boolean[]) {
+      return ((boolean[])value).clone();
+    } else if (value instanceof byte[]) {
+      return ((byte[])value).clone();
+    } else if (value instanceof char[]) {
+      return ((char[])value).clone();
+    } else if (value instanceof short[]) {
+      return ((short[])value).clone();
+    } else if (value instanceof int[]) {
+      return ((int[])value).clone();
+    } else if (value instanceof long[]) {
+      return ((long[])value).clone();
+    } else if (value instanceof float[]) {
+      return ((float[])value).clone();
+    } else if (value instanceof double[]) {
+      return ((double[])value).clone();
+    } else if (value instanceof Object[]) {
+      return ((Object[])value).clone();
+    } else {
+      return value;
+    }
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class UnresolvedAnnotation {
+
+    private final String typeName;
+
+    private final Map<String, Object> members;
+
+    private UnresolvedAnnotation(final String typeName, final Map<String, Object> members) {
+      super();
+      this.typeName = typeName;
+      this.members = members;
+    }
+
+  }
+
+  private static final class UnresolvedClass {
+
+    private final String name;
+
+    private UnresolvedClass(final String name) {
+      super();
+      this.name = name;
+    }
+
+    @Override
+    public final String toString() {
+      return this.name;
+    }
+
+  }
+
+  private static final class UnresolvedEnum {
+
+    private final String typeName;
+
+    private final String name;
+
+    private UnresolvedEnum(final String typeName, final String name) {
+      super();
+      this.typeName = typeName;
+      this.name = name;
+    }
+
+  }
+
+  // Implements an annotation as specified by the Annotation
+  // interface.
+  private static final class AnnotationInvocationHandler implements InvocationHandler {
+
+    private final Class<? extends Annotation> annotationType;
+
+    private final Method[] members;
+
+    private final Object[] values;
+
+    private final int hashCode;
+
+    private AnnotationInvocationHandler(final Class<? extends Annotation> annotationType,
+                                        final Method[] members,
+                                        final Object[] values) {
+      super();
+      this.annotationType = Objects.requireNonNull(annotationType);
+      this.members = members;
+      this.values = values;
+      int hashCode = 0;
+      for (int i = 0; i < members.length; i++) {
+        hashCode += (127 * members[i].getName().hashCode()) ^ memberValueHashCode(values[i]);
+      }
+      this.hashCode = hashCode;
+    }
+
+    @Override
+    public final Object invoke(final Object proxy, final Method method, final Object[] arguments)
+      throws IllegalAccessException, InvocationTargetException {
+      final String name = method.getName();
+      if (arguments != null && arguments.length == 1 && name.equals("equals")) {
+        return this.equals(proxy, arguments[0]);
+      } else if (arguments == null || arguments.length == 0) {
+        switch (name) {
+        case "annotationType":
+          return this.annotationType;
+        case "hashCode":
+          return this.hashCode;
+        case "toString":
+          return this.toString();
+        default:
+          for (int i = 0; i < this.members.length; i++) {
+            if (this.members[i].getName().equals(name)) {
+              return cloneArray(this.values[i]);
+            }
+          }
+          break;
+        }
+      }
+      throw new UnsupportedOperationException(method.toString());
+    }
+
+    private final boolean equals(final Object proxy, final Object other)
+      throws IllegalAccessException, InvocationTargetException {
+      if (other == proxy) {
+        return true;
+      } else if (!this.annotationType.isInstance(other)) {
+        return false;
+      }
+      for (int i = 0; i < this.members.length; i++) {
+        if (!Objects.deepEquals(this.values[i], this.members[i].invoke(other))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public final String toString() {
+      final StringBuilder sb = new StringBuilder("@").append(this.annotationType.getName()).append('(');
+      for (int i = 0; i < this.members.length; i++) {
+        if (i > 0) {
+          sb.append(", ");
+        }
+        final Object value = this.values[i];
+        sb.append(this.members[i].getName()).append('=');
+        if (value.getClass().isArray()) {
+          // Handles arrays of primitives as well.
+          final String s = Arrays.deepToString(new Object[] { value });
+          sb.append(s, 1, s.length() - 1);
+        } else {
+          sb.append(value);
+        }
+      }
+      return sb.append(')').toString();
+    }
+
+  }
+
+}
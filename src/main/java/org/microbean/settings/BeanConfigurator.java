@@ -0,0 +1,733 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.beans.PropertyEditor;
+
+import java.lang.annotation.Annotation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.function.BiFunction;
+
+import javax.enterprise.util.TypeLiteral;
+
+import javax.inject.Inject;
+
+import org.microbean.settings.converter.PropertyEditorConverter;
+
+/**
+ * A precompiled means of {@linkplain #configure(Settings, Object,
+ * String, Set) configuring} instances of a particular class.
+ *
+ * <p>A {@link BeanConfigurator} is built once per class by
+ * introspecting it.  It records, for every writable Java Bean
+ * property and every non-{@code final} instance field annotated with
+ * {@link Setting} that is not otherwise {@linkplain Inject injected},
+ * the name of the corresponding setting, its {@link Converter}, its
+ * default value and a {@link MethodHandle} that sets it.</p>
+ *
+ * <p>A property or field whose type has no {@link Converter} is bound
+ * recursively if its type is a public, concrete class with a public
+ * zero-argument constructor (a <em>nested bean</em>), or a {@link
+ * List} or {@link Collection} of, or a {@link Map} with {@link
+ * String} keys and values of, such a class.  A nested bean is
+ * configured with a prefix formed from the property's setting name
+ * followed by a period ({@code .}).  The value of the setting named
+ * by a {@link List}, {@link Collection} or {@link Map} property is a
+ * comma-separated list of keys; one element is created for each key
+ * and configured with a prefix formed from the property's setting
+ * name, a period, the key and another period.  The {@link
+ * BeanConfigurator}s for every class reachable in this way are built
+ * together with the one for the root class.</p>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads.
+ *
+ * @see Settings#configure(Object, String, Set)
+ */
+final class BeanConfigurator implements Configurator<Object> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+
+  private static final MethodType constructorType = MethodType.methodType(Object.class);
+
+  private static final TypeLiteral<List<String>> keysType = new TypeLiteral<List<String>>() {
+      private static final long serialVersionUID = 1L;
+    };
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Class<?> beanClass;
+
+  private final Property[] properties;
+
+  private final MethodHandle constructor;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private BeanConfigurator(final Class<?> beanClass, final Property[] properties, final MethodHandle constructor) {
+    super();
+    this.beanClass = Objects.requireNonNull(beanClass);
+    this.properties = Objects.requireNonNull(properties);
+    this.constructor = constructor;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  final Class<?> getBeanClass() {
+    return this.beanClass;
+  }
+
+  @Override
+  public final void configure(final Settings settings,
+                              final Object object,
+                              final String prefix,
+                              final Set<Annotation> qualifiers)
+    throws ReflectiveOperationException {
+    this.configure(settings, object, prefix, qualifiers, null);
+  }
+
+  // Configures only those properties whose setting names are in (or,
+  // for nested properties, begin with an entry in) the supplied names;
+  // null names means all properties.
+  final boolean configure(final Settings settings,
+                          final Object object,
+                          final String prefix,
+                          final Set<Annotation> qualifiers,
+                          final Set<String> names)
+    throws ReflectiveOperationException {
+    boolean returnValue = false;
+    for (final Property property : this.properties) {
+      if (property.configure(settings, object, prefix, qualifiers, names)) {
+        returnValue = true;
+      }
+    }
+    return returnValue;
+  }
+
+  // Acquires and converts, but does not set, the values of all
+  // properties, so that whatever Sources and Converters they need are
+  // ready before an object is configured.  Values that are absent,
+  // or that cannot be acquired or converted, are ignored: configuring
+  // an object encounters them again and reports them.
+  final void prefetch(final Settings settings, final String prefix, final Set<Annotation> qualifiers) {
+    for (final Property property : this.properties) {
+      try {
+        property.prefetch(settings, prefix, qualifiers);
+      } catch (final RuntimeException prefetchFailure) {
+        // See above.
+      }
+    }
+  }
+
+  private final Object newInstance() throws ReflectiveOperationException {
+    if (this.constructor == null) {
+      throw new InstantiationException(this.beanClass.getName());
+    }
+    try {
+      return this.constructor.invokeExact();
+    } catch (final Throwable throwable) {
+      // Report failures the same way Constructor#newInstance(Object...)
+      // does.
+      throw new InvocationTargetException(throwable);
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  static final BeanConfigurator of(final Class<?> beanClass, final ConverterProvider converterProvider)
+    throws IntrospectionException, IllegalAccessException {
+    Objects.requireNonNull(beanClass);
+    Objects.requireNonNull(converterProvider);
+    final Map<Class<?>, BeanConfigurator> graph = new HashMap<>();
+    compile(beanClass, converterProvider, graph, new HashSet<>());
+    return graph.get(beanClass);
+  }
+
+  private static final void compile(final Class<?> beanClass,
+                                    final ConverterProvider converterProvider,
+                                    final Map<Class<?>, BeanConfigurator> graph,
+                                    final Set<Class<?>> inProgress)
+    throws IntrospectionException, IllegalAccessException {
+    if (graph.containsKey(beanClass) || !inProgress.add(beanClass)) {
+      return;
+    }
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    final List<Property> properties = new ArrayList<>();
+
+    for (final PropertyDescriptor pd : Introspector.getBeanInfo(beanClass).getPropertyDescriptors()) {
+      if (pd != null) {
+        final String name = pd.getName();
+        final Method writeMethod = pd.getWriteMethod();
+        if (name != null && writeMethod != null) {
+
+          final Type type;
+          final Object typeObject = pd.getValue("propertyType");
+          if (typeObject instanceof Type) {
+            type = (Type)typeObject;
+          } else if (typeObject instanceof TypeLiteral) {
+            type = ((TypeLiteral<?>)typeObject).getType();
+          } else {
+            type = pd.getPropertyType();
+          }
+          assert type != null;
+
+          MethodHandle setter;
+          try {
+            setter = lookup.unreflect(writeMethod).asType(setterType);
+          } catch (final IllegalAccessException illegalAccessException) {
+            // Defer the failure, if any, to reflective invocation, so
+            // that inaccessible setters behave as they always have.
+            setter = null;
+          }
+
+          // A PropertyEditor whose class has a constructor accepting
+          // the bean must be created for each bean; any other can be
+          // created once and shared, since PropertyEditorConverter
+          // synchronizes on it.
+          Converter<?> converter = null;
+          PropertyDescriptor propertyEditorSource = null;
+          final Class<?> propertyEditorClass = pd.getPropertyEditorClass();
+          if (propertyEditorClass != null && type instanceof Class) {
+            if (hasBeanConstructor(propertyEditorClass)) {
+              propertyEditorSource = pd;
+            } else {
+              final PropertyEditor propertyEditor = pd.createPropertyEditor(null);
+              if (propertyEditor != null) {
+                converter = new PropertyEditorConverter<Object>((Class<?>)type, propertyEditor);
+              }
+            }
+          }
+
+          Property property = null;
+          if (converter == null && propertyEditorSource == null) {
+            try {
+              converter = converterProvider.getConverter(type);
+            } catch (final IllegalArgumentException noConverter) {
+              final Method readMethod = pd.getReadMethod();
+              MethodHandle getter = null;
+              if (readMethod != null) {
+                try {
+                  getter = lookup.unreflect(readMethod).asType(getterType);
+                } catch (final IllegalAccessException illegalAccessException) {
+                  // Treat the property as write-only.
+                }
+              }
+              // PropertyDescriptor#getPropertyType() erases generics.
+              final Type genericType = typeObject == null ? writeMethod.getGenericParameterTypes()[0] : type;
+              property = nestedProperty(name, genericType, false, setter, writeMethod, getter, converterProvider, graph, inProgress);
+              if (property == null) {
+                throw noConverter;
+              }
+            }
+          }
+
+          if (property == null) {
+            final Object defaultValue = pd.getValue("defaultValue");
+            property = new ScalarProperty(name,
+                                          type,
+                                          converter,
+                                          propertyEditorSource,
+                                          defaultValue instanceof String ? (String)defaultValue : null,
+                                          false,
+                                          setter,
+                                          writeMethod);
+          }
+          properties.add(property);
+        }
+      }
+    }
+
+    for (Class<?> c = beanClass; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (final Field field : c.getDeclaredFields()) {
+        final Setting setting = field.getAnnotation(Setting.class);
+        if (setting != null && !field.isAnnotationPresent(Inject.class)) {
+          final int modifiers = field.getModifiers();
+          if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+            String name = setting.name();
+            if (name == null || name.isEmpty() || name.equals(Setting.UNSET)) {
+              name = field.getName();
+            }
+            final Type type = field.getGenericType();
+            field.setAccessible(true);
+            final MethodHandle setter = lookup.unreflectSetter(field).asType(setterType);
+            Property property;
+            try {
+              final String defaultValue = setting.defaultValue();
+              property = new ScalarProperty(name,
+                                            type,
+                                            converterProvider.getConverter(type),
+                                            null,
+                                            defaultValue == null || defaultValue.equals(Setting.UNSET) ? null : defaultValue,
+                                            setting.required(),
+                                            setter,
+                                            null);
+            } catch (final IllegalArgumentException noConverter) {
+              property = nestedProperty(name,
+                                        type,
+                                        setting.required(),
+                                        setter,
+                                        null,
+                                        lookup.unreflectGetter(field).asType(getterType),
+                                        converterProvider,
+                                        graph,
+                                        inProgress);
+              if (property == null) {
+                throw noConverter;
+              }
+            }
+            properties.add(property);
+          }
+        }
+      }
+    }
+
+    MethodHandle constructor = null;
+    if (isBindable(beanClass)) {
+      try {
+        constructor = lookup.findConstructor(beanClass, MethodType.methodType(void.class)).asType(constructorType);
+      } catch (final NoSuchMethodException | IllegalAccessException reflectiveOperationException) {
+        // Instances cannot be created, only configured.
+      }
+    }
+    graph.put(beanClass, new BeanConfigurator(beanClass, properties.toArray(new Property[properties.size()]), constructor));
+    inProgress.remove(beanClass);
+  }
+
+  // Returns a Property that binds the supplied type recursively, or
+  // null if the supplied type cannot be bound recursively.
+  private static final Property nestedProperty(final String name,
+                                               final Type type,
+                                               final boolean required,
+                                               final MethodHandle setter,
+                                               final Method writeMethod,
+                                               final MethodHandle getter,
+                                               final ConverterProvider converterProvider,
+                                               final Map<Class<?>, BeanConfigurator> graph,
+                                               final Set<Class<?>> inProgress)
+    throws IntrospectionException, IllegalAccessException {
+    final Property returnValue;
+    if (type instanceof Class) {
+      final Class<?> c = (Class<?>)type;
+      if (isBindable(c)) {
+        // A class that (indirectly) contains itself is only ever
+        // configured in place; otherwise binding would never end.
+        final boolean recursive = inProgress.contains(c);
+        compile(c, converterProvider, graph, inProgress);
+        returnValue = new BeanProperty(name, required, setter, writeMethod, getter, c, graph, recursive);
+      } else {
+        returnValue = null;
+      }
+    } else if (type instanceof ParameterizedType) {
+      final ParameterizedType parameterizedType = (ParameterizedType)type;
+      final Type rawType = parameterizedType.getRawType();
+      final Type[] typeArguments = parameterizedType.getActualTypeArguments();
+      final Type elementType;
+      final boolean map;
+      if ((rawType == List.class || rawType == Collection.class) && typeArguments.length == 1) {
+        elementType = typeArguments[0];
+        map = false;
+      } else if (rawType == Map.class && typeArguments.length == 2 && typeArguments[0] == String.class) {
+        elementType = typeArguments[1];
+        map = true;
+      } else {
+        elementType = null;
+        map = false;
+      }
+      if (elementType instanceof Class && isBindable((Class<?>)elementType)) {
+        final Class<?> elementClass = (Class<?>)elementType;
+        compile(elementClass, converterProvider, graph, inProgress);
+        @SuppressWarnings("unchecked")
+        final Converter<? extends List<String>> keysConverter =
+          (Converter<? extends List<String>>)converterProvider.getConverter(keysType);
+        returnValue = new ContainerProperty(name, required, setter, writeMethod, keysConverter, elementClass, graph, map);
+      } else {
+        returnValue = null;
+      }
+    } else {
+      returnValue = null;
+    }
+    return returnValue;
+  }
+
+  private static final boolean isBindable(final Class<?> c) {
+    final int modifiers = c.getModifiers();
+    if (c.isPrimitive() ||
+        c.isArray() ||
+        c.isInterface() ||
+        c.isEnum() ||
+        Modifier.isAbstract(modifiers) ||
+        !Modifier.isPublic(modifiers) ||
+        c.getName().startsWith("java.")) {
+      return false;
+    }
+    try {
+      c.getConstructor();
+      return true;
+    } catch (final NoSuchMethodException noSuchMethodException) {
+      return false;
+    }
+  }
+
+  private static final boolean hasBeanConstructor(final Class<?> c) {
+    try {
+      c.getConstructor(Object.class);
+      return true;
+    } catch (final NoSuchMethodException noSuchMethodException) {
+      return false;
+    }
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private abstract static class Property {
+
+    private final String name;
+
+    private final boolean required;
+
+    private final MethodHandle setter;
+
+    private final Method writeMethod;
+
+    private Property(final String name,
+                     final boolean required,
+                     final MethodHandle setter,
+                     final Method writeMethod) {
+      super();
+      this.name = Objects.requireNonNull(name);
+      this.required = required;
+      this.setter = setter;
+      this.writeMethod = writeMethod;
+      assert setter != null || writeMethod != null;
+    }
+
+    // Returns true if a value was set.
+    abstract boolean configure(final Settings settings,
+                               final Object object,
+                               final String prefix,
+                               final Set<Annotation> qualifiers,
+                               final Set<String> names)
+      throws ReflectiveOperationException;
+
+    abstract void prefetch(final Settings settings, final String prefix, final Set<Annotation> qualifiers);
+
+    final String getSettingName(final String prefix) {
+      return prefix == null ? this.name : prefix.concat(this.name);
+    }
+
+    static final boolean containsPrefix(final Set<String> names, final String prefix) {
+      for (final String name : names) {
+        if (name.startsWith(prefix)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    final void absent(final String settingName, final Set<Annotation> qualifiers) {
+      if (this.required) {
+        throw new NoSuchElementException(settingName + " (" + qualifiers + ")");
+      }
+    }
+
+    final void set(final Object object, final Object value) throws ReflectiveOperationException {
+      if (this.setter == null) {
+        this.writeMethod.invoke(object, value);
+      } else {
+        try {
+          this.setter.invokeExact(object, value);
+        } catch (final Throwable throwable) {
+          // Report failures the same way Method#invoke(Object,
+          // Object...) does.
+          throw new InvocationTargetException(throwable);
+        }
+      }
+    }
+
+  }
+
+  private static final class ScalarProperty extends Property {
+
+    private final Type type;
+
+    private final Converter<?> converter;
+
+    private final PropertyDescriptor propertyEditorSource;
+
+    private final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction;
+
+    private ScalarProperty(final String name,
+                           final Type type,
+                           final Converter<?> converter,
+                           final PropertyDescriptor propertyEditorSource,
+                           final String defaultValue,
+                           final boolean required,
+                           final MethodHandle setter,
+                           final Method writeMethod) {
+      super(name, required, setter, writeMethod);
+      this.type = Objects.requireNonNull(type);
+      this.converter = converter;
+      this.propertyEditorSource = propertyEditorSource;
+      this.defaultValueFunction = defaultValue == null ? null : (n, qs) -> defaultValue;
+    }
+
+    @Override
+    final boolean configure(final Settings settings,
+                            final Object object,
+                            final String prefix,
+                            final Set<Annotation> qualifiers,
+                            final Set<String> names)
+      throws ReflectiveOperationException {
+      final String settingName = this.getSettingName(prefix);
+      if (names != null && !names.contains(settingName)) {
+        return false;
+      }
+      final Converter<?> converter;
+      if (this.converter == null) {
+        converter = new PropertyEditorConverter<Object>((Class<?>)this.type, this.propertyEditorSource.createPropertyEditor(object));
+      } else {
+        converter = this.converter;
+      }
+      final Object value = settings.getOrAbsent(settingName, qualifiers, converter, this.defaultValueFunction);
+      if (value == Settings.ABSENT) {
+        this.absent(settingName, qualifiers);
+        return false;
+      }
+      this.set(object, value);
+      return true;
+    }
+
+    @Override
+    final void prefetch(final Settings settings, final String prefix, final Set<Annotation> qualifiers) {
+      // Properties converted by a PropertyEditor need the object being
+      // configured.
+      if (this.converter != null) {
+        settings.getOrAbsent(this.getSettingName(prefix), qualifiers, this.converter, this.defaultValueFunction);
+      }
+    }
+
+  }
+
+  private static final class BeanProperty extends Property {
+
+    private final MethodHandle getter;
+
+    private final Class<?> beanClass;
+
+    private final Map<Class<?>, BeanConfigurator> graph;
+
+    private final boolean recursive;
+
+    private BeanProperty(final String name,
+                         final boolean required,
+                         final MethodHandle setter,
+                         final Method writeMethod,
+                         final MethodHandle getter,
+                         final Class<?> beanClass,
+                         final Map<Class<?>, BeanConfigurator> graph,
+                         final boolean recursive) {
+      super(name, required, setter, writeMethod);
+      this.getter = getter;
+      this.beanClass = Objects.requireNonNull(beanClass);
+      this.graph = Objects.requireNonNull(graph);
+      this.recursive = recursive;
+    }
+
+    @Override
+    final boolean configure(final Settings settings,
+                            final Object object,
+                            final String prefix,
+                            final Set<Annotation> qualifiers,
+                            final Set<String> names)
+      throws ReflectiveOperationException {
+      final String settingName = this.getSettingName(prefix);
+      final String nestedPrefix = settingName.concat(".");
+      if (names != null && !containsPrefix(names, nestedPrefix)) {
+        return false;
+      }
+      final BeanConfigurator configurator = this.graph.get(this.beanClass);
+      Object value = null;
+      if (this.getter != null) {
+        try {
+          value = this.getter.invokeExact(object);
+        } catch (final Throwable throwable) {
+          throw new InvocationTargetException(throwable);
+        }
+      }
+      final boolean returnValue;
+      if (value != null) {
+        returnValue = configurator.configure(settings, value, nestedPrefix, qualifiers, names);
+      } else if (this.recursive) {
+        returnValue = false;
+      } else {
+        // Only attach a new nested bean if it received at least one
+        // value.
+        value = configurator.newInstance();
+        returnValue = configurator.configure(settings, value, nestedPrefix, qualifiers, names);
+        if (returnValue) {
+          this.set(object, value);
+        }
+      }
+      if (!returnValue && names == null) {
+        this.absent(settingName, qualifiers);
+      }
+      return returnValue;
+    }
+
+    @Override
+    final void prefetch(final Settings settings, final String prefix, final Set<Annotation> qualifiers) {
+      // A recursive property is configured only if its getter returns
+      // a value, which cannot be known here.
+      if (!this.recursive) {
+        this.graph.get(this.beanClass).prefetch(settings, this.getSettingName(prefix).concat("."), qualifiers);
+      }
+    }
+
+  }
+
+  private static final class ContainerProperty extends Property {
+
+    private final Converter<? extends List<String>> keysConverter;
+
+    private final Class<?> elementClass;
+
+    private final Map<Class<?>, BeanConfigurator> graph;
+
+    private final boolean map;
+
+    private ContainerProperty(final String name,
+                              final boolean required,
+                              final MethodHandle setter,
+                              final Method writeMethod,
+                              final Converter<? extends List<String>> keysConverter,
+                              final Class<?> elementClass,
+                              final Map<Class<?>, BeanConfigurator> graph,
+                              final boolean map) {
+      super(name, required, setter, writeMethod);
+      this.keysConverter = Objects.requireNonNull(keysConverter);
+      this.elementClass = Objects.requireNonNull(elementClass);
+      this.graph = Objects.requireNonNull(graph);
+      this.map = map;
+    }
+
+    @Override
+    final boolean configure(final Settings settings,
+                            final Object object,
+                            final String prefix,
+                            final Set<Annotation> qualifiers,
+                            final Set<String> names)
+      throws ReflectiveOperationException {
+      final String settingName = this.getSettingName(prefix);
+      // Any change to a container or its elements rebuilds it.
+      if (names != null && !names.contains(settingName) && !containsPrefix(names, settingName.concat("."))) {
+        return false;
+      }
+      final Object keys = settings.getOrAbsent(settingName, qualifiers, this.keysConverter, null);
+      if (keys == Settings.ABSENT || keys == null) {
+        this.absent(settingName, qualifiers);
+        return false;
+      }
+      final BeanConfigurator configurator = this.graph.get(this.elementClass);
+      final Map<String, Object> map = this.map ? new LinkedHashMap<>() : null;
+      final List<Object> list = this.map ? null : new ArrayList<>();
+      for (final Object k : (List<?>)keys) {
+        final String key = k == null ? "" : k.toString().trim();
+        if (!key.isEmpty()) {
+          final Object element = configurator.newInstance();
+          configurator.configure(settings, element, settingName + "." + key + ".", qualifiers, null);
+          if (this.map) {
+            map.put(key, element);
+          } else {
+            list.add(element);
+          }
+        }
+      }
+      this.set(object, this.map ? map : list);
+      return true;
+    }
+
+    @Override
+    final void prefetch(final Settings settings, final String prefix, final Set<Annotation> qualifiers) {
+      final String settingName = this.getSettingName(prefix);
+      final Object keys = settings.getOrAbsent(settingName, qualifiers, this.keysConverter, null);
+      if (keys != Settings.ABSENT && keys != null) {
+        final BeanConfigurator configurator = this.graph.get(this.elementClass);
+        for (final Object k : (List<?>)keys) {
+          final String key = k == null ? "" : k.toString().trim();
+          if (!key.isEmpty()) {
+            configurator.prefetch(settings, settingName + "." + key + ".", qualifiers);
+          }
+        }
+      }
+    }
+
+  }
+
+}
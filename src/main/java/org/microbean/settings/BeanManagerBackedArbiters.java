@@ -0,0 +1,97 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.Priority;
+
+import javax.enterprise.inject.Vetoed;
+
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+// Each iteration resolves the Arbiter beans afresh and returns them in
+// descending order of their bean classes' @Priority values (beans
+// without one come last), with ties broken by bean class name, so
+// that the order is deterministic.  Settings iterates this only when
+// it materializes its arbiter chain.
+@Vetoed
+final class BeanManagerBackedArbiters implements Iterable<Arbiter> {
+
+  private static final Comparator<Bean<?>> beanComparator =
+    Comparator.<Bean<?>>comparingInt(BeanManagerBackedArbiters::getPriority).reversed()
+    .thenComparing(bean -> bean.getBeanClass().getName());
+
+  private final BeanManager beanManager;
+
+  private final Set<Annotation> qualifiers;
+
+  // Shared with the other BeanManagerBacked* objects, so that an
+  // Arbiter resolved for several qualifier sets, or iterated more than
+  // once, is created only once.
+  private final BeanManagerBackedReferences references;
+
+  BeanManagerBackedArbiters(final BeanManager beanManager,
+                            final Set<Annotation> qualifiers,
+                            final BeanManagerBackedReferences references) {
+    super();
+    this.beanManager = Objects.requireNonNull(beanManager);
+    this.qualifiers = qualifiers;
+    this.references = Objects.requireNonNull(references);
+  }
+
+  @Override
+  public final Iterator<Arbiter> iterator() {
+    final Set<Annotation> qualifiers = this.qualifiers;
+    final Set<Bean<?>> beans;
+    if (qualifiers == null) {
+      beans = this.beanManager.getBeans(Arbiter.class);
+    } else {
+      beans = this.beanManager.getBeans(Arbiter.class, qualifiers.toArray(new Annotation[qualifiers.size()]));
+    }
+    final List<Arbiter> returnValue;
+    if (beans == null || beans.isEmpty()) {
+      returnValue = Collections.emptyList();
+    } else {
+      final List<Bean<?>> sortedBeans = new ArrayList<>(beans);
+      sortedBeans.sort(beanComparator);
+      returnValue = new ArrayList<>(sortedBeans.size());
+      for (final Bean<?> bean : sortedBeans) {
+        final Arbiter arbiter = (Arbiter)this.references.getReference(bean, Arbiter.class);
+        if (arbiter != null) {
+          returnValue.add(arbiter);
+        }
+      }
+    }
+    return returnValue.iterator();
+  }
+
+  private static final int getPriority(final Bean<?> bean) {
+    final Priority priority = bean.getBeanClass().getAnnotation(Priority.class);
+    return priority == null ? Integer.MIN_VALUE : priority.value();
+  }
+
+}
@@ -26,6 +26,9 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.StringJoiner;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.enterprise.inject.Vetoed;
 
 import javax.enterprise.inject.spi.Bean;
@@ -40,15 +43,43 @@ final class BeanManagerBackedConverterProvider implements ConverterProvider {
 
   private final Set<Annotation> qualifiers;
 
+  // The bean set is fixed after deployment, so a Converter resolved
+  // for a given Type may be reused until the container shuts down.
+  private final ConcurrentMap<Type, Converter<?>> converters;
+
+  // Shared with the other BeanManagerBackedConverterProviders, so
+  // that a Converter resolved for several qualifier sets is created
+  // only once.
+  private final BeanManagerBackedReferences references;
+
   BeanManagerBackedConverterProvider(final BeanManager beanManager,
-                                            final Set<Annotation> qualifiers) {
+                                     final Set<Annotation> qualifiers,
+                                     final BeanManagerBackedReferences references) {
     super();
     this.beanManager = Objects.requireNonNull(beanManager);
     this.qualifiers = qualifiers;
+    this.references = Objects.requireNonNull(references);
+    this.converters = new ConcurrentHashMap<>();
   }
 
   @Override
   public Converter<?> getConverter(final Type type) {
+    Converter<?> returnValue = this.converters.get(Objects.requireNonNull(type));
+    if (returnValue == null) {
+      returnValue = this.resolveConverter(type);
+      final Converter<?> existing = this.converters.putIfAbsent(type, returnValue);
+      if (existing != null) {
+        returnValue = existing;
+      }
+    }
+    return returnValue;
+  }
+
+  final void close() {
+    this.converters.clear();
+  }
+
+  private final Converter<?> resolveConverter(final Type type) {
     final Converter<?> returnValue;
     final Type converterType = new ParameterizedTypeImpl(Converter.class, type);
     Set<Bean<?>> beans;
@@ -70,9 +101,7 @@ final class BeanManagerBackedConverterProvider implements ConverterProvider {
     if (bean == null) {
       returnValue = null;
     } else {
-      @SuppressWarnings("unchecked")
-      final Converter<?> temp = (Converter<?>)this.beanManager.getReference(bean, converterType, this.beanManager.createCreationalContext(null));
-      returnValue = temp;
+      returnValue = (Converter<?>)this.references.getReference(bean, converterType);
     }
     if (returnValue == null) {
       throw new IllegalArgumentException("No converter available for " + type);
@@ -0,0 +1,88 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.reflect.Type;
+
+import java.util.Objects;
+import java.util.Queue;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.spi.CreationalContext;
+
+import javax.enterprise.inject.Vetoed;
+
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+// Contextual references to the Converter and Source beans used by
+// the Settings instances installed by SettingsExtension, shared among
+// all of them so that a bean resolved for several qualifier sets is
+// instantiated only once.
+@Vetoed
+final class BeanManagerBackedReferences {
+
+  private final BeanManager beanManager;
+
+  // The bean set is fixed after deployment, so a reference obtained
+  // for a given Bean may be reused until the container shuts down.
+  private final ConcurrentMap<Bean<?>, Object> references;
+
+  // Released by close(), so that dependent references are destroyed.
+  private final Queue<CreationalContext<?>> creationalContexts;
+
+  BeanManagerBackedReferences(final BeanManager beanManager) {
+    super();
+    this.beanManager = Objects.requireNonNull(beanManager);
+    this.references = new ConcurrentHashMap<>();
+    this.creationalContexts = new ConcurrentLinkedQueue<>();
+  }
+
+  final Object getReference(final Bean<?> bean, final Type type) {
+    Object returnValue = this.references.get(Objects.requireNonNull(bean));
+    if (returnValue == null) {
+      final CreationalContext<?> cc = this.beanManager.createCreationalContext(bean);
+      returnValue = this.beanManager.getReference(bean, type, cc);
+      if (returnValue == null) {
+        // A producer may legitimately produce null; there is nothing
+        // to share.
+        this.creationalContexts.add(cc);
+      } else {
+        final Object existing = this.references.putIfAbsent(bean, returnValue);
+        if (existing == null) {
+          this.creationalContexts.add(cc);
+        } else {
+          cc.release();
+          returnValue = existing;
+        }
+      }
+    }
+    return returnValue;
+  }
+
+  final void close() {
+    this.references.clear();
+    CreationalContext<?> cc;
+    while ((cc = this.creationalContexts.poll()) != null) {
+      cc.release();
+    }
+  }
+
+}
@@ -18,12 +18,15 @@ package org.microbean.settings;
 
 import java.lang.annotation.Annotation;
 
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import java.util.function.BiFunction;
 
 import javax.enterprise.inject.Vetoed;
@@ -35,14 +38,41 @@ import javax.enterprise.inject.spi.BeanManager;
 final class BeanManagerBackedSourcesSupplier implements BiFunction<String, Set<Annotation>, Set<? extends Source>> {
 
   private final BeanManager beanManager;
-  
-  BeanManagerBackedSourcesSupplier(final BeanManager beanManager) {
+
+  // The bean set is fixed after deployment, so the Sources resolved
+  // for a given set of qualifiers may be reused until the container
+  // shuts down.  Sources are not selected by name.
+  private final ConcurrentMap<Set<Annotation>, Set<? extends Source>> sources;
+
+  private final BeanManagerBackedReferences references;
+
+  BeanManagerBackedSourcesSupplier(final BeanManager beanManager, final BeanManagerBackedReferences references) {
     super();
     this.beanManager = Objects.requireNonNull(beanManager);
+    this.references = Objects.requireNonNull(references);
+    this.sources = new ConcurrentHashMap<>();
   }
 
   @Override
   public Set<? extends Source> apply(final String name, final Set<Annotation> qualifiers) {
+    final Set<Annotation> key = qualifiers == null ? Collections.emptySet() : qualifiers;
+    Set<? extends Source> returnValue = this.sources.get(key);
+    if (returnValue == null) {
+      returnValue = this.resolveSources(qualifiers);
+      final Set<? extends Source> existing =
+        this.sources.putIfAbsent(key.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(key)), returnValue);
+      if (existing != null) {
+        returnValue = existing;
+      }
+    }
+    return returnValue;
+  }
+
+  final void close() {
+    this.sources.clear();
+  }
+
+  private final Set<? extends Source> resolveSources(final Set<Annotation> qualifiers) {
     Set<Bean<?>> beans;
     if (qualifiers == null) {
       beans = this.beanManager.getBeans(Source.class);
@@ -58,13 +88,12 @@ final class BeanManagerBackedSourcesSupplier implements BiFunction<String, Set<A
     } else {
       final Set<Source> sources = new LinkedHashSet<>();
       for (final Bean<?> bean : beans) {
-        @SuppressWarnings("unchecked")
-        final Source source = (Source)this.beanManager.getReference(bean, Source.class, this.beanManager.createCreationalContext(null));
+        final Source source = (Source)this.references.getReference(bean, Source.class);
         if (source != null) {
           sources.add(source);
         }
       }
-      returnValue = sources;
+      returnValue = Collections.unmodifiableSet(sources);
     }
     return returnValue;
   }
@@ -0,0 +1,173 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2019–2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.Set;
+
+/**
+ * An object that knows how to {@linkplain #configure(Settings,
+ * Object, String, Set) configure} instances of a particular class
+ * using <a href="{@docRoot}/overview-summary.html#setting_value">setting
+ * values</a>.
+ *
+ * <p>{@link Settings#configure(Object, String, Set)} and its ilk
+ * look for a {@link Configurator} for the class of the object being
+ * configured before falling back on reflection.  A {@link
+ * Configurator} for a class is found if it is named as the {@link
+ * #getGeneratedClassName(String)} method describes, is loadable by
+ * the configured class' {@link ClassLoader}, implements this
+ * interface with the configured class as its type argument and has a
+ * public zero-argument constructor.  Such classes are normally
+ * generated at compile time by the {@link
+ * org.microbean.settings.processor.SettingsProcessor} annotation
+ * processor, which must be enabled explicitly.</p>
+ *
+ * @param <T> the type of object configured
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @threadsafety Implementations of this interface must be safe for
+ * concurrent use by multiple threads.
+ *
+ * @see Settings#configure(Object, String, Set)
+ *
+ * @see org.microbean.settings.processor.SettingsProcessor
+ */
+public interface Configurator<T> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  /**
+   * The suffix appended to the {@linkplain
+   * #getGeneratedClassName(String) encoded} name of a class to form
+   * the name of its generated {@link Configurator}.
+   *
+   * @nullability This field is never {@code null}.
+   */
+  public static final String GENERATED_CLASS_NAME_SUFFIX = "_SettingsConfigurator";
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns the fully qualified name of the generated {@link
+   * Configurator} for the class with the supplied binary name.
+   *
+   * <p>The returned name is in the same package as the class.  Its
+   * simple name is the class' binary name without the package, with
+   * each {@code _} replaced by {@code _1} and then each {@code $}
+   * replaced by {@code __}, followed by {@link
+   * #GENERATED_CLASS_NAME_SUFFIX}.  So the {@link Configurator} for
+   * {@code com.example.Outer$Inner} is named {@code
+   * com.example.Outer__Inner_SettingsConfigurator}, and that for a
+   * top-level {@code com.example.Outer_Inner} is named {@code
+   * com.example.Outer_1Inner_SettingsConfigurator}; no two classes
+   * share a name.</p>
+   *
+   * @param binaryName the binary name of a class, such as is returned
+   * by {@link Class#getName()}; must not be {@code null}
+   *
+   * @return the fully qualified name of the class' generated {@link
+   * Configurator}; never {@code null}
+   *
+   * @exception NullPointerException if {@code binaryName} is {@code
+   * null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public static String getGeneratedClassName(final String binaryName) {
+    final int lastDot = binaryName.lastIndexOf('.');
+    final StringBuilder sb = new StringBuilder(binaryName.length() + GENERATED_CLASS_NAME_SUFFIX.length() + 8);
+    sb.append(binaryName, 0, lastDot + 1);
+    for (int i = lastDot + 1; i < binaryName.length(); i++) {
+      final char c = binaryName.charAt(i);
+      switch (c) {
+      case '_':
+        sb.append("_1");
+        break;
+      case '$':
+        sb.append("__");
+        break;
+      default:
+        sb.append(c);
+        break;
+      }
+    }
+    return sb.append(GENERATED_CLASS_NAME_SUFFIX).toString();
+  }
+
+
+  /*
+   * Abstract methods.
+   */
+
+
+  /**
+   * Configures the supplied {@code object} by {@linkplain
+   * Settings#get(String, Set, Converter,
+   * java.util.function.BiFunction) acquiring setting values} using the supplied {@link Settings} and setting
+   * them on the supplied {@code object}.
+   *
+   * @param settings the {@link Settings} to use to acquire setting
+   * values; must not be {@code null}
+   *
+   * @param object the object to configure; must not be {@code null}
+   *
+   * @param prefix a {@link String} that will be prepended to the
+   * name of each setting; may be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of values; may be {@code null}
+   *
+   * @exception NullPointerException if either {@code settings} or
+   * {@code object} is {@code null}
+   *
+   * @exception ReflectiveOperationException if there was a problem
+   * setting a value; the supplied {@code object} may, in this case,
+   * be left in an inconsistent state
+   *
+   * @exception java.util.NoSuchElementException if a required setting
+   * has no value
+   *
+   * @threadsafety Implementations of this method must be safe for
+   * concurrent use by multiple threads.
+   *
+   * @idempotency No guarantees are made with respect to the
+   * idempotency of implementations of this method.
+   */
+  public void configure(final Settings settings,
+                        final T object,
+                        final String prefix,
+                        final Set<Annotation> qualifiers)
+    throws ReflectiveOperationException;
+
+}
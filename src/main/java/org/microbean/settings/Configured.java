@@ -25,6 +25,7 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 import javax.enterprise.util.AnnotationLiteral;
+import javax.enterprise.util.Nonbinding;
 
 import javax.inject.Qualifier;
 
@@ -35,6 +36,12 @@ import org.microbean.development.annotation.Experimental;
  * {@linkplain Settings#configure(Object, Iterable, String, Set)
  * configured} immediately after being instantiated.
  *
+ * <p>If the {@link #live() live} element is {@code true} on any
+ * injection point requesting a given {@code Configured} type, the
+ * instance is additionally reconfigured whenever any of the settings
+ * it was configured from is {@linkplain Settings#invalidate(String,
+ * Set) invalidated}.</p>
+ *
  * @author <a href="https://about.me/lairdnelson"
  * target="_parent">Laird Nelson</a>
  *
@@ -47,6 +54,37 @@ import org.microbean.development.annotation.Experimental;
 @Target({ ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.TYPE })
 public @interface Configured {
 
+
+  /*
+   * Elements.
+   */
+
+
+  /**
+   * Whether the relevant instance should be reconfigured, after it
+   * has been instantiated, whenever any of the settings it was
+   * configured from is {@linkplain Settings#invalidate(String, Set)
+   * invalidated}.
+   *
+   * <p>Only the write methods and fields corresponding to invalidated
+   * settings are set again.  Invalidations are batched: an instance
+   * is reconfigured once invalidations affecting it have stopped
+   * arriving for a short period, on a background thread.  The
+   * relevant instance must therefore be safe for concurrent use by
+   * multiple threads.</p>
+   *
+   * @return whether the relevant instance should be reconfigured when
+   * its settings change
+   */
+  @Nonbinding
+  boolean live() default false;
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
   /**
    * An {@link AnnotationLiteral} that implements the {@link
    * Configured} interface/annotation.
@@ -76,7 +114,23 @@ public @interface Configured {
      *
      * @nullability This field is never {@code null}.
      */
-    public static final Configured INSTANCE = new Literal();
+    public static final Configured INSTANCE = new Literal(false);
+
+    /**
+     * An instance of this class whose {@link #live()} method returns
+     * {@code true}.
+     *
+     * @nullability This field is never {@code null}.
+     */
+    public static final Configured LIVE = new Literal(true);
+
+
+    /*
+     * Instance fields.
+     */
+
+
+    private final boolean live;
 
 
     /*
@@ -87,8 +141,29 @@ public @interface Configured {
     /**
      * Creates a new {@link Literal}.
      */
-    private Literal() {
+    private Literal(final boolean live) {
       super();
+      this.live = live;
+    }
+
+
+    /*
+     * Instance methods.
+     */
+
+
+    /**
+     * Returns whether the relevant instance should be reconfigured
+     * when its settings change.
+     *
+     * @return whether the relevant instance should be reconfigured
+     * when its settings change
+     *
+     * @see Configured#live()
+     */
+    @Override
+    public final boolean live() {
+      return this.live;
     }
 
   }
@@ -0,0 +1,282 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.SwitchPoint;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Supplier} of the value of a particular <a
+ * href="{@docRoot}/overview-summary.html#setting_name">setting</a>
+ * that treats that value as a constant until the setting is
+ * {@linkplain Settings#invalidate(String, Set) invalidated}.
+ *
+ * <p>The value is held by a {@link MutableCallSite} whose target
+ * returns it as a {@linkplain MethodHandles#constant(Class, Object)
+ * constant}, guarded by a {@link SwitchPoint}.  When the setting, or
+ * any setting its value was <a
+ * href="{@docRoot}/overview-summary.html#interpolation">interpolated</a>
+ * from, is invalidated, the {@link SwitchPoint} is invalidated and
+ * the next read acquires the value again and relinks the {@link
+ * CallSite}.  A {@link MethodHandle} returned by the {@link
+ * #getInvoker()} method and stored in a {@code static final} field
+ * can therefore be constant-folded by a just-in-time compiler, so
+ * that steady-state reads cost nothing.</p>
+ *
+ * <p>Instances of this class are created by the {@link
+ * Settings#constant(String, Set, Converter, BiFunction)} method and
+ * its ilk, and remain registered with the {@link Settings} that
+ * created them until they are {@linkplain
+ * Settings#release(ConstantSetting) released}.</p>
+ *
+ * @param <T> the type to which values are {@linkplain
+ * Converter#convert(Value) converted}
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads provided that the {@link Converter} they were
+ * created with is.
+ *
+ * @see #get()
+ *
+ * @see #getInvoker()
+ *
+ * @see Settings#constant(String, Set, Converter, BiFunction)
+ *
+ * @see Settings#invalidate(String, Set)
+ */
+public final class ConstantSetting<T> implements Supplier<T> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final MethodHandle relinkMethodHandle;
+
+  static {
+    try {
+      relinkMethodHandle =
+        MethodHandles.lookup().findVirtual(ConstantSetting.class, "relink", MethodType.methodType(Object.class));
+    } catch (final NoSuchMethodException | IllegalAccessException reflectiveOperationException) {
+      throw new ExceptionInInitializerError(reflectiveOperationException);
+    }
+  }
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final SettingHandle<T> handle;
+
+  private final BiConsumer<String, Set<Annotation>> invalidationListener;
+
+  private final MethodHandle relink;
+
+  private final MutableCallSite callSite;
+
+  private final MethodHandle invoker;
+
+  private volatile SwitchPoint switchPoint;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  ConstantSetting(final SettingHandle<T> handle) {
+    super();
+    this.handle = Objects.requireNonNull(handle);
+    this.invalidationListener = this::invalidate;
+    this.relink = relinkMethodHandle.bindTo(this);
+    // The value is acquired lazily, on first read.
+    this.callSite = new MutableCallSite(this.relink);
+    this.invoker = this.callSite.dynamicInvoker();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the name of the setting this {@link ConstantSetting}
+   * represents.
+   *
+   * @return the name of the setting; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final String getName() {
+    return this.handle.getName();
+  }
+
+  /**
+   * Returns the qualifiers of the setting this {@link
+   * ConstantSetting} represents.
+   *
+   * @return an unmodifiable {@link Set} of qualifier {@link
+   * Annotation}s; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final Set<Annotation> getQualifiers() {
+    return this.handle.getQualifiers();
+  }
+
+  /**
+   * Returns a {@link MethodHandle} of type {@code ()Object} that,
+   * when invoked, returns the current value of the setting this
+   * {@link ConstantSetting} represents.
+   *
+   * <p>For best performance, store the return value of this method
+   * in a {@code static final} field and invoke it with {@link
+   * MethodHandle#invokeExact(Object...)}.  Invocations of the
+   * returned {@link MethodHandle}, like invocations of the {@link
+   * #get()} method, are {@linkplain
+   * Settings#recordAccesses(java.nio.file.Path) recorded} only when
+   * they acquire a value.</p>
+   *
+   * @return a non-{@code null} {@link MethodHandle}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see MutableCallSite#dynamicInvoker()
+   */
+  public final MethodHandle getInvoker() {
+    return this.invoker;
+  }
+
+  /**
+   * Returns the current value of the setting this {@link
+   * ConstantSetting} represents, acquiring it first if this is the
+   * first invocation of this method or if the setting has been
+   * {@linkplain Settings#invalidate(String, Set) invalidated} since
+   * it was last acquired.
+   *
+   * <p>Only invocations that acquire a value are {@linkplain
+   * Settings#recordAccesses(java.nio.file.Path) recorded}, so
+   * repeated invocations cost no more than an invocation of the
+   * {@linkplain #getInvoker() invoker}.</p>
+   *
+   * @return a suitable value (possibly {@code null})
+   *
+   * @exception NoSuchElementException if no value could be sourced
+   * and this {@link ConstantSetting} was created without a default
+   * value function
+   *
+   * @exception ValueAcquisitionException if there was a procedural
+   * problem acquiring a value
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic between
+   * invalidations of the setting this {@link ConstantSetting}
+   * represents.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see SettingHandle#get()
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public final T get() {
+    try {
+      return (T)(Object)this.invoker.invokeExact();
+    } catch (final RuntimeException | Error runtimeExceptionOrError) {
+      throw runtimeExceptionOrError;
+    } catch (final Throwable throwable) {
+      // relink() throws no checked exceptions.
+      throw new IllegalStateException(throwable.getMessage(), throwable);
+    }
+  }
+
+  final BiConsumer<String, Set<Annotation>> getInvalidationListener() {
+    return this.invalidationListener;
+  }
+
+  private final void invalidate(final String name, final Set<Annotation> qualifiers) {
+    final SwitchPoint switchPoint = this.switchPoint;
+    if (switchPoint != null && this.getName().equals(name) && this.getQualifiers().containsAll(qualifiers)) {
+      SwitchPoint.invalidateAll(new SwitchPoint[] { switchPoint });
+    }
+  }
+
+  @SuppressWarnings("unused") // invoked via relinkMethodHandle
+  private final synchronized Object relink() {
+    // If several threads raced here, the target installed by an
+    // earlier one must not remain valid once it is replaced.
+    final SwitchPoint oldSwitchPoint = this.switchPoint;
+    if (oldSwitchPoint != null && !oldSwitchPoint.hasBeenInvalidated()) {
+      SwitchPoint.invalidateAll(new SwitchPoint[] { oldSwitchPoint });
+    }
+    // Install the new SwitchPoint before acquiring the value so that
+    // an invalidation that occurs while the value is being acquired
+    // is not lost.
+    final SwitchPoint switchPoint = new SwitchPoint();
+    this.switchPoint = switchPoint;
+    final Object value = this.handle.get();
+    this.callSite.setTarget(switchPoint.guardWithTest(MethodHandles.constant(Object.class, value), this.relink));
+    // No MutableCallSite.syncAll() call is needed: a thread that sees
+    // a stale target will find its SwitchPoint invalidated and will
+    // come back here.
+    return value;
+  }
+
+  @Override
+  public final String toString() {
+    return this.handle.toString();
+  }
+
+}
@@ -0,0 +1,254 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.beans.ConstructorProperties;
+
+import java.lang.annotation.Annotation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.function.BiFunction;
+
+/**
+ * A precompiled means of {@linkplain #bind(Settings, String, Set)
+ * creating} instances of a particular class, typically an immutable
+ * one, by invoking one of its constructors with setting values.
+ *
+ * <p>The constructor used is, in order of preference, the sole
+ * public constructor annotated with {@link ConstructorProperties},
+ * the sole public constructor, or the public constructor with the
+ * most parameters (which, for a record, is its canonical
+ * constructor).  The name of the setting supplying a parameter's
+ * value is, in order of preference, the {@linkplain Setting#name()
+ * name} of a {@link Setting} annotation on the parameter, the
+ * corresponding element of the {@link ConstructorProperties}
+ * annotation, or the parameter's name as recorded by the {@code
+ * -parameters} option of {@code javac}.</p>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads.
+ *
+ * @see Settings#bind(Class, String, Set)
+ */
+final class ConstructorBinder<T> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Class<T> type;
+
+  private final Component[] components;
+
+  private final MethodHandle constructor;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private ConstructorBinder(final Class<T> type, final Component[] components, final MethodHandle constructor) {
+    super();
+    this.type = Objects.requireNonNull(type);
+    this.components = Objects.requireNonNull(components);
+    this.constructor = Objects.requireNonNull(constructor);
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  final T bind(final Settings settings,
+               final String prefix,
+               final Set<Annotation> qualifiers)
+    throws ReflectiveOperationException {
+    final Component[] components = this.components;
+    final Object[] arguments = new Object[components.length];
+    // Acquire every value before constructing anything.
+    for (int i = 0; i < arguments.length; i++) {
+      arguments[i] = components[i].getValue(settings, prefix, qualifiers);
+    }
+    final Object returnValue;
+    try {
+      returnValue = this.constructor.invokeExact(arguments);
+    } catch (final Throwable throwable) {
+      // Report failures the same way Constructor#newInstance(Object...)
+      // does.
+      throw new InvocationTargetException(throwable);
+    }
+    return this.type.cast(returnValue);
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  static final <T> ConstructorBinder<T> of(final Class<T> type, final ConverterProvider converterProvider)
+    throws NoSuchMethodException, IllegalAccessException {
+    Objects.requireNonNull(converterProvider);
+    final Constructor<?> constructor = selectConstructor(type);
+    final ConstructorProperties constructorProperties = constructor.getAnnotation(ConstructorProperties.class);
+    final String[] propertyNames = constructorProperties == null ? null : constructorProperties.value();
+    final Parameter[] parameters = constructor.getParameters();
+    if (propertyNames != null && propertyNames.length != parameters.length) {
+      throw new IllegalArgumentException("The ConstructorProperties annotation on " + constructor +
+                                         " does not name every parameter");
+    }
+    final Component[] components = new Component[parameters.length];
+    for (int i = 0; i < parameters.length; i++) {
+      final Parameter parameter = parameters[i];
+      final Setting setting = parameter.getAnnotation(Setting.class);
+      String name = setting == null ? null : setting.name();
+      if (name == null || name.isEmpty() || name.equals(Setting.UNSET)) {
+        if (propertyNames != null) {
+          name = propertyNames[i];
+        } else if (parameter.isNamePresent()) {
+          name = parameter.getName();
+        } else {
+          throw new IllegalArgumentException("The parameter at index " +
+                                             i +
+                                             " in " +
+                                             constructor +
+                                             " did not have a name available via reflection. " +
+                                             "Make sure you compiled its enclosing class, " +
+                                             type.getName() +
+                                             ", with the -parameters option supplied to javac, " +
+                                             "or make use of the " +
+                                             ConstructorProperties.class.getName() +
+                                             " annotation or the name() element of the " +
+                                             Setting.class.getName() +
+                                             " annotation.");
+        }
+      }
+      final String defaultValue = setting == null ? null : setting.defaultValue();
+      final Type parameterType = parameter.getParameterizedType();
+      final Class<?> rawType = parameter.getType();
+      components[i] = new Component(name,
+                                    converterProvider.getConverter(parameterType),
+                                    defaultValue == null || defaultValue.equals(Setting.UNSET) ? null : defaultValue,
+                                    setting != null && setting.required(),
+                                    rawType.isPrimitive() ? Array.get(Array.newInstance(rawType, 1), 0) : null);
+    }
+    final MethodHandle constructorHandle = MethodHandles.lookup().unreflectConstructor(constructor)
+      .asSpreader(Object[].class, parameters.length)
+      .asType(MethodType.methodType(Object.class, Object[].class));
+    return new ConstructorBinder<>(type, components, constructorHandle);
+  }
+
+  private static final Constructor<?> selectConstructor(final Class<?> type) throws NoSuchMethodException {
+    final Constructor<?>[] constructors = type.getConstructors();
+    if (constructors.length == 0) {
+      throw new NoSuchMethodException("No public constructors in " + type.getName());
+    }
+    Constructor<?> annotated = null;
+    Constructor<?> widest = null;
+    boolean ambiguous = false;
+    for (final Constructor<?> constructor : constructors) {
+      if (constructor.isAnnotationPresent(ConstructorProperties.class)) {
+        if (annotated != null) {
+          throw new NoSuchMethodException("More than one constructor in " + type.getName() +
+                                          " is annotated with " + ConstructorProperties.class.getName());
+        }
+        annotated = constructor;
+      }
+      if (widest == null || constructor.getParameterCount() > widest.getParameterCount()) {
+        widest = constructor;
+        ambiguous = false;
+      } else if (constructor.getParameterCount() == widest.getParameterCount()) {
+        ambiguous = true;
+      }
+    }
+    if (annotated != null) {
+      return annotated;
+    } else if (ambiguous) {
+      throw new NoSuchMethodException("More than one public constructor in " + type.getName() +
+                                      " has " + widest.getParameterCount() + " parameters");
+    }
+    return widest;
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class Component {
+
+    private final String name;
+
+    private final Converter<?> converter;
+
+    private final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction;
+
+    private final boolean required;
+
+    private final Object absentValue;
+
+    private Component(final String name,
+                      final Converter<?> converter,
+                      final String defaultValue,
+                      final boolean required,
+                      final Object absentValue) {
+      super();
+      this.name = Objects.requireNonNull(name);
+      this.converter = Objects.requireNonNull(converter);
+      this.defaultValueFunction = defaultValue == null ? null : (n, qs) -> defaultValue;
+      this.required = required;
+      this.absentValue = absentValue;
+    }
+
+    private final Object getValue(final Settings settings, final String prefix, final Set<Annotation> qualifiers) {
+      final String settingName = prefix == null ? this.name : prefix.concat(this.name);
+      final Object value = settings.getOrAbsent(settingName, qualifiers, this.converter, this.defaultValueFunction);
+      final Object returnValue;
+      if (value == Settings.ABSENT) {
+        if (this.required) {
+          throw new NoSuchElementException(settingName + " (" + qualifiers + ")");
+        }
+        returnValue = this.absentValue;
+      } else if (value == null) {
+        returnValue = this.absentValue;
+      } else {
+        returnValue = value;
+      }
+      return returnValue;
+    }
+
+  }
+
+}
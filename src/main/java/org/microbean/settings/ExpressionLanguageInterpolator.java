@@ -0,0 +1,268 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.beans.FeatureDescriptor;
+
+import java.lang.annotation.Annotation;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.function.BiFunction;
+
+import javax.el.ELContext;
+import javax.el.ELException; // for javadoc only
+import javax.el.ELResolver;
+import javax.el.ExpressionFactory;
+import javax.el.PropertyNotFoundException;
+import javax.el.StandardELContext;
+import javax.el.ValueExpression;
+
+/**
+ * An {@link Interpolator} that interpolates values using the <a
+ * href="https://jakarta.ee/specifications/expression-language/3.0/">Jakarta
+ * Expression Language</a>.
+ *
+ * <p>References to other settings take the form {@code
+ * ${settings['java.home']}} or, equivalently, {@code
+ * ${s['java.home']}}.</p>
+ *
+ * <p>This is the {@link Interpolator} that a {@link Settings} uses
+ * when no other {@link Interpolator} is {@linkplain
+ * Settings#Settings(Set, BiFunction, ConverterProvider, Iterable,
+ * Interpolator) supplied}.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see #interpolate(String, Set, BiFunction)
+ *
+ * @see PlaceholderInterpolator
+ */
+public class ExpressionLanguageInterpolator extends Interpolator {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final ExpressionFactory expressionFactory;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link ExpressionLanguageInterpolator} using the
+   * {@link ExpressionFactory} returned by the {@link
+   * ExpressionFactory#newInstance()} method.
+   *
+   * @see #ExpressionLanguageInterpolator(ExpressionFactory)
+   */
+  public ExpressionLanguageInterpolator() {
+    this(ExpressionFactory.newInstance());
+  }
+
+  /**
+   * Creates a new {@link ExpressionLanguageInterpolator}.
+   *
+   * @param expressionFactory the {@link ExpressionFactory} used to
+   * {@linkplain ExpressionFactory#createValueExpression(ELContext,
+   * String, Class) create <code>ValueExpression</code>s}; must not be
+   * {@code null}; must be safe for concurrent use by multiple threads
+   *
+   * @exception NullPointerException if {@code expressionFactory} is
+   * {@code null}
+   */
+  public ExpressionLanguageInterpolator(final ExpressionFactory expressionFactory) {
+    super();
+    this.expressionFactory = Objects.requireNonNull(expressionFactory);
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Interpolates the supplied {@code value} by treating it as a
+   * {@link ValueExpression} and {@linkplain
+   * ValueExpression#getValue(ELContext) evaluating it}, and returns
+   * the result.
+   *
+   * @param value the {@link String} to interpolate; may be {@code
+   * null} in which case {@code null} will be returned
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s
+   * qualifying the current value acquisition operation; may be
+   * {@code null}
+   *
+   * @param resolver a {@link BiFunction} that accepts a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a> and a (possibly {@code null}) default value and returns
+   * the fully interpolated value of the named setting; must not be
+   * {@code null}
+   *
+   * @return the interpolated value, or {@code null}
+   *
+   * @exception NullPointerException if {@code resolver} is {@code
+   * null}
+   *
+   * @exception NoSuchElementException if {@code value} contained a
+   * reference to a setting that has no value
+   *
+   * @exception ELException if there was an error related to
+   * expression language parsing or evaluation
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is not idempotent, since the values of
+   * referenced settings may change.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Override
+  public String interpolate(final String value,
+                            final Set<Annotation> qualifiers,
+                            final BiFunction<? super String, ? super String, ? extends String> resolver) {
+    Objects.requireNonNull(resolver);
+    final String returnValue;
+    if (value == null) {
+      returnValue = null;
+    } else if (value.indexOf('$') < 0 && value.indexOf('#') < 0) {
+      // There cannot be any expressions, and there cannot be any
+      // escape sequences either, so the value is a literal.
+      returnValue = value;
+    } else {
+      final ExpressionFactory expressionFactory = this.expressionFactory;
+      final StandardELContext elContext = new StandardELContext(expressionFactory);
+      elContext.addELResolver(new SourceELResolver(resolver));
+      String temp = null;
+      try {
+        final ValueExpression valueExpression = expressionFactory.createValueExpression(elContext, value, String.class);
+        assert valueExpression != null;
+        temp = String.class.cast(valueExpression.getValue(elContext));
+      } finally {
+        returnValue = temp;
+      }
+    }
+    return returnValue;
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class SourceELResolver extends ELResolver {
+
+    private static final Set<String> MAGIC_NAMES;
+
+    static {
+      MAGIC_NAMES = new HashSet<>();
+      MAGIC_NAMES.add("s");
+      MAGIC_NAMES.add("settings");
+    }
+
+    private final BiFunction<? super String, ? super String, ? extends String> resolver;
+
+    private SourceELResolver(final BiFunction<? super String, ? super String, ? extends String> resolver) {
+      super();
+      this.resolver = Objects.requireNonNull(resolver);
+    }
+
+    @Override
+    public final Class<?> getCommonPropertyType(final ELContext elContext, final Object base) {
+      return Object.class;
+    }
+
+    @Override
+    public final Iterator<FeatureDescriptor> getFeatureDescriptors(final ELContext elContext, final Object base) {
+      return Collections.emptyIterator();
+    }
+
+    @Override
+    public final boolean isReadOnly(final ELContext elContext, final Object base, final Object property) {
+      if (elContext != null && (property instanceof String || property == this.resolver)) {
+        elContext.setPropertyResolved(true);
+      }
+      return true;
+    }
+
+    @Override
+    public final Class<?> getType(final ELContext elContext, final Object base, final Object property) {
+      Objects.requireNonNull(elContext);
+      Class<?> returnValue = null;
+      if (base == null) {
+        if (MAGIC_NAMES.contains(property)) {
+          elContext.setPropertyResolved(true);
+          returnValue = this.resolver.getClass();
+        }
+      } else if (base == this.resolver && property instanceof String) {
+        final String value = this.resolver.apply((String)property, null);
+        elContext.setPropertyResolved(true);
+        if (value == null) {
+          throw new PropertyNotFoundException((String)property);
+        }
+        returnValue = String.class;
+      }
+      // Note that as currently written returnValue may be null.
+      return returnValue;
+    }
+
+    @Override
+    public final Object getValue(final ELContext elContext, final Object base, final Object property) {
+      Objects.requireNonNull(elContext);
+      Object returnValue = null;
+      if (base == null) {
+        if (MAGIC_NAMES.contains(property)) {
+          elContext.setPropertyResolved(true);
+          returnValue = this.resolver;
+        }
+      } else if (base == this.resolver && property instanceof String) {
+        final String value = this.resolver.apply((String)property, null);
+        elContext.setPropertyResolved(true);
+        if (value == null) {
+          throw new PropertyNotFoundException((String)property);
+        }
+        returnValue = value;
+      }
+      // Note that as currently written returnValue may be null.
+      return returnValue;
+    }
+
+    @Override
+    public final void setValue(final ELContext elContext, final Object base, final Object property, final Object value) {
+      if (elContext != null) {
+        elContext.setPropertyResolved(false);
+      }
+    }
+
+  }
+
+}
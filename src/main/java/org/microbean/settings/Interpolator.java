@@ -0,0 +1,120 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import java.util.function.BiFunction;
+
+/**
+ * An abstraction of a mechanism that performs <a
+ * href="{@docRoot}/overview-summary.html#interpolation">interpolation</a>
+ * on {@link String}-typed <a
+ * href="{@docRoot}/overview-summary.html#setting_value">setting
+ * values</a>.
+ *
+ * <p>{@link Interpolator} instances are used by {@link Settings}
+ * instances, which supply them with a means of resolving references
+ * to other settings.</p>
+ *
+ * @threadsafety Instances of this class must be safe for concurrent
+ * use by multiple threads.
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see #interpolate(String, Set, BiFunction)
+ *
+ * @see ExpressionLanguageInterpolator
+ *
+ * @see PlaceholderInterpolator
+ *
+ * @see Settings#Settings(Set, BiFunction, ConverterProvider,
+ * Iterable, Interpolator)
+ */
+public abstract class Interpolator {
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link Interpolator}.
+   */
+  protected Interpolator() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Interpolates the supplied {@code value} and returns the result.
+   *
+   * <p>Implementations of this method must resolve any references
+   * to other settings they find in the supplied {@code value} by
+   * using the supplied {@code resolver} exclusively.</p>
+   *
+   * @param value the {@link String} to interpolate; may be {@code
+   * null} in which case {@code null} must be returned
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s
+   * qualifying the current value acquisition operation; may be
+   * {@code null}; provided for informational purposes only
+   *
+   * @param resolver a {@link BiFunction} that accepts a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a> and a (possibly {@code null}) default value and returns
+   * the fully interpolated value of the named setting, or the
+   * (interpolated) default value if the named setting has no value;
+   * if the default value is {@code null} and the named setting has
+   * no value, the {@link BiFunction} will throw a {@link
+   * NoSuchElementException}; must not be {@code null}
+   *
+   * @return the interpolated value, or {@code null}
+   *
+   * @exception NullPointerException if {@code resolver} is {@code
+   * null}
+   *
+   * @exception NoSuchElementException if {@code value} contained a
+   * reference to a setting that has no value and no default value
+   *
+   * @exception IllegalArgumentException if {@code value} could not
+   * be interpolated because it was malformed
+   *
+   * @nullability Implementations of this method may return {@code
+   * null}.
+   *
+   * @idempotency Implementations of this method need not be
+   * idempotent, since the values of referenced settings may change.
+   *
+   * @threadsafety Implementations of this method must be safe for
+   * concurrent use by multiple threads.
+   */
+  public abstract String interpolate(final String value,
+                                     final Set<Annotation> qualifiers,
+                                     final BiFunction<? super String, ? super String, ? extends String> resolver);
+
+}
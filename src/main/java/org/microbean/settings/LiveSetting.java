@@ -0,0 +1,227 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Supplier} of the value of a particular <a
+ * href="{@docRoot}/overview-summary.html#setting_name">setting</a>
+ * that caches that value in a {@code volatile} field until the
+ * setting is {@linkplain Settings#invalidate(String, Set)
+ * invalidated}.
+ *
+ * <p>Unlike a {@link ConstantSetting}, whose value can be
+ * constant-folded only when it is held in a {@code static final}
+ * field, a {@link LiveSetting} is intended to be held in instance
+ * fields, such as those of beans into which it is injected.  Reading
+ * its value costs a single {@code volatile} field read until the
+ * setting, or any setting its value was <a
+ * href="{@docRoot}/overview-summary.html#interpolation">interpolated</a>
+ * from, is invalidated, after which the next read acquires the value
+ * again.</p>
+ *
+ * <p>Instances of this class are created by the {@link
+ * Settings#live(String, Set, Converter, BiFunction)} method and its
+ * ilk, and are injected by the {@link SettingsExtension} into
+ * injection points of type {@link LiveSetting} or {@link Supplier}
+ * that are qualified with {@link Setting}.</p>
+ *
+ * @param <T> the type to which values are {@linkplain
+ * Converter#convert(Value) converted}
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads provided that the {@link Converter} they were
+ * created with is.
+ *
+ * @see #get()
+ *
+ * @see Settings#live(String, Set, Converter, BiFunction)
+ *
+ * @see Settings#invalidate(String, Set)
+ *
+ * @see ConstantSetting
+ */
+public final class LiveSetting<T> implements Supplier<T> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<LiveSetting, Object> valueUpdater =
+    AtomicReferenceFieldUpdater.newUpdater(LiveSetting.class, Object.class, "value");
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final SettingHandle<T> handle;
+
+  private final BiConsumer<String, Set<Annotation>> invalidationListener;
+
+  // Either the current value or an Unloaded placeholder.
+  private volatile Object value;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  LiveSetting(final SettingHandle<T> handle) {
+    super();
+    this.handle = Objects.requireNonNull(handle);
+    this.invalidationListener = this::invalidate;
+    // The value is acquired lazily, on first read.
+    this.value = new Unloaded();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the name of the setting this {@link LiveSetting}
+   * represents.
+   *
+   * @return the name of the setting; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final String getName() {
+    return this.handle.getName();
+  }
+
+  /**
+   * Returns the qualifiers of the setting this {@link LiveSetting}
+   * represents.
+   *
+   * @return an unmodifiable {@link Set} of qualifier {@link
+   * Annotation}s; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final Set<Annotation> getQualifiers() {
+    return this.handle.getQualifiers();
+  }
+
+  /**
+   * Returns the current value of the setting this {@link LiveSetting}
+   * represents, acquiring it first if this is the first invocation of
+   * this method or if the setting has been {@linkplain
+   * Settings#invalidate(String, Set) invalidated} since it was last
+   * acquired.
+   *
+   * @return a suitable value (possibly {@code null})
+   *
+   * @exception NoSuchElementException if no value could be sourced
+   * and this {@link LiveSetting} was created without a default value
+   * function
+   *
+   * @exception ValueAcquisitionException if there was a procedural
+   * problem acquiring a value
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic between
+   * invalidations of the setting this {@link LiveSetting}
+   * represents.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see SettingHandle#get()
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public final T get() {
+    final Object value = this.value;
+    if (value instanceof Unloaded) {
+      final T newValue = this.handle.get();
+      // If the setting was invalidated while its value was being
+      // acquired, a new placeholder will have been installed, and the
+      // (possibly stale) value just acquired must not be cached.
+      valueUpdater.compareAndSet(this, value, newValue);
+      return newValue;
+    }
+    this.handle.recordAccess();
+    return (T)value;
+  }
+
+  final BiConsumer<String, Set<Annotation>> getInvalidationListener() {
+    return this.invalidationListener;
+  }
+
+  private final void invalidate(final String name, final Set<Annotation> qualifiers) {
+    if (this.getName().equals(name) && this.getQualifiers().containsAll(qualifiers)) {
+      this.value = new Unloaded();
+    }
+  }
+
+  @Override
+  public final String toString() {
+    return this.handle.toString();
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  // A placeholder for a value that must be acquired.  A new instance
+  // is installed on each invalidation so that a value acquired
+  // concurrently with an invalidation is not cached.
+  private static final class Unloaded {
+
+    private Unloaded() {
+      super();
+    }
+
+  }
+
+}
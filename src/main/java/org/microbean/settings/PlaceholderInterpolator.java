@@ -0,0 +1,614 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import java.util.function.BiFunction;
+
+/**
+ * A lightweight {@link Interpolator} that recognizes references of
+ * the form <code>${<em>name</em>}</code> and
+ * <code>${<em>name</em>:<em>default</em>}</code> and does not
+ * depend on the <a
+ * href="https://jakarta.ee/specifications/expression-language/3.0/">Jakarta
+ * Expression Language</a>.
+ *
+ * <p>For example, a setting value of "<code>Your java.home variable
+ * is: ${java.home}</code>" will be interpolated by replacing
+ * "<code>${java.home}</code>" with the value of the setting named
+ * {@code java.home}.  A setting value of
+ * "<code>${user.timezone:UTC}</code>" will be interpolated by
+ * replacing "<code>${user.timezone:UTC}</code>" with the value of
+ * the setting named {@code user.timezone}, or with {@code UTC} if
+ * there is no such value.  Default values are themselves subject to
+ * interpolation.</p>
+ *
+ * <p>The character sequence <code>\${</code> is interpolated as a
+ * literal <code>${</code>.</p>
+ *
+ * <p>Each value is compiled once into a template consisting of
+ * literal and reference segments; rendering a template appends
+ * ranges of the original value directly without creating
+ * intermediate {@link String}s.</p>
+ *
+ * <p>A {@link PlaceholderInterpolator} {@linkplain
+ * #PlaceholderInterpolator(Executor) created with an
+ * <code>Executor</code>} resolves the distinct references found in
+ * a value concurrently before rendering it, which reduces latency
+ * when references are satisfied by slow {@link Source}s.  The
+ * calling thread never waits for a resolution that the {@link
+ * Executor} has not yet started; it resolves such references itself,
+ * so interpolation completes even when it is performed on a thread
+ * belonging to a saturated or single-threaded {@link
+ * Executor}.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @see #interpolate(String, Set, BiFunction)
+ *
+ * @see ExpressionLanguageInterpolator
+ */
+public class PlaceholderInterpolator extends Interpolator {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final int MAXIMUM_CACHED_TEMPLATES = 1024;
+
+  // Set on every thread, including the calling thread, that is
+  // resolving references on behalf of a parallel resolution so that
+  // nested values are resolved sequentially on that thread instead of
+  // being offered to the Executor again.
+  private static final ThreadLocal<Boolean> resolvingInParallel = new ThreadLocal<>();
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Map<String, Template> templates;
+
+  private final Executor executor;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link PlaceholderInterpolator} that resolves
+   * references sequentially.
+   *
+   * @see #PlaceholderInterpolator(Executor)
+   */
+  public PlaceholderInterpolator() {
+    this(null);
+  }
+
+  /**
+   * Creates a new {@link PlaceholderInterpolator}.
+   *
+   * @param executor an {@link Executor} used to resolve the distinct
+   * references in a value concurrently; may be {@code null} in which
+   * case references will be resolved sequentially on the calling
+   * thread; if non-{@code null} must be safe for concurrent use by
+   * multiple threads
+   */
+  public PlaceholderInterpolator(final Executor executor) {
+    super();
+    this.templates = new ConcurrentHashMap<>();
+    this.executor = executor;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Interpolates the supplied {@code value} by replacing each
+   * <code>${<em>name</em>}</code> or
+   * <code>${<em>name</em>:<em>default</em>}</code> reference it
+   * contains with the result of invoking the supplied {@code
+   * resolver} with the referenced name and default value, and
+   * returns the result.
+   *
+   * @param value the {@link String} to interpolate; may be {@code
+   * null} in which case {@code null} will be returned
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s
+   * qualifying the current value acquisition operation; may be
+   * {@code null}; ignored by this implementation
+   *
+   * @param resolver a {@link BiFunction} that accepts a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a> and a (possibly {@code null}) default value and returns
+   * the fully interpolated value of the named setting; must not be
+   * {@code null}
+   *
+   * @return the interpolated value, or {@code null}
+   *
+   * @exception NullPointerException if {@code resolver} is {@code
+   * null}
+   *
+   * @exception NoSuchElementException if {@code value} contained a
+   * reference without a default value to a setting that has no value
+   *
+   * @exception IllegalArgumentException if {@code value} contained
+   * an unterminated or empty reference
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is not idempotent, since the values of
+   * referenced settings may change.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Override
+  public String interpolate(final String value,
+                            final Set<Annotation> qualifiers,
+                            final BiFunction<? super String, ? super String, ? extends String> resolver) {
+    Objects.requireNonNull(resolver);
+    final String returnValue;
+    if (value == null || value.indexOf("${") < 0) {
+      returnValue = value;
+    } else {
+      returnValue = this.interpolate(this.getTemplate(value), resolver);
+    }
+    return returnValue;
+  }
+
+  final String interpolate(final Template template,
+                           final BiFunction<? super String, ? super String, ? extends String> resolver) {
+    final Executor executor = this.executor;
+    final String returnValue;
+    if (executor == null || template.getDistinctReferences().length < 2 || Boolean.TRUE.equals(resolvingInParallel.get())) {
+      returnValue = template.render(resolver);
+    } else {
+      returnValue = template.render(resolveInParallel(template, resolver, executor));
+    }
+    return returnValue;
+  }
+
+  final Template getTemplate(final String value) {
+    Template returnValue = this.templates.get(value);
+    if (returnValue == null) {
+      returnValue = compile(value);
+      if (this.templates.size() < MAXIMUM_CACHED_TEMPLATES) {
+        this.templates.putIfAbsent(value, returnValue);
+      }
+    }
+    return returnValue;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final String[] resolveInParallel(final Template template,
+                                                  final BiFunction<? super String, ? super String, ? extends String> resolver,
+                                                  final Executor executor) {
+    final Reference[] references = template.getDistinctReferences();
+    final String[] resolutions = new String[references.length];
+    final ParallelResolution[] parallelResolutions = new ParallelResolution[references.length];
+    final Boolean old = resolvingInParallel.get();
+    resolvingInParallel.set(Boolean.TRUE);
+    try {
+      // Offer every distinct reference but the first to the Executor.
+      for (int i = 1; i < references.length; i++) {
+        final ParallelResolution parallelResolution = new ParallelResolution(references[i], resolver);
+        parallelResolutions[i] = parallelResolution;
+        try {
+          executor.execute(parallelResolution);
+        } catch (final RejectedExecutionException rejectedExecutionException) {
+          // The calling thread will run it below.
+        }
+      }
+      // The calling thread resolves the first distinct reference
+      // itself, and then any the Executor has not started yet, so
+      // that it never waits on a task that is queued behind it.
+      resolutions[0] = references[0].resolve(resolver);
+      for (int i = 1; i < parallelResolutions.length; i++) {
+        parallelResolutions[i].run();
+      }
+      for (int i = 1; i < parallelResolutions.length; i++) {
+        resolutions[i] = parallelResolutions[i].join();
+      }
+    } finally {
+      for (int i = 1; i < parallelResolutions.length; i++) {
+        final ParallelResolution parallelResolution = parallelResolutions[i];
+        if (parallelResolution != null) {
+          parallelResolution.cancel();
+        }
+      }
+      if (old == null) {
+        resolvingInParallel.remove();
+      } else {
+        resolvingInParallel.set(old);
+      }
+    }
+    return resolutions;
+  }
+
+  static final Template compile(final String value) {
+    Objects.requireNonNull(value);
+    final int length = value.length();
+    final List<Segment> segments = new ArrayList<>();
+    int literalStart = 0;
+    int i = 0;
+    while (i < length) {
+      final char c = value.charAt(i);
+      if (c == '\\' && value.startsWith("${", i + 1)) {
+        // Escaped reference; the backslash is dropped and the "${"
+        // becomes part of the next literal segment.
+        if (literalStart < i) {
+          segments.add(new Literal(value, literalStart, i));
+        }
+        literalStart = i + 1;
+        i += 3;
+      } else if (c == '$' && i + 1 < length && value.charAt(i + 1) == '{') {
+        if (literalStart < i) {
+          segments.add(new Literal(value, literalStart, i));
+        }
+        // Find the matching close brace, honoring nested references
+        // (which can occur in default values).
+        int depth = 1;
+        int colonIndex = -1;
+        int j = i + 2;
+        while (j < length) {
+          final char d = value.charAt(j);
+          if (d == '$' && j + 1 < length && value.charAt(j + 1) == '{') {
+            ++depth;
+            ++j;
+          } else if (d == '}') {
+            if (--depth == 0) {
+              break;
+            }
+          } else if (d == ':' && depth == 1 && colonIndex < 0) {
+            colonIndex = j;
+          }
+          ++j;
+        }
+        if (j >= length) {
+          throw new IllegalArgumentException("Unterminated reference at index " + i + " in " + value);
+        }
+        final String name;
+        final String defaultValue;
+        if (colonIndex < 0) {
+          name = value.substring(i + 2, j);
+          defaultValue = null;
+        } else {
+          name = value.substring(i + 2, colonIndex);
+          defaultValue = value.substring(colonIndex + 1, j);
+        }
+        if (name.isEmpty()) {
+          throw new IllegalArgumentException("Empty reference at index " + i + " in " + value);
+        }
+        segments.add(new Reference(name, defaultValue));
+        i = j + 1;
+        literalStart = i;
+      } else {
+        ++i;
+      }
+    }
+    if (literalStart < length) {
+      segments.add(new Literal(value, literalStart, length));
+    }
+    return new Template(value, segments.toArray(new Segment[segments.size()]));
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  static final class Template {
+
+    private final String source;
+
+    private final Segment[] segments;
+
+    private final int literalLength;
+
+    private final Reference[] distinctReferences;
+
+    private Template(final String source, final Segment[] segments) {
+      super();
+      this.source = Objects.requireNonNull(source);
+      this.segments = Objects.requireNonNull(segments);
+      int literalLength = 0;
+      final List<Reference> distinctReferences = new ArrayList<>();
+      for (final Segment segment : segments) {
+        if (segment instanceof Literal) {
+          final Literal literal = (Literal)segment;
+          literalLength += literal.end - literal.start;
+        } else {
+          // Equal references share a slot so that each is resolved
+          // once and its resolution can be found without a lookup.
+          final Reference reference = (Reference)segment;
+          reference.slot = distinctReferences.indexOf(reference);
+          if (reference.slot < 0) {
+            reference.slot = distinctReferences.size();
+            distinctReferences.add(reference);
+          }
+        }
+      }
+      this.literalLength = literalLength;
+      this.distinctReferences = distinctReferences.toArray(new Reference[distinctReferences.size()]);
+    }
+
+    final String getSource() {
+      return this.source;
+    }
+
+    final Segment[] getSegments() {
+      return this.segments;
+    }
+
+    final Reference[] getDistinctReferences() {
+      return this.distinctReferences;
+    }
+
+    final String render(final BiFunction<? super String, ? super String, ? extends String> resolver) {
+      final Segment[] segments = this.segments;
+      final String returnValue;
+      switch (segments.length) {
+      case 0:
+        returnValue = "";
+        break;
+      case 1:
+        final Segment segment = segments[0];
+        if (segment instanceof Reference) {
+          // The most common case: the entire value is a single
+          // reference.
+          returnValue = ((Reference)segment).resolve(resolver);
+        } else {
+          returnValue = ((Literal)segment).toString();
+        }
+        break;
+      default:
+        final StringBuilder sb = new StringBuilder(this.literalLength + 16 * segments.length);
+        for (final Segment s : segments) {
+          s.appendTo(sb, resolver);
+        }
+        returnValue = sb.toString();
+        break;
+      }
+      return returnValue;
+    }
+
+    final String render(final String[] resolutions) {
+      final Segment[] segments = this.segments;
+      final String returnValue;
+      if (segments.length == 1 && segments[0] instanceof Reference) {
+        returnValue = resolutions[((Reference)segments[0]).slot];
+      } else {
+        final StringBuilder sb = new StringBuilder(this.literalLength + 16 * segments.length);
+        for (final Segment segment : segments) {
+          if (segment instanceof Reference) {
+            sb.append(resolutions[((Reference)segment).slot]);
+          } else {
+            final Literal literal = (Literal)segment;
+            sb.append(literal.source, literal.start, literal.end);
+          }
+        }
+        returnValue = sb.toString();
+      }
+      return returnValue;
+    }
+
+    @Override
+    public final String toString() {
+      return this.source;
+    }
+
+  }
+
+  abstract static class Segment {
+
+    private Segment() {
+      super();
+    }
+
+    abstract void appendTo(final StringBuilder sb,
+                           final BiFunction<? super String, ? super String, ? extends String> resolver);
+
+  }
+
+  static final class Literal extends Segment {
+
+    private final String source;
+
+    private final int start;
+
+    private final int end;
+
+    private Literal(final String source, final int start, final int end) {
+      super();
+      this.source = source;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    final void appendTo(final StringBuilder sb,
+                        final BiFunction<? super String, ? super String, ? extends String> resolver) {
+      sb.append(this.source, this.start, this.end);
+    }
+
+    @Override
+    public final String toString() {
+      return this.source.substring(this.start, this.end);
+    }
+
+  }
+
+  static final class Reference extends Segment {
+
+    private final String name;
+
+    private final String defaultValue;
+
+    // The index of this Reference's resolution within its Template's
+    // distinct references; assigned once by the Template constructor.
+    private int slot;
+
+    private Reference(final String name, final String defaultValue) {
+      super();
+      this.name = Objects.requireNonNull(name);
+      this.defaultValue = defaultValue;
+    }
+
+    final String getName() {
+      return this.name;
+    }
+
+    final String getDefaultValue() {
+      return this.defaultValue;
+    }
+
+    final String resolve(final BiFunction<? super String, ? super String, ? extends String> resolver) {
+      return resolver.apply(this.name, this.defaultValue);
+    }
+
+    @Override
+    final void appendTo(final StringBuilder sb,
+                        final BiFunction<? super String, ? super String, ? extends String> resolver) {
+      sb.append(this.resolve(resolver));
+    }
+
+    @Override
+    public final int hashCode() {
+      return 31 * this.name.hashCode() + Objects.hashCode(this.defaultValue);
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+      if (other == this) {
+        return true;
+      } else if (other instanceof Reference) {
+        final Reference her = (Reference)other;
+        return this.name.equals(her.name) && Objects.equals(this.defaultValue, her.defaultValue);
+      } else {
+        return false;
+      }
+    }
+
+    @Override
+    public final String toString() {
+      if (this.defaultValue == null) {
+        return "${" + this.name + "}";
+      }
+      return "${" + this.name + ":" + this.defaultValue + "}";
+    }
+
+  }
+
+
+  private static final class ParallelResolution implements Runnable {
+
+    private final Reference reference;
+
+    private final BiFunction<? super String, ? super String, ? extends String> resolver;
+
+    private final AtomicBoolean claimed;
+
+    private final CompletableFuture<String> resolution;
+
+    private ParallelResolution(final Reference reference,
+                               final BiFunction<? super String, ? super String, ? extends String> resolver) {
+      super();
+      this.reference = reference;
+      this.resolver = resolver;
+      this.claimed = new AtomicBoolean();
+      this.resolution = new CompletableFuture<>();
+    }
+
+    /**
+     * Resolves this {@link ParallelResolution}'s {@link Reference}
+     * unless some other thread has already claimed it or it has been
+     * {@linkplain #cancel() cancelled}.
+     */
+    @Override
+    public final void run() {
+      if (this.claimed.compareAndSet(false, true)) {
+        final Boolean old = resolvingInParallel.get();
+        resolvingInParallel.set(Boolean.TRUE);
+        try {
+          this.resolution.complete(this.reference.resolve(this.resolver));
+        } catch (final RuntimeException | Error throwable) {
+          this.resolution.completeExceptionally(throwable);
+        } finally {
+          if (old == null) {
+            resolvingInParallel.remove();
+          } else {
+            resolvingInParallel.set(old);
+          }
+        }
+      }
+    }
+
+    private final void cancel() {
+      if (this.claimed.compareAndSet(false, true)) {
+        this.resolution.cancel(false);
+      }
+    }
+
+    private final String join() {
+      try {
+        return this.resolution.join();
+      } catch (final CompletionException completionException) {
+        final Throwable cause = completionException.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException)cause;
+        } else if (cause instanceof Error) {
+          throw (Error)cause;
+        }
+        throw completionException;
+      }
+    }
+
+  }
+
+}
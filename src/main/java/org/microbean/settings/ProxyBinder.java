@@ -0,0 +1,314 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.beans.Introspector;
+
+import java.lang.annotation.Annotation;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * A precompiled means of {@linkplain #proxy(Settings, String, Set)
+ * creating} implementations of a particular interface whose methods
+ * return <a
+ * href="{@docRoot}/overview-summary.html#setting_value">setting
+ * values</a>.
+ *
+ * <p>Each abstract, parameterless, non-{@code void} method of the
+ * interface is a getter for a setting.  The name of the setting is,
+ * in order of preference, the {@linkplain Setting#name() name} of a
+ * {@link Setting} annotation on the method, the decapitalized
+ * remainder of a method name beginning with {@code get} (or, for
+ * {@code boolean} methods, {@code is}), or the method name
+ * itself.</p>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads.
+ *
+ * @see Settings#proxy(Class, String, Set)
+ */
+final class ProxyBinder<I> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final Method equalsMethod;
+
+  private static final Method hashCodeMethod;
+
+  private static final Method toStringMethod;
+
+  static {
+    try {
+      equalsMethod = Object.class.getMethod("equals", Object.class);
+      hashCodeMethod = Object.class.getMethod("hashCode");
+      toStringMethod = Object.class.getMethod("toString");
+    } catch (final NoSuchMethodException noSuchMethodException) {
+      throw new ExceptionInInitializerError(noSuchMethodException);
+    }
+  }
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Class<I> type;
+
+  private final Map<Method, Integer> indices;
+
+  private final Getter[] getters;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private ProxyBinder(final Class<I> type, final Map<Method, Integer> indices, final Getter[] getters) {
+    super();
+    this.type = Objects.requireNonNull(type);
+    this.indices = Objects.requireNonNull(indices);
+    this.getters = Objects.requireNonNull(getters);
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  final I proxy(final Settings settings, final String prefix, final Set<Annotation> qualifiers) {
+    final Handler handler = new Handler(settings, prefix, qualifiers);
+    for (final String name : handler.names) {
+      settings.addInvalidationListener(name, handler);
+    }
+    return this.type.cast(Proxy.newProxyInstance(this.type.getClassLoader(), new Class<?>[] { this.type }, handler));
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  // Removes the invalidation listener of a proxy created by proxy()
+  // from the supplied Settings; does nothing if the supplied object
+  // is not such a proxy.
+  static final void release(final Settings settings, final Object proxy) {
+    if (proxy != null && Proxy.isProxyClass(proxy.getClass())) {
+      final InvocationHandler handler = Proxy.getInvocationHandler(proxy);
+      if (handler instanceof ProxyBinder.Handler) {
+        final ProxyBinder<?>.Handler proxyHandler = (ProxyBinder<?>.Handler)handler;
+        for (final String name : proxyHandler.names) {
+          settings.removeInvalidationListener(name, proxyHandler);
+        }
+      }
+    }
+  }
+
+
+  static final <I> ProxyBinder<I> of(final Class<I> type, final ConverterProvider converterProvider) {
+    Objects.requireNonNull(converterProvider);
+    if (!type.isInterface()) {
+      throw new IllegalArgumentException(type.getName() + " is not an interface");
+    }
+    final Map<Method, Integer> indices = new HashMap<>();
+    final Method[] methods = type.getMethods();
+    final Getter[] getters = new Getter[methods.length];
+    int i = 0;
+    for (final Method method : methods) {
+      if (Modifier.isStatic(method.getModifiers())) {
+        continue;
+      }
+      if (method.getParameterCount() != 0 || method.getReturnType() == void.class || method.isDefault()) {
+        throw new IllegalArgumentException("Only abstract, parameterless, non-void methods are supported: " + method);
+      }
+      final Setting setting = method.getAnnotation(Setting.class);
+      String name = setting == null ? null : setting.name();
+      if (name == null || name.isEmpty() || name.equals(Setting.UNSET)) {
+        name = getName(method);
+      }
+      final String defaultValue = setting == null ? null : setting.defaultValue();
+      final Class<?> returnType = method.getReturnType();
+      getters[i] = new Getter(name,
+                              converterProvider.getConverter(method.getGenericReturnType()),
+                              defaultValue == null || defaultValue.equals(Setting.UNSET) ? null : defaultValue,
+                              setting != null && setting.required(),
+                              returnType.isPrimitive() ? Array.get(Array.newInstance(returnType, 1), 0) : null);
+      indices.put(method, Integer.valueOf(i));
+      i++;
+    }
+    return new ProxyBinder<>(type, indices, Arrays.copyOf(getters, i));
+  }
+
+  private static final String getName(final Method method) {
+    final String methodName = method.getName();
+    final Class<?> returnType = method.getReturnType();
+    final String returnValue;
+    if (methodName.length() > 3 && methodName.startsWith("get")) {
+      returnValue = Introspector.decapitalize(methodName.substring(3));
+    } else if (methodName.length() > 2 &&
+               methodName.startsWith("is") &&
+               (returnType == boolean.class || returnType == Boolean.class)) {
+      returnValue = Introspector.decapitalize(methodName.substring(2));
+    } else {
+      returnValue = methodName;
+    }
+    return returnValue;
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class Getter {
+
+    private final String name;
+
+    private final Converter<?> converter;
+
+    private final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction;
+
+    private final boolean required;
+
+    private final Object absentValue;
+
+    private Getter(final String name,
+                   final Converter<?> converter,
+                   final String defaultValue,
+                   final boolean required,
+                   final Object absentValue) {
+      super();
+      this.name = Objects.requireNonNull(name);
+      this.converter = Objects.requireNonNull(converter);
+      this.defaultValueFunction = defaultValue == null ? null : (n, qs) -> defaultValue;
+      this.required = required;
+      this.absentValue = absentValue;
+    }
+
+  }
+
+  // A placeholder for a value that must be acquired.  A new instance
+  // is installed on each invalidation so that a value acquired
+  // concurrently with an invalidation is not cached.
+  private static final class Unloaded {
+
+    private Unloaded() {
+      super();
+    }
+
+  }
+
+  private final class Handler implements InvocationHandler, BiConsumer<String, Set<Annotation>> {
+
+    private final Settings settings;
+
+    private final Set<Annotation> qualifiers;
+
+    private final String[] names;
+
+    private final Map<String, Integer> nameIndices;
+
+    private final AtomicReferenceArray<Object> values;
+
+    private final String prefix;
+
+    private Handler(final Settings settings, final String prefix, final Set<Annotation> qualifiers) {
+      super();
+      this.settings = Objects.requireNonNull(settings);
+      this.prefix = prefix;
+      this.qualifiers = Objects.requireNonNull(qualifiers);
+      final Getter[] getters = ProxyBinder.this.getters;
+      this.names = new String[getters.length];
+      this.nameIndices = new HashMap<>();
+      this.values = new AtomicReferenceArray<>(getters.length);
+      for (int i = 0; i < getters.length; i++) {
+        final String name = prefix == null ? getters[i].name : prefix.concat(getters[i].name);
+        this.names[i] = name;
+        this.nameIndices.put(name, Integer.valueOf(i));
+        this.values.set(i, new Unloaded());
+      }
+    }
+
+    @Override
+    public final Object invoke(final Object proxy, final Method method, final Object[] arguments) {
+      final Integer index = ProxyBinder.this.indices.get(method);
+      if (index == null) {
+        if (method.equals(equalsMethod)) {
+          return Boolean.valueOf(proxy == arguments[0]);
+        } else if (method.equals(hashCodeMethod)) {
+          return Integer.valueOf(System.identityHashCode(proxy));
+        } else if (method.equals(toStringMethod)) {
+          return ProxyBinder.this.type.getName() + "[" + (this.prefix == null ? "" : this.prefix) + "]";
+        }
+        throw new UnsupportedOperationException(method.toString());
+      }
+      final int i = index.intValue();
+      final Object value = this.values.get(i);
+      if (!(value instanceof Unloaded)) {
+        return value;
+      }
+      final Getter getter = ProxyBinder.this.getters[i];
+      final String name = this.names[i];
+      Object newValue = this.settings.getOrAbsent(name, this.qualifiers, getter.converter, getter.defaultValueFunction);
+      if (newValue == Settings.ABSENT) {
+        if (getter.required) {
+          throw new NoSuchElementException(name + " (" + this.qualifiers + ")");
+        }
+        newValue = getter.absentValue;
+      } else if (newValue == null) {
+        newValue = getter.absentValue;
+      }
+      this.values.compareAndSet(i, value, newValue);
+      return newValue;
+    }
+
+    @Override
+    public final void accept(final String name, final Set<Annotation> qualifiers) {
+      final Integer index = this.nameIndices.get(name);
+      if (index != null && this.qualifiers.containsAll(qualifiers)) {
+        this.values.set(index.intValue(), new Unloaded());
+      }
+    }
+
+  }
+
+}
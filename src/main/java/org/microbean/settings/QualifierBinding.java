@@ -0,0 +1,121 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An {@link AutoCloseable} representing the binding of a {@link Set}
+ * of qualifier {@link Annotation}s to the current thread on behalf of
+ * a {@link Settings}, as established by the {@link
+ * Settings#bindQualifiers(Set)} method.
+ *
+ * <p>While a {@link QualifierBinding} is open, convenience methods of
+ * the {@link Settings} that created it that do not accept qualifiers,
+ * such as {@link Settings#get(String)}, use the {@linkplain
+ * #getQualifiers() bound qualifiers} when invoked by the thread that
+ * created it.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @threadsafety Instances of this class must be {@linkplain #close()
+ * closed} by the thread that created them.
+ *
+ * @see Settings#bindQualifiers(Set)
+ */
+public final class QualifierBinding implements AutoCloseable {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final ThreadLocal<Set<Annotation>> boundQualifiers;
+
+  private final Set<Annotation> qualifiers;
+
+  private final Set<Annotation> previousQualifiers;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  QualifierBinding(final ThreadLocal<Set<Annotation>> boundQualifiers,
+                   final Set<Annotation> qualifiers,
+                   final Set<Annotation> previousQualifiers) {
+    super();
+    this.boundQualifiers = Objects.requireNonNull(boundQualifiers);
+    this.qualifiers = Objects.requireNonNull(qualifiers);
+    this.previousQualifiers = previousQualifiers;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the qualifiers bound by this {@link QualifierBinding}.
+   *
+   * @return an unmodifiable {@link Set} of qualifier {@link
+   * Annotation}s; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final Set<Annotation> getQualifiers() {
+    return this.qualifiers;
+  }
+
+  /**
+   * Ends this {@link QualifierBinding}, restoring whatever binding
+   * was in effect on the current thread when it was created.
+   *
+   * @idempotency This method is not idempotent: it must be called
+   * only once, and bindings must be closed in the reverse order of
+   * their creation.
+   *
+   * @threadsafety This method must be called by the thread that
+   * created this {@link QualifierBinding}.
+   */
+  @Override
+  public final void close() {
+    if (this.previousQualifiers == null) {
+      this.boundQualifiers.remove();
+    } else {
+      this.boundQualifiers.set(this.previousQualifiers);
+    }
+  }
+
+  @Override
+  public final String toString() {
+    return this.qualifiers.toString();
+  }
+
+}
@@ -0,0 +1,268 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.beans.IntrospectionException;
+
+import java.lang.annotation.Annotation;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import java.util.function.BiConsumer;
+
+/**
+ * An {@linkplain Settings#addInvalidationListener(BiConsumer)
+ * invalidation listener} that reconfigures a particular object when
+ * the settings it was {@linkplain Settings#configure(Object, String,
+ * Set) configured} from are {@linkplain Settings#invalidate(String,
+ * Set) invalidated}.
+ *
+ * <p>Invalidated setting names are accumulated, and the object is
+ * reconfigured, on a shared background thread, once no further
+ * invalidations have arrived for {@link #DEBOUNCE_MILLISECONDS}
+ * milliseconds.  Only the write methods and fields corresponding to
+ * the accumulated names are set again, unless the object's class has
+ * a generated {@link Configurator}, in which case it is configured
+ * in full.</p>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads.
+ *
+ * @see Configured#live()
+ */
+final class Reconfigurator implements BiConsumer<String, Set<Annotation>>, Runnable {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  /**
+   * The number of milliseconds that must elapse without any
+   * invalidation before an object is reconfigured.
+   */
+  static final long DEBOUNCE_MILLISECONDS = 100L;
+
+  private static final long debounceNanoseconds = TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MILLISECONDS);
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Settings settings;
+
+  private final Configurator<Object> configurator;
+
+  private final Object object;
+
+  private final String prefix;
+
+  private final Set<Annotation> qualifiers;
+
+  private final Set<String> pendingNames;
+
+  private final AtomicBoolean scheduled;
+
+  private volatile long lastInvalidation;
+
+  private volatile boolean closed;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private Reconfigurator(final Settings settings,
+                         final Configurator<Object> configurator,
+                         final Object object,
+                         final String prefix,
+                         final Set<Annotation> qualifiers) {
+    super();
+    this.settings = Objects.requireNonNull(settings);
+    this.configurator = Objects.requireNonNull(configurator);
+    this.object = Objects.requireNonNull(object);
+    this.prefix = prefix;
+    this.qualifiers = Objects.requireNonNull(qualifiers);
+    this.pendingNames = ConcurrentHashMap.newKeySet();
+    this.scheduled = new AtomicBoolean();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override
+  public final void accept(final String name, final Set<Annotation> qualifiers) {
+    if (!this.closed && this.qualifiers.containsAll(qualifiers)) {
+      this.pendingNames.add(name);
+      this.lastInvalidation = System.nanoTime();
+      if (this.scheduled.compareAndSet(false, true)) {
+        Executor.INSTANCE.schedule(this, debounceNanoseconds, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  @Override
+  public final void run() {
+    if (this.closed) {
+      return;
+    }
+    final long remaining = this.lastInvalidation + debounceNanoseconds - System.nanoTime();
+    if (remaining > 0L) {
+      // Invalidations are still arriving; wait for them to stop.
+      Executor.INSTANCE.schedule(this, remaining, TimeUnit.NANOSECONDS);
+      return;
+    }
+    // Clear the flag before draining so that an invalidation that
+    // arrives during reconfiguration schedules another run.
+    this.scheduled.set(false);
+    final Set<String> names = new HashSet<>();
+    final Iterator<String> iterator = this.pendingNames.iterator();
+    while (iterator.hasNext()) {
+      names.add(iterator.next());
+      iterator.remove();
+    }
+    if (!names.isEmpty()) {
+      try {
+        if (this.configurator instanceof BeanConfigurator) {
+          ((BeanConfigurator)this.configurator).configure(this.settings, this.object, this.prefix, this.qualifiers, names);
+        } else {
+          // A generated Configurator can only configure everything.
+          this.configurator.configure(this.settings, this.object, this.prefix, this.qualifiers);
+        }
+      } catch (final ReflectiveOperationException | RuntimeException exception) {
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+      }
+    }
+  }
+
+  /**
+   * Stops this {@link Reconfigurator} from reconfiguring the object
+   * it was {@linkplain #install(Settings, Object, String, Set)
+   * installed} for.
+   *
+   * @idempotency This method is idempotent.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  final void close() {
+    this.closed = true;
+    this.settings.removeInvalidationListener(this);
+    this.pendingNames.clear();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Creates a new {@link Reconfigurator} for the supplied {@code
+   * object} and {@linkplain Settings#addInvalidationListener(BiConsumer)
+   * registers} it with the supplied {@link Settings}.
+   *
+   * <p>The supplied {@code object} is not configured by this
+   * method.</p>
+   *
+   * @param settings the {@link Settings} the supplied {@code object}
+   * was configured with; must not be {@code null}
+   *
+   * @param object the configured object; must not be {@code null}
+   *
+   * @param prefix the prefix the supplied {@code object} was
+   * configured with; may be {@code null}
+   *
+   * @param qualifiers the qualifiers the supplied {@code object} was
+   * configured with; may be {@code null}
+   *
+   * @return a new, registered {@link Reconfigurator}; never {@code
+   * null}
+   *
+   * @exception NullPointerException if {@code settings} or {@code
+   * object} is {@code null}
+   *
+   * @exception IntrospectionException if introspection of the
+   * supplied {@code object} fails
+   *
+   * @exception IllegalAccessException if a field of the supplied
+   * {@code object} could not be made accessible
+   *
+   * @see #close()
+   */
+  static final Reconfigurator install(final Settings settings,
+                                      final Object object,
+                                      final String prefix,
+                                      final Set<Annotation> qualifiers)
+    throws IntrospectionException, IllegalAccessException {
+    final Reconfigurator reconfigurator =
+      new Reconfigurator(settings,
+                         settings.getConfigurator(object.getClass()),
+                         object,
+                         prefix,
+                         qualifiers == null ? new HashSet<>() : new HashSet<>(qualifiers));
+    settings.addInvalidationListener(reconfigurator);
+    return reconfigurator;
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  // Holds the shared executor, which is created only if live
+  // reconfiguration is used.
+  private static final class Executor {
+
+    private static final ScheduledExecutorService INSTANCE;
+
+    static {
+      final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+          final Thread thread = new Thread(runnable, Reconfigurator.class.getName());
+          thread.setDaemon(true);
+          return thread;
+        });
+      executor.setRemoveOnCancelPolicy(true);
+      INSTANCE = executor;
+    }
+
+    private Executor() {
+      super();
+    }
+
+  }
+
+}
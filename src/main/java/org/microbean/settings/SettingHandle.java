@@ -0,0 +1,280 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Supplier} of the value of a particular <a
+ * href="{@docRoot}/overview-summary.html#setting_name">setting</a>
+ * whose {@link Converter} and {@link Source}s have been resolved
+ * ahead of time.
+ *
+ * <p>Instances of this class are created by the {@link
+ * Settings#handle(String, Set, Converter, BiFunction)} method and
+ * its ilk.  They are suitable for storing in {@code static final}
+ * fields and for use on performance-sensitive code paths in place of
+ * repeated invocations of the {@link Settings#get(String, Set,
+ * Converter, BiFunction)} method.  Their {@link Source}s are resolved
+ * again only after {@link Settings#refreshSources()} is called.</p>
+ *
+ * @param <T> the type to which values are {@linkplain
+ * Converter#convert(Value) converted}
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads provided that the {@link Converter} they were
+ * created with is.
+ *
+ * @see #get()
+ *
+ * @see Settings#handle(String, Set, Converter, BiFunction)
+ */
+public final class SettingHandle<T> implements Supplier<T> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Settings settings;
+
+  private final String name;
+
+  private final Set<Annotation> qualifiers;
+
+  // The Sources for the setting, as most recently resolved.
+  private volatile ResolvedSources resolvedSources;
+
+  private final Converter<? extends T> converter;
+
+  private final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction;
+
+  private final int hashCode;
+
+  // The most recently used template, kept so that an unchanged value
+  // need not be looked up or parsed again.
+  private volatile PlaceholderInterpolator.Template template;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  SettingHandle(final Settings settings,
+                final String name,
+                final Set<Annotation> qualifiers,
+                final Converter<? extends T> converter,
+                final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction) {
+    super();
+    this.settings = Objects.requireNonNull(settings);
+    this.name = Objects.requireNonNull(name);
+    this.qualifiers = Objects.requireNonNull(qualifiers);
+    this.resolvedSources = this.resolveSources();
+    this.converter = Objects.requireNonNull(converter);
+    this.defaultValueFunction = defaultValueFunction;
+    this.hashCode = 31 * name.hashCode() + qualifiers.hashCode();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the name of the setting this {@link SettingHandle}
+   * represents.
+   *
+   * @return the name of the setting; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final String getName() {
+    return this.name;
+  }
+
+  /**
+   * Returns the qualifiers of the setting this {@link SettingHandle}
+   * represents.
+   *
+   * @return an unmodifiable {@link Set} of qualifier {@link
+   * Annotation}s; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final Set<Annotation> getQualifiers() {
+    return this.qualifiers;
+  }
+
+  final Set<? extends Source> getSources() {
+    ResolvedSources resolvedSources = this.resolvedSources;
+    if (resolvedSources.generation != this.settings.getSourcesGeneration()) {
+      resolvedSources = this.resolveSources();
+      this.resolvedSources = resolvedSources;
+    }
+    return resolvedSources.sources;
+  }
+
+  private final ResolvedSources resolveSources() {
+    // Read the generation first, so that Sources resolved while
+    // Settings#refreshSources() is being called are resolved again.
+    final int generation = this.settings.getSourcesGeneration();
+    return new ResolvedSources(this.settings.getSources(this.name, this.qualifiers), generation);
+  }
+
+  final Converter<? extends T> getConverter() {
+    return this.converter;
+  }
+
+  final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> getDefaultValueFunction() {
+    return this.defaultValueFunction;
+  }
+
+  /**
+   * Acquires, <a
+   * href="{@docRoot}/overview-summary.html#interpolation">interpolates</a>
+   * and {@linkplain Converter#convert(Value) converts} the current
+   * value of the setting this {@link SettingHandle} represents and
+   * returns it.
+   *
+   * @return a suitable value (possibly {@code null})
+   *
+   * @exception NoSuchElementException if no value could be sourced
+   * and this {@link SettingHandle} was created without a default
+   * value function
+   *
+   * @exception ValueAcquisitionException if there was a procedural
+   * problem acquiring a value
+   *
+   * @exception ArbitrationException if there was a problem performing
+   * value arbitration
+   *
+   * @exception AmbiguousValuesException if arbitration completed but
+   * could not resolve an ambiguity between potential return values
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency No guarantees of any kind are made with respect to
+   * the idempotency of this method.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see Settings#get(String, Set, Converter, BiFunction)
+   */
+  @Override
+  public final T get() {
+    return this.settings.get(this);
+  }
+
+  // Records a read of a value cached on behalf of this SettingHandle,
+  // which get() would otherwise record.
+  final void recordAccess() {
+    this.settings.recordAccess(this.name, this.qualifiers);
+  }
+
+  final String interpolate(final Interpolator interpolator,
+                           final String value,
+                           final BiFunction<? super String, ? super String, ? extends String> resolver) {
+    final String returnValue;
+    if (value == null || !(interpolator instanceof PlaceholderInterpolator)) {
+      returnValue = interpolator.interpolate(value, this.qualifiers, resolver);
+    } else if (value.indexOf("${") < 0) {
+      returnValue = value;
+    } else {
+      final PlaceholderInterpolator placeholderInterpolator = (PlaceholderInterpolator)interpolator;
+      PlaceholderInterpolator.Template template = this.template;
+      if (template == null || !template.getSource().equals(value)) {
+        template = placeholderInterpolator.getTemplate(value);
+        this.template = template;
+      }
+      returnValue = placeholderInterpolator.interpolate(template, resolver);
+    }
+    return returnValue;
+  }
+
+  @Override
+  public final int hashCode() {
+    return this.hashCode;
+  }
+
+  @Override
+  public final boolean equals(final Object other) {
+    if (other == this) {
+      return true;
+    } else if (other instanceof SettingHandle) {
+      final SettingHandle<?> her = (SettingHandle<?>)other;
+      return
+        this.hashCode == her.hashCode &&
+        this.settings == her.settings &&
+        this.name.equals(her.name) &&
+        this.qualifiers.equals(her.qualifiers) &&
+        this.converter.equals(her.converter) &&
+        Objects.equals(this.defaultValueFunction, her.defaultValueFunction);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public final String toString() {
+    return this.name + " (" + this.qualifiers + ")";
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class ResolvedSources {
+
+    private final Set<? extends Source> sources;
+
+    private final int generation;
+
+    private ResolvedSources(final Set<? extends Source> sources, final int generation) {
+      super();
+      this.sources = sources;
+      this.generation = generation;
+    }
+
+  }
+
+}
@@ -17,43 +17,58 @@
 package org.microbean.settings;
 
 import java.beans.BeanInfo;
-import java.beans.FeatureDescriptor;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.beans.PropertyEditor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import java.lang.annotation.Annotation;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Iterator; // for javadoc only
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 
 import java.util.ConcurrentModificationException; // for javadoc only
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
-import javax.el.ELContext;
 import javax.el.ELException; // for javadoc only
-import javax.el.ELResolver;
-import javax.el.ExpressionFactory;
-import javax.el.PropertyNotFoundException;
-import javax.el.StandardELContext;
-import javax.el.ValueExpression;
 
 import javax.enterprise.inject.Typed;
 
@@ -98,6 +113,16 @@ import org.microbean.settings.converter.PropertyEditorConverter;
  *
  * </ol>
  *
+ * <h1>Default Qualifiers</h1>
+ *
+ * <p>Convenience forms of these methods that do not accept a {@link
+ * Set} of qualifier {@link Annotation}s, such as {@link
+ * #get(String)}, use the qualifiers a {@link Settings} was
+ * {@linkplain #Settings(Set, BiFunction, ConverterProvider, Iterable,
+ * Interpolator) constructed with}, or, if the current thread is
+ * executing within a {@linkplain #bindQualifiers(Set) binding}, the
+ * qualifiers bound by it.</p>
+ *
  * @author <a href="https://about.me/lairdnelson"
  * target="_parent">Laird Nelson</a>
  *
@@ -115,6 +140,15 @@ public class Settings extends Source {
 
   private static final Comparator<Value> valueComparator = Comparator.<Value>comparingInt(v -> v.getQualifiers().size()).reversed();
 
+  private static final int MAXIMUM_INTERPOLATION_DEPTH = 32;
+
+  private static final int MAXIMUM_INTERNED_QUALIFIER_SETS = 1024;
+
+  // Returned by getOrAbsent() when there is no value.
+  static final Object ABSENT = new Object();
+
+  private static final Object NULL_VALUE = new Object();
+
   /**
    * A convenient {@link BiFunction} suitable for use as a default
    * value function normally provided to the {@link #get(String, Set,
@@ -151,6 +185,66 @@ public class Settings extends Source {
 
   private final Iterable<? extends Arbiter> arbiters;
 
+  // The materialized contents of arbiters; holds null until first
+  // needed.  Shared with all views created by withQualifiers(Set).
+  private final AtomicReference<Arbiter[]> arbiterChain;
+
+  private final Interpolator interpolator;
+
+  // Incremented by refreshSources(), so that SettingHandles know to
+  // resolve their Sources again.  Shared with all views created by
+  // withQualifiers(Set).
+  private final AtomicInteger sourcesGeneration;
+
+  // Keyed by the name of a referenced setting; values are the
+  // settings whose values were interpolated from it.
+  private final ConcurrentMap<String, Set<Key>> dependents;
+
+  // The inverse of the dependents map: keyed by a setting whose value
+  // was interpolated; values are the names of the settings it
+  // referenced.
+  private final ConcurrentMap<Key, Set<String>> dependencies;
+
+  // Listeners notified of invalidations of every setting.
+  private final Collection<BiConsumer<? super String, ? super Set<Annotation>>> invalidationListeners;
+
+  // Listeners notified of invalidations of the setting whose name is
+  // the key, so that an invalidation visits only the listeners of
+  // the settings it affects.
+  private final ConcurrentMap<String, Set<BiConsumer<? super String, ? super Set<Annotation>>>> namedInvalidationListeners;
+
+  // Normally empty; see recordAccesses(Path).
+  private final Collection<AccessRecorder> accessRecorders;
+
+  private final ConcurrentMap<Class<?>, Configurator<?>> configurators;
+
+  private final ConcurrentMap<Class<?>, ConstructorBinder<?>> binders;
+
+  private final ConcurrentMap<Class<?>, ProxyBinder<?>> proxyBinders;
+
+  // Views created by withQualifiers(Set), keyed by their default
+  // qualifiers, together with the Settings that created the first of
+  // them; shared by all of them.
+  private final ConcurrentMap<Set<Annotation>, Settings> views;
+
+  // The Settings, constructed by one of the public constructors, of
+  // which this Settings is a view, or this Settings itself.  Views
+  // are always instances of Settings, so they delegate the
+  // overridable methods to it, in case it is an instance of a
+  // subclass that overrides them.
+  private final Settings root;
+
+  // The qualifiers bound to the current thread by
+  // bindQualifiers(Set), if any.  Not shared with views.
+  private final ThreadLocal<Set<Annotation>> boundQualifiers;
+
+  // Qualifier sets bound by bindQualifiers(Set), interned so that
+  // binding equal qualifiers repeatedly allocates no copies of them;
+  // shared with views.  Holds at most
+  // MAXIMUM_INTERNED_QUALIFIER_SETS entries; sets seen after that
+  // are copied on each binding instead.
+  private final ConcurrentMap<Set<Annotation>, Set<Annotation>> internedQualifiers;
+
 
   /*
    * Constructors.
@@ -173,7 +267,12 @@ public class Settings extends Source {
    * <p>The created instance will use a single {@link
    * SourceOrderArbiter} as its mechanism for value arbitration.</p>
    *
-   * @see #Settings(Set, BiFunction, ConverterProvider, Iterable)
+   * <p>The created instance will use a new {@link
+   * ExpressionLanguageInterpolator} as its mechanism for <a
+   * href="{@docRoot}/overview-summary.html#interpolation">interpolation</a>.</p>
+   *
+   * @see #Settings(Set, BiFunction, ConverterProvider, Iterable,
+   * Interpolator)
    */
   public Settings() {
     super();
@@ -188,6 +287,24 @@ public class Settings extends Source {
     this.converterProvider = new Converters();
 
     this.arbiters = Collections.singleton(new SourceOrderArbiter());
+
+    this.interpolator = new ExpressionLanguageInterpolator();
+
+    this.dependents = new ConcurrentHashMap<>();
+    this.dependencies = new ConcurrentHashMap<>();
+    this.invalidationListeners = new CopyOnWriteArrayList<>();
+    this.namedInvalidationListeners = new ConcurrentHashMap<>();
+    this.accessRecorders = new CopyOnWriteArrayList<>();
+    this.configurators = new ConcurrentHashMap<>();
+    this.binders = new ConcurrentHashMap<>();
+    this.proxyBinders = new ConcurrentHashMap<>();
+    this.arbiterChain = new AtomicReference<>();
+    this.sourcesGeneration = new AtomicInteger();
+    this.views = new ConcurrentHashMap<>();
+    this.root = this;
+    this.views.put(this.qualifiers, this);
+    this.boundQualifiers = new ThreadLocal<>();
+    this.internedQualifiers = new ConcurrentHashMap<>();
   }
 
   /**
@@ -212,12 +329,13 @@ public class Settings extends Source {
    * be safe for concurrent use by multiple threads
    *
    * @param arbiters an {@link Iterable} of {@link Arbiter}s; may be
-   * {@code null}; if this new {@link Settings} will be used
-   * concurrently by multiple threads, then this parameter value must
-   * be safe for concurrent use by multiple threads and {@link
-   * Iterator}s produced by its {@link Iterable#iterator() iterator()}
-   * method must also be safe for concurrent iteration by multiple
-   * threads
+   * {@code null}; will be {@linkplain Iterable#iterator() iterated
+   * over} only when value arbitration first occurs and thereafter
+   * only when the {@link #refreshArbiters()} method is called; if
+   * this new {@link Settings} will be used concurrently by multiple
+   * threads, then {@link Iterator}s produced by its {@link
+   * Iterable#iterator() iterator()} method must be safe for
+   * concurrent iteration by multiple threads
    *
    * @exception NullPointerException if {@code converterProvider} is
    * {@code null}
@@ -260,12 +378,72 @@ public class Settings extends Source {
    * be safe for concurrent use by multiple threads
    *
    * @param arbiters an {@link Iterable} of {@link Arbiter}s; may be
+   * {@code null}; will be {@linkplain Iterable#iterator() iterated
+   * over} only when value arbitration first occurs and thereafter
+   * only when the {@link #refreshArbiters()} method is called; if
+   * this new {@link Settings} will be used concurrently by multiple
+   * threads, then {@link Iterator}s produced by its {@link
+   * Iterable#iterator() iterator()} method must be safe for
+   * concurrent iteration by multiple threads
+   *
+   * @exception NullPointerException if {@code converterProvider} is
+   * {@code null}
+   *
+   * @see #Settings(Set, BiFunction, ConverterProvider, Iterable,
+   * Interpolator)
+   */
+  public Settings(final Set<Annotation> qualifiers,
+                  final BiFunction<? super String,
+                                   ? super Set<Annotation>,
+                                   ? extends Set<? extends Source>> sourcesFunction,
+                  final ConverterProvider converterProvider,
+                  final Iterable<? extends Arbiter> arbiters) {
+    this(qualifiers, sourcesFunction, converterProvider, arbiters, null);
+  }
+
+  /**
+   * Creates a new {@link Settings}.
+   *
+   * @param qualifiers a {@link Set} of {@linkplain Annotation
+   * annotations} that can be used to further qualify the selection of
+   * appropriate values; may be {@code null}; will be iterated over
+   * with no synchronization or locking and shallowly copied by this
+   * constructor
+   *
+   * @param sourcesFunction a {@link BiFunction} that accepts a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a> and a {@link Set} of {@linkplain Annotation qualifier
+   * annotations} and returns a {@link Set} of {@link Source}s
+   * appropriate for the request represented by its inputs; may be
+   * {@code null}; may return {@code null}; if non-{@code null} and
+   * this new {@link Settings} will be used concurrently by multiple
+   * threads, then this parameter value must be safe for concurrent
+   * use by multiple threads; any {@link Set} returned by this {@link
+   * BiFunction} will be {@linkplain Iterable#iterator() iterated
+   * over} by this {@link Settings} instance without any
+   * synchronization
+   *
+   * @param converterProvider a {@link ConverterProvider}; must not be
    * {@code null}; if this new {@link Settings} will be used
    * concurrently by multiple threads, then this parameter value must
-   * be safe for concurrent use by multiple threads and {@link
-   * Iterator}s produced by its {@link Iterable#iterator() iterator()}
-   * method must also be safe for concurrent iteration by multiple
-   * threads
+   * be safe for concurrent use by multiple threads
+   *
+   * @param arbiters an {@link Iterable} of {@link Arbiter}s; may be
+   * {@code null}; will be {@linkplain Iterable#iterator() iterated
+   * over} only when value arbitration first occurs and thereafter
+   * only when the {@link #refreshArbiters()} method is called; if
+   * this new {@link Settings} will be used concurrently by multiple
+   * threads, then {@link Iterator}s produced by its {@link
+   * Iterable#iterator() iterator()} method must be safe for
+   * concurrent iteration by multiple threads
+   *
+   * @param interpolator an {@link Interpolator} used to <a
+   * href="{@docRoot}/overview-summary.html#interpolation">interpolate</a>
+   * values; may be {@code null} in which case a new {@link
+   * ExpressionLanguageInterpolator} will be used instead; if this new
+   * {@link Settings} will be used concurrently by multiple threads,
+   * then this parameter value must be safe for concurrent use by
+   * multiple threads
    *
    * @exception NullPointerException if {@code converterProvider} is
    * {@code null}
@@ -275,7 +453,8 @@ public class Settings extends Source {
                                    ? super Set<Annotation>,
                                    ? extends Set<? extends Source>> sourcesFunction,
                   final ConverterProvider converterProvider,
-                  final Iterable<? extends Arbiter> arbiters) {
+                  final Iterable<? extends Arbiter> arbiters,
+                  final Interpolator interpolator) {
     super();
     if (qualifiers == null || qualifiers.isEmpty()) {
       this.qualifiers = Collections.emptySet();
@@ -293,6 +472,52 @@ public class Settings extends Source {
     } else {
       this.arbiters = arbiters;
     }
+    if (interpolator == null) {
+      this.interpolator = new ExpressionLanguageInterpolator();
+    } else {
+      this.interpolator = interpolator;
+    }
+    this.dependents = new ConcurrentHashMap<>();
+    this.dependencies = new ConcurrentHashMap<>();
+    this.invalidationListeners = new CopyOnWriteArrayList<>();
+    this.namedInvalidationListeners = new ConcurrentHashMap<>();
+    this.accessRecorders = new CopyOnWriteArrayList<>();
+    this.configurators = new ConcurrentHashMap<>();
+    this.binders = new ConcurrentHashMap<>();
+    this.proxyBinders = new ConcurrentHashMap<>();
+    this.arbiterChain = new AtomicReference<>();
+    this.sourcesGeneration = new AtomicInteger();
+    this.views = new ConcurrentHashMap<>();
+    this.root = this;
+    this.views.put(this.qualifiers, this);
+    this.boundQualifiers = new ThreadLocal<>();
+    this.internedQualifiers = new ConcurrentHashMap<>();
+  }
+
+  // Creates a view of the supplied Settings that shares all of its
+  // state but uses the supplied, already normalized, qualifiers by
+  // default.  See withQualifiers(Set).
+  private Settings(final Settings parent, final Set<Annotation> qualifiers) {
+    super();
+    this.qualifiers = qualifiers;
+    this.sourcesFunction = parent.sourcesFunction;
+    this.converterProvider = parent.converterProvider;
+    this.arbiters = parent.arbiters;
+    this.arbiterChain = parent.arbiterChain;
+    this.sourcesGeneration = parent.sourcesGeneration;
+    this.interpolator = parent.interpolator;
+    this.dependents = parent.dependents;
+    this.dependencies = parent.dependencies;
+    this.invalidationListeners = parent.invalidationListeners;
+    this.namedInvalidationListeners = parent.namedInvalidationListeners;
+    this.accessRecorders = parent.accessRecorders;
+    this.configurators = parent.configurators;
+    this.binders = parent.binders;
+    this.proxyBinders = parent.proxyBinders;
+    this.views = parent.views;
+    this.root = parent.root;
+    this.boundQualifiers = new ThreadLocal<>();
+    this.internedQualifiers = parent.internedQualifiers;
   }
 
 
@@ -301,6 +526,155 @@ public class Settings extends Source {
    */
 
 
+  /**
+   * Returns a {@link Settings} that shares all of the state of this
+   * {@link Settings}—its {@link Source}s, {@link ConverterProvider},
+   * {@link Arbiter}s, {@link Interpolator}, invalidation listeners
+   * and caches—but that uses the supplied {@link Set} of qualifier
+   * {@link Annotation}s wherever this {@link Settings} would use the
+   * qualifiers it was {@linkplain #Settings(Set, BiFunction,
+   * ConverterProvider, Iterable, Interpolator) constructed with}.
+   *
+   * <p>Views are cheap: creating one allocates a single object, and
+   * views are interned, so this method returns the same {@link
+   * Settings} each time it is invoked with equal qualifiers on this
+   * {@link Settings} or on any view of it.  If the supplied
+   * qualifiers are equal to those this {@link Settings} uses by
+   * default, this {@link Settings} itself is returned.</p>
+   *
+   * <p>Because state is shared, {@linkplain #invalidate(String, Set)
+   * invalidating} a setting through a view notifies every {@linkplain
+   * #addInvalidationListener(BiConsumer) invalidation listener}
+   * registered with this {@link Settings} or any of its views, and
+   * {@link #refreshArbiters()} affects all of them.</p>
+   *
+   * <p>The returned view delegates {@linkplain #arbitrate(Set,
+   * String, Set, Collection) value arbitration}, {@linkplain
+   * #getValue(Source, String, Set) value acquisition from individual
+   * <code>Source</code>s} and {@linkplain #handleMalformedValues(String,
+   * Set, Collection) handling of malformed values} to the {@link
+   * Settings} this method was first invoked on or, if that was itself
+   * a view, to the {@link Settings} it was created from, so overrides
+   * of those methods in a subclass apply to its views as well.</p>
+   *
+   * @param qualifiers the {@link Set} of qualifier {@link
+   * Annotation}s the returned {@link Settings} will use by default;
+   * may be {@code null}; will be iterated over with no
+   * synchronization or locking and shallowly copied by this method
+   *
+   * @return a {@link Settings}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final Settings withQualifiers(final Set<Annotation> qualifiers) {
+    final Set<Annotation> key;
+    if (qualifiers == null || qualifiers.isEmpty()) {
+      key = Collections.emptySet();
+    } else {
+      key = qualifiers;
+    }
+    if (key.equals(this.qualifiers)) {
+      return this;
+    }
+    Settings returnValue = this.views.get(key);
+    if (returnValue == null) {
+      final Set<Annotation> copy = Collections.unmodifiableSet(new LinkedHashSet<>(key));
+      returnValue = new Settings(this, copy);
+      final Settings existing = this.views.putIfAbsent(copy, returnValue);
+      if (existing != null) {
+        returnValue = existing;
+      }
+    }
+    return returnValue;
+  }
+  /**
+   * Binds the supplied {@link Set} of qualifier {@link Annotation}s
+   * to the current thread, so that convenience methods of this {@link
+   * Settings} that do not accept qualifiers, such as {@link
+   * #get(String)}, use them instead of the qualifiers this {@link
+   * Settings} was {@linkplain #Settings(Set, BiFunction,
+   * ConverterProvider, Iterable, Interpolator) constructed with},
+   * until the returned {@link QualifierBinding} is {@linkplain
+   * QualifierBinding#close() closed}.
+   *
+   * <p>The supplied qualifiers are interned, so binding equal
+   * qualifiers repeatedly, for example once per request on behalf of
+   * a particular tenant, allocates only the returned {@link
+   * QualifierBinding}, and lookups within a binding allocate nothing
+   * on account of it.  Only a bounded number of distinct {@link Set}s
+   * of qualifiers are interned; binding does not create a {@linkplain
+   * #withQualifiers(Set) view}.  Bindings nest: closing a {@link
+   * QualifierBinding} restores whatever binding was in effect when it
+   * was created.</p>
+   *
+   * <p>A binding affects only this {@link Settings} and only the
+   * current thread.  The returned {@link QualifierBinding} must be
+   * closed by the thread that created it, normally by means of a
+   * {@code try}-with-resources statement:</p>
+   *
+   * <blockquote><pre>try (final QualifierBinding binding = settings.bindQualifiers(tenantQualifiers)) {
+   *   final String url = settings.get("service.url");
+   * }</pre></blockquote>
+   *
+   * @param qualifiers the {@link Set} of qualifier {@link
+   * Annotation}s to bind; may be {@code null}; will be iterated over
+   * with no synchronization or locking and shallowly copied by this
+   * method if it has not been seen before
+   *
+   * @return a {@link QualifierBinding} that must be {@linkplain
+   * QualifierBinding#close() closed} to end the binding; never {@code
+   * null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent, since it alters the
+   * state of the current thread.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see QualifierBinding
+   *
+   * @see #withQualifiers(Set)
+   */
+  public final QualifierBinding bindQualifiers(final Set<Annotation> qualifiers) {
+    final Set<Annotation> interned = this.internQualifiers(qualifiers);
+    final Set<Annotation> previous = this.boundQualifiers.get();
+    this.boundQualifiers.set(interned);
+    return new QualifierBinding(this.boundQualifiers, interned, previous);
+  }
+
+  private final Set<Annotation> internQualifiers(final Set<Annotation> qualifiers) {
+    if (qualifiers == null || qualifiers.isEmpty()) {
+      return Collections.emptySet();
+    }
+    Set<Annotation> returnValue = this.internedQualifiers.get(qualifiers);
+    if (returnValue == null) {
+      returnValue = Collections.unmodifiableSet(new LinkedHashSet<>(qualifiers));
+      // The size check is racy, so the bound may be exceeded by a few
+      // entries; that is harmless.
+      if (this.internedQualifiers.size() < MAXIMUM_INTERNED_QUALIFIER_SETS) {
+        final Set<Annotation> existing = this.internedQualifiers.putIfAbsent(returnValue, returnValue);
+        if (existing != null) {
+          returnValue = existing;
+        }
+      }
+    }
+    return returnValue;
+  }
+
+  private final Set<Annotation> getDefaultQualifiers() {
+    final Set<Annotation> returnValue = this.boundQualifiers.get();
+    return returnValue == null ? this.qualifiers : returnValue;
+  }
+
+
+
   /**
    * Returns a suitable {@link String} value for a <a
    * href="{@docRoot}/overview-summary.html#setting_name">setting
@@ -350,7 +724,7 @@ public class Settings extends Source {
    */
   public final String get(final String name) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(String.class),
                     (BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String>)null);
   }
@@ -412,7 +786,7 @@ public class Settings extends Source {
   public final String get(final String name,
                           final String defaultValue) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(String.class),
                     (n, qs) -> defaultValue);
   }
@@ -479,7 +853,7 @@ public class Settings extends Source {
   public final String get(final String name,
                           final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(String.class),
                     defaultValueFunction);
   }
@@ -760,7 +1134,7 @@ public class Settings extends Source {
   public final <T> T get(final String name,
                          final Class<T> type) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(type),
                     (BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String>)null);
   }
@@ -842,7 +1216,7 @@ public class Settings extends Source {
                          final Class<T> type,
                          final String defaultValue) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(type),
                     (n, qs) -> defaultValue);
   }
@@ -929,7 +1303,7 @@ public class Settings extends Source {
                          final Class<T> type,
                          final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(type),
                     defaultValueFunction);
   }
@@ -1189,7 +1563,7 @@ public class Settings extends Source {
   public final <T> T get(final String name,
                          final TypeLiteral<T> typeLiteral) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(typeLiteral),
                     (BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String>)null);
   }
@@ -1271,7 +1645,7 @@ public class Settings extends Source {
                          final TypeLiteral<T> typeLiteral,
                          final String defaultValue) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(typeLiteral),
                     (n, qs) -> defaultValue);
   }
@@ -1358,7 +1732,7 @@ public class Settings extends Source {
                          final TypeLiteral<T> typeLiteral,
                          final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(typeLiteral),
                     defaultValueFunction);
   }
@@ -1525,7 +1899,7 @@ public class Settings extends Source {
   public final Object get(final String name,
                           final Type type) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(type),
                     (BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String>)null);
   }
@@ -1687,7 +2061,7 @@ public class Settings extends Source {
                           final Type type,
                           final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     this.converterProvider.getConverter(type),
                     defaultValueFunction);
   }
@@ -1857,7 +2231,7 @@ public class Settings extends Source {
   public final <T> T get(final String name,
                          final Converter<? extends T> converter) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     converter,
                     (BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String>)null);
   }
@@ -2030,7 +2404,7 @@ public class Settings extends Source {
                          final Converter<? extends T> converter,
                          final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction) {
     return this.get(name,
-                    this.qualifiers,
+                    this.getDefaultQualifiers(),
                     converter,
                     defaultValueFunction);
   }
@@ -2213,137 +2587,79 @@ public class Settings extends Source {
                          final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction) {
     Objects.requireNonNull(name);
     Objects.requireNonNull(converter);
-    final ExpressionFactory expressionFactory = ExpressionFactory.newInstance();
-    final StandardELContext elContext = new StandardELContext(expressionFactory);
-    elContext.addELResolver(new SourceELResolver(this, expressionFactory, qualifiers));
-    return this.get(name,
-                    qualifiers,
-                    elContext,
-                    expressionFactory,
-                    converter,
-                    defaultValueFunction);
+    final Object returnValue = this.getOrAbsent(name, qualifiers, converter, defaultValueFunction);
+    if (returnValue == ABSENT) {
+      // There was no value that came up.  There's also no way to
+      // get a default one.  So the value is missing.
+      throw new NoSuchElementException(name + " (" + qualifiers + ")");
+    }
+    @SuppressWarnings("unchecked")
+    final T t = (T)returnValue;
+    return t;
   }
 
-  //----------------------------------------------------------------------------
+  final <T> T get(final SettingHandle<T> handle) {
+    final String name = handle.getName();
+    final Set<Annotation> qualifiers = handle.getQualifiers();
+    this.recordAccess(name, qualifiers);
+    final Value value = this.getValue(handle.getSources(), name, qualifiers);
+    final Object returnValue = this.getOrAbsent(name, qualifiers, value, handle.getConverter(), handle.getDefaultValueFunction(), handle);
+    if (returnValue == ABSENT) {
+      throw new NoSuchElementException(name + " (" + qualifiers + ")");
+    }
+    @SuppressWarnings("unchecked")
+    final T t = (T)returnValue;
+    return t;
+  }
 
-  /**
-   * Returns a suitable value for a <a
-   * href="{@docRoot}/overview-summary.html#setting_name">setting
-   * name</a>d by the supplied {@code name} and <a
-   * href="{@docRoot}/overview-summary.html#qualifiers">qualified
-   * with</a> the supplied {@code qualifiers}, as {@linkplain
-   * Converter#convert(Value) converted} by the supplied {@link
-   * Converter} and with default value semantics implemented by the
-   * optional supplied {@code defaultValueFunction}.
-   *
-   * @param name the name of the setting for which a value is to be
-   * returned; must not be {@code null}
-   *
-   * @param qualifiers a {@link Set} of {@link Annotation}s to further
-   * qualify the selection of the value to be returned; may be {@code
-   * null}; if non-{@code null} then this parameter value must be safe
-   * for concurrent iteration by multiple threads
-   *
-   * @param elContext an {@link ELContext}; must not be {@code null};
-   * must either be safe for concurrent use by multiple threads
-   * (highly unlikely) or created specially for this method invocation
-   * or supplied in a context where it is known that only one thread
-   * is executing at a time
-   *
-   * @param expressionFactory an {@link ExpressionFactory} used to
-   * {@linkplain ExpressionFactory#createValueExpression(ELContext,
-   * String, Class) create <code>ValueExpression</code>}s; must not be
-   * {@code null}; must either be safe for concurrent use by multiple
-   * threads (highly unlikely) or created specially for this method
-   * invocation or supplied in a context where it is known that only
-   * one thread is executing at a time
-   *
-   * @param converter a {@link Converter} used to {@linkplain
-   * Converter#convert(Value) convert} a {@link String} value into a
-   * <a href="{@docRoot}/overview-summary.html#setting_value">setting
-   * value</a> of the appropriate type; must not be {@code null}; must
-   * either be safe for concurrent use by multiple threads or created
-   * specially for this method invocation or supplied in a context
-   * where it is known that only one thread is executing at a time
-   *
-   * @param defaultValueFunction a {@link BiFunction} accepting a <a
-   * href="{@docRoot}/overview-summary.html#setting_name">setting
-   * name</a> and a {@link Set} of qualifier {@link Annotation}s that
-   * returns a default {@link String}-typed value when a value could
-   * not sourced; may be {@code null} in which case if no value can be
-   * sourced a {@link NoSuchElementException} will be thrown; may
-   * return {@code null}; must be safe for concurrent use by mulitple
-   * threads; must not call any of this {@link Settings} instance's
-   * methods or undefined behavior will result
-   *
-   * @exception NullPointerException if either {@code name}, {@code
-   * elContext}, {@code expressionFactory} or {@code converter} is
-   * {@code null}
-   *
-   * @exception IllegalArgumentException if {@linkplain
-   * Converter#convert(Value) conversion} could not occur for any
-   * reason; see {@link Converter#convert(Value)}
-   *
-   * @exception ConversionException if {@linkplain
-   * Converter#convert(Value) conversion} could not occur for any
-   * reason other than bad inputs
-   *
-   * @exception NoSuchElementException if {@code defaultValueFunction}
-   * was {@code null} and no value could be sourced
-   *
-   * @exception ValueAcquisitionException if there was a procedural
-   * problem acquiring a value
-   *
-   * @exception ArbitrationException if there was a problem performing
-   * value arbitration
-   *
-   * @exception AmbiguousValuesException if arbitration completed but
-   * could not resolve an ambiguity between potential return values
-   *
-   * @exception MalformedValuesException if the {@link
-   * #handleMalformedValues(String, Set, Collection)} method was
-   * overridden and the override throws a {@link
-   * MalformedValuesException}
-   *
-   * @exception ELException if there was an error related to
-   * expression language parsing or evaluation
-   *
-   * @threadsafety This method is and its overrides must be safe for
-   * concurrent use by multiple threads.
-   *
-   * @idempotency No guarantees of any kind are made with respect to
-   * the idempotency of this method or its overrides.
-   *
-   * @nullability This method may return {@code null}.
-   */
-  final <T> T get(final String name,
-                  final Set<Annotation> qualifiers,
-                  final ELContext elContext,
-                  final ExpressionFactory expressionFactory,
-                  final Converter<? extends T> converter,
-                  final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction) {
-    Objects.requireNonNull(name);
-    Objects.requireNonNull(converter);
-    Value value =
-      this.getValue(name,
-                    qualifiers,
-                    elContext,
-                    expressionFactory,
-                    defaultValueFunction);
+  final Object getOrAbsent(final String name,
+                           final Set<Annotation> qualifiers,
+                           final Converter<?> converter,
+                           final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction) {
+    this.recordAccess(name, qualifiers);
+    return this.getOrAbsent(name,
+                            qualifiers,
+                            this.getValue(name, qualifiers, defaultValueFunction),
+                            converter,
+                            defaultValueFunction,
+                            null);
+  }
+
+  final Object getOrElse(final String name,
+                         final Set<Annotation> qualifiers,
+                         final Type type,
+                         final Object absentValue) {
+    final Object returnValue = this.getOrAbsent(name, qualifiers, this.converterProvider.getConverter(type), null);
+    return returnValue == ABSENT ? absentValue : returnValue;
+  }
 
+  // Returns ABSENT rather than throwing a NoSuchElementException when
+  // there is no value and no default value function, so that callers
+  // for whom a missing value is routine need not pay for an
+  // exception.
+  private final Object getOrAbsent(final String name,
+                                   final Set<Annotation> qualifiers,
+                                   Value value,
+                                   final Converter<?> converter,
+                                   final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction,
+                                   final SettingHandle<?> handle) {
     final String stringToInterpolate;
     if (value == null) {
       if (defaultValueFunction == null) {
-        // There was no value that came up.  There's also no way to
-        // get a default one.  So the value is missing.
-        throw new NoSuchElementException(name + " (" + qualifiers + ")");
+        return ABSENT;
       } else {
         stringToInterpolate = defaultValueFunction.apply(name, qualifiers);
       }
     } else {
       stringToInterpolate = value.get();
     }
-    final String interpolatedString = this.interpolate(stringToInterpolate, elContext, expressionFactory, qualifiers);
+    final Resolver resolver = new Resolver(name, qualifiers);
+    final String interpolatedString;
+    if (handle == null) {
+      interpolatedString = this.interpolator.interpolate(stringToInterpolate, qualifiers, resolver);
+    } else {
+      interpolatedString = handle.interpolate(this.interpolator, stringToInterpolate, resolver);
+    }
     if (value == null) {
       value = new Value(null /* no Source; we synthesized this Value */, name, qualifiers, interpolatedString);
     } else {
@@ -2355,73 +2671,989 @@ public class Settings extends Source {
   //----------------------------------------------------------------------------
 
   /**
-   * Implements the {@link Source#getValue(String, Set)} method so
-   * that this {@link Settings} can be conveniently used as a {@link
-   * Source} from a higher-order {@link Settings}.
+   * Returns an {@link Optional} housing a suitable value for a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code type}, or an {@linkplain Optional#empty() empty
+   * <code>Optional</code>} if there is no such value.
    *
-   * <p>End users should never need to call this method directly.</p>
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
    *
    * @param name the name of the setting for which a value is to be
    * returned; must not be {@code null}
    *
-   * @param qualifiers a {@link Set} of {@link Annotation}s to further
-   * qualify the selection of the value to be returned; may be {@code
-   * null}; if non-{@code null} then this parameter value must be safe
-   * for concurrent iteration by multiple threads
-   *
-   * @return a suitable {@link Value}, or {@code null} if no {@link
-   * Value} could be created or acquired
+   * @param type a {@link Class} used to find a suitable {@link
+   * Converter}; must not be {@code null}
    *
-   * @exception NullPointerException if {@code name} is {@code null}
+   * @return a non-{@code null} {@link Optional}
    *
-   * @exception ValueAcquisitionException if there was a procedural
-   * problem acquiring a {@link Value}
+   * @exception NullPointerException if either {@code name} or {@code
+   * type} is {@code null}
    *
-   * @nullability This method may return {@code null}.
+   * @nullability This method never returns {@code null}.
    *
-   * @idempotency This method may not be idempotent.  That is, two
-   * invocations supplied with the same {@code name} and {@code
-   * qualifiers} parameter values may or may not return {@link Value}s
-   * that are identical, {@linkplain Object#equals(Object) equal} or
-   * neither.
+   * @idempotency No guarantees of any kind are made with respect to
+   * the idempotency of this method.
    *
    * @threadsafety This method is safe for concurrent use by multiple
    * threads.
    *
-   * @see Source#getValue(String, Set)
+   * @see #find(String, Set, Converter)
    */
-  @Experimental
-  @Override
-  public final Value getValue(final String name, final Set<Annotation> qualifiers) {
-    final ExpressionFactory expressionFactory = ExpressionFactory.newInstance();
-    final StandardELContext elContext = new StandardELContext(expressionFactory);
-    elContext.addELResolver(new SourceELResolver(this, expressionFactory, qualifiers));
-    try {
-      return this.getValue(name, qualifiers, elContext, expressionFactory, NULL);
-    } catch (final AmbiguousValuesException ambiguousValuesException) {
-      throw new ValueAcquisitionException(ambiguousValuesException.getMessage(), ambiguousValuesException);
+  public final <T> Optional<T> find(final String name,
+                                    final Class<T> type) {
+    return this.find(name, this.getDefaultQualifiers(), this.converterProvider.getConverter(type));
+  }
+
+  /**
+   * Returns an {@link Optional} housing a suitable value for a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code type}, or an {@linkplain Optional#empty() empty
+   * <code>Optional</code>} if there is no such value.
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting for which a value is to be
+   * returned; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value to be returned; may be {@code
+   * null}
+   *
+   * @param type a {@link Class} used to find a suitable {@link
+   * Converter}; must not be {@code null}
+   *
+   * @return a non-{@code null} {@link Optional}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * type} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency No guarantees of any kind are made with respect to
+   * the idempotency of this method.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #find(String, Set, Converter)
+   */
+  public final <T> Optional<T> find(final String name,
+                                    final Set<Annotation> qualifiers,
+                                    final Class<T> type) {
+    return this.find(name, qualifiers, this.converterProvider.getConverter(type));
+  }
+
+  /**
+   * Returns an {@link Optional} housing a suitable value for a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code typeLiteral}'s type, or an {@linkplain Optional#empty()
+   * empty <code>Optional</code>} if there is no such value.
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting for which a value is to be
+   * returned; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value to be returned; may be {@code
+   * null}
+   *
+   * @param typeLiteral a {@link TypeLiteral} used to find a suitable
+   * {@link Converter}; must not be {@code null}
+   *
+   * @return a non-{@code null} {@link Optional}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * typeLiteral} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency No guarantees of any kind are made with respect to
+   * the idempotency of this method.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #find(String, Set, Converter)
+   */
+  public final <T> Optional<T> find(final String name,
+                                    final Set<Annotation> qualifiers,
+                                    final TypeLiteral<T> typeLiteral) {
+    return this.find(name, qualifiers, this.converterProvider.getConverter(typeLiteral));
+  }
+
+  /**
+   * Returns an {@link Optional} housing a suitable value for a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code type}, or an {@linkplain Optional#empty() empty
+   * <code>Optional</code>} if there is no such value.
+   *
+   * @param name the name of the setting for which a value is to be
+   * returned; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value to be returned; may be {@code
+   * null}
+   *
+   * @param type a {@link Type} used to find a suitable {@link
+   * Converter}; must not be {@code null}
+   *
+   * @return a non-{@code null} {@link Optional}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * type} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency No guarantees of any kind are made with respect to
+   * the idempotency of this method.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #find(String, Set, Converter)
+   */
+  public final Optional<?> find(final String name,
+                                final Set<Annotation> qualifiers,
+                                final Type type) {
+    return this.find(name, qualifiers, this.converterProvider.getConverter(type));
+  }
+
+  /**
+   * Returns an {@link Optional} housing a suitable value for a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, or an {@linkplain
+   * Optional#empty() empty <code>Optional</code>} if there is no such
+   * value.
+   *
+   * <p>This method behaves like the {@link #get(String, Set,
+   * Converter, BiFunction)} method invoked with a {@code null}
+   * default value function, except that where that method would
+   * throw a {@link NoSuchElementException} this method returns an
+   * empty {@link Optional} without creating any exception.  It is
+   * therefore preferable when a missing value is a routine
+   * occurrence.</p>
+   *
+   * <p>Note that an empty {@link Optional} is also returned if a
+   * value exists but the supplied {@link Converter} {@linkplain
+   * Converter#convert(Value) converts} it to {@code null}.</p>
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting for which a value is to be
+   * returned; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value to be returned; may be {@code
+   * null}; if non-{@code null} then this parameter value must be safe
+   * for concurrent iteration by multiple threads
+   *
+   * @param converter a {@link Converter} used to {@linkplain
+   * Converter#convert(Value) convert} a {@link String} value into a
+   * <a href="{@docRoot}/overview-summary.html#setting_value">setting
+   * value</a> of the appropriate type; must not be {@code null}
+   *
+   * @return a non-{@code null} {@link Optional}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * converter} is {@code null}
+   *
+   * @exception IllegalArgumentException if {@linkplain
+   * Converter#convert(Value) conversion} could not occur for any
+   * reason; see {@link Converter#convert(Value)}
+   *
+   * @exception ConversionException if {@linkplain
+   * Converter#convert(Value) conversion} could not occur for any reason
+   * other than bad inputs
+   *
+   * @exception ValueAcquisitionException if there was a procedural
+   * problem acquiring a value
+   *
+   * @exception ArbitrationException if there was a problem performing
+   * value arbitration
+   *
+   * @exception AmbiguousValuesException if arbitration completed but
+   * could not resolve an ambiguity between potential return values
+   *
+   * @exception MalformedValuesException if the {@link
+   * #handleMalformedValues(String, Set, Collection)} method was
+   * overridden and the override throws a {@link
+   * MalformedValuesException}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency No guarantees of any kind are made with respect to
+   * the idempotency of this method.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #get(String, Set, Converter, BiFunction)
+   */
+  public final <T> Optional<T> find(final String name,
+                                    final Set<Annotation> qualifiers,
+                                    final Converter<? extends T> converter) {
+    Objects.requireNonNull(name);
+    Objects.requireNonNull(converter);
+    final Object returnValue = this.getOrAbsent(name, qualifiers, converter, null);
+    if (returnValue == ABSENT) {
+      return Optional.empty();
+    }
+    @SuppressWarnings("unchecked")
+    final T t = (T)returnValue;
+    return Optional.ofNullable(t);
+  }
+
+  //----------------------------------------------------------------------------
+
+  /**
+   * Returns a {@link SettingHandle} that can be used to acquire the
+   * value of the <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code type}, repeatedly and efficiently.
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value; may be {@code null}; will be
+   * copied
+   *
+   * @param type a {@link Class} used to find a suitable {@link
+   * Converter}; must not be {@code null}
+   *
+   * @return a non-{@code null} {@link SettingHandle}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * type} is {@code null}
+   *
+   * @exception IllegalArgumentException if a suitable {@link
+   * Converter} could not be found
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic:
+   * each invocation returns a new {@link SettingHandle}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #handle(String, Set, Converter, BiFunction)
+   */
+  public final <T> SettingHandle<T> handle(final String name,
+                                           final Set<Annotation> qualifiers,
+                                           final Class<T> type) {
+    return this.handle(name, qualifiers, this.converterProvider.getConverter(type), null);
+  }
+
+  /**
+   * Returns a {@link SettingHandle} that can be used to acquire the
+   * value of the <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code type}, repeatedly and efficiently.
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value; may be {@code null}; will be
+   * copied
+   *
+   * @param typeLiteral a {@link TypeLiteral} used to find a suitable
+   * {@link Converter}; must not be {@code null}
+   *
+   * @return a non-{@code null} {@link SettingHandle}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * typeLiteral} is {@code null}
+   *
+   * @exception IllegalArgumentException if a suitable {@link
+   * Converter} could not be found
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic:
+   * each invocation returns a new {@link SettingHandle}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #handle(String, Set, Converter, BiFunction)
+   */
+  public final <T> SettingHandle<T> handle(final String name,
+                                           final Set<Annotation> qualifiers,
+                                           final TypeLiteral<T> typeLiteral) {
+    return this.handle(name, qualifiers, this.converterProvider.getConverter(typeLiteral), null);
+  }
+
+  /**
+   * Returns a {@link SettingHandle} that can be used to acquire the
+   * value of the <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code type}, repeatedly and efficiently.
+   *
+   * @param name the name of the setting; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value; may be {@code null}; will be
+   * copied
+   *
+   * @param type a {@link Type} used to find a suitable {@link
+   * Converter}; must not be {@code null}
+   *
+   * @return a non-{@code null} {@link SettingHandle}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * type} is {@code null}
+   *
+   * @exception IllegalArgumentException if a suitable {@link
+   * Converter} could not be found
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic:
+   * each invocation returns a new {@link SettingHandle}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #handle(String, Set, Converter, BiFunction)
+   */
+  public final SettingHandle<?> handle(final String name,
+                                       final Set<Annotation> qualifiers,
+                                       final Type type) {
+    return this.handle(name, qualifiers, this.converterProvider.getConverter(type), null);
+  }
+
+  /**
+   * Returns a {@link SettingHandle} that can be used to acquire the
+   * value of the <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name} repeatedly and
+   * efficiently.
+   *
+   * <p>The returned {@link SettingHandle} captures the supplied
+   * {@link Converter} and the {@link Source}s that this {@link
+   * Settings} would consult for the supplied {@code name} and {@code
+   * qualifiers} at the moment this method is invoked, so that its
+   * {@link SettingHandle#get()} method does none of the lookup work
+   * that the {@link #get(String, Set, Converter, BiFunction)} method
+   * does on each invocation.  Values themselves are never cached:
+   * each invocation of {@link SettingHandle#get()} consults the
+   * captured {@link Source}s.</p>
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value; may be {@code null}; will be
+   * copied
+   *
+   * @param converter a {@link Converter} used to {@linkplain
+   * Converter#convert(Value) convert} a {@link String} value into a
+   * <a href="{@docRoot}/overview-summary.html#setting_value">setting
+   * value</a> of the appropriate type; must not be {@code null}; must
+   * be safe for concurrent use by multiple threads if the returned
+   * {@link SettingHandle} will be
+   *
+   * @param defaultValueFunction a {@link BiFunction} accepting a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a> and a {@link Set} of qualifier {@link Annotation}s that
+   * returns a default {@link String}-typed value when a value could
+   * not sourced; may be {@code null} in which case if no value can be
+   * sourced the {@link SettingHandle#get()} method will throw a
+   * {@link NoSuchElementException}
+   *
+   * @return a non-{@code null} {@link SettingHandle}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * converter} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic:
+   * each invocation returns a new {@link SettingHandle}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see SettingHandle#get()
+   */
+  public final <T> SettingHandle<T> handle(final String name,
+                                           Set<Annotation> qualifiers,
+                                           final Converter<? extends T> converter,
+                                           final BiFunction<? super String,
+                                                            ? super Set<? extends Annotation>,
+                                                            ? extends String> defaultValueFunction) {
+    Objects.requireNonNull(name);
+    Objects.requireNonNull(converter);
+    if (qualifiers == null || qualifiers.isEmpty()) {
+      qualifiers = Collections.emptySet();
+    } else {
+      qualifiers = Collections.unmodifiableSet(new LinkedHashSet<>(qualifiers));
+    }
+    return new SettingHandle<>(this, name, qualifiers, converter, defaultValueFunction);
+  }
+
+  final int getSourcesGeneration() {
+    return this.sourcesGeneration.get();
+  }
+
+  final Set<? extends Source> getSources(final String name, final Set<Annotation> qualifiers) {
+    return this.sourcesFunction.apply(name, qualifiers);
+  }
+
+  /**
+   * Causes every {@link SettingHandle} created by this {@link
+   * Settings} or any of its {@linkplain #withQualifiers(Set) views},
+   * and hence every {@link LiveSetting} and {@link ConstantSetting},
+   * to ask the sources {@link BiFunction} {@linkplain #Settings(Set,
+   * BiFunction, ConverterProvider, Iterable, Interpolator) supplied
+   * at construction time} for its {@link Source}s again the next time
+   * it acquires a value.
+   *
+   * <p>A {@link SettingHandle} otherwise asks for its {@link Source}s
+   * only once, when it is created.  Call this method if the {@link
+   * Source}s that {@link BiFunction} returns may have changed, as
+   * they do, for example, when a {@link SettingsSnapshot} finishes
+   * {@linkplain SettingsSnapshot#revalidate(Settings, Executor)
+   * revalidating}.  Values already acquired are not affected; use
+   * the {@link #invalidate(String, Set)} method for that.</p>
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @idempotency This method is idempotent provided that the {@link
+   * Source}s returned by the sources {@link BiFunction} have not
+   * changed.
+   *
+   * @see #handle(String, Set, Converter, BiFunction)
+   */
+  public final void refreshSources() {
+    this.sourcesGeneration.incrementAndGet();
+  }
+
+  //----------------------------------------------------------------------------
+
+  /**
+   * Returns a {@link ConstantSetting} whose value is the value of the
+   * <a href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code type}, and which is reacquired only when that setting is
+   * {@linkplain #invalidate(String, Set) invalidated}.
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value; may be {@code null}; will be
+   * copied
+   *
+   * @param type a {@link Class} used to find a suitable {@link
+   * Converter}; must not be {@code null}
+   *
+   * @return a non-{@code null} {@link ConstantSetting}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * type} is {@code null}
+   *
+   * @exception IllegalArgumentException if a suitable {@link
+   * Converter} could not be found
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic:
+   * each invocation returns a new {@link ConstantSetting}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #constant(String, Set, Converter, BiFunction)
+   */
+  public final <T> ConstantSetting<T> constant(final String name,
+                                               final Set<Annotation> qualifiers,
+                                               final Class<T> type) {
+    return this.constant(name, qualifiers, this.converterProvider.getConverter(type), null);
+  }
+
+  /**
+   * Returns a {@link ConstantSetting} whose value is the value of the
+   * <a href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name} and which is reacquired
+   * only when that setting, or any setting its value was <a
+   * href="{@docRoot}/overview-summary.html#interpolation">interpolated</a>
+   * from, is {@linkplain #invalidate(String, Set) invalidated}.
+   *
+   * <p>The returned {@link ConstantSetting} remains registered with
+   * this {@link Settings} until it is {@linkplain
+   * #release(ConstantSetting) released}, so this method is intended
+   * for settings read in performance-sensitive code paths and held in
+   * {@code static final} fields, not for settings acquired once.</p>
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value; may be {@code null}; will be
+   * copied
+   *
+   * @param converter a {@link Converter} used to {@linkplain
+   * Converter#convert(Value) convert} a {@link String} value into a
+   * <a href="{@docRoot}/overview-summary.html#setting_value">setting
+   * value</a> of the appropriate type; must not be {@code null}
+   *
+   * @param defaultValueFunction a {@link BiFunction} accepting a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a> and a {@link Set} of qualifier {@link Annotation}s that
+   * returns a default {@link String}-typed value when a value could
+   * not sourced; may be {@code null}
+   *
+   * @return a non-{@code null} {@link ConstantSetting}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * converter} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic:
+   * each invocation returns a new {@link ConstantSetting}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see ConstantSetting
+   *
+   * @see #release(ConstantSetting)
+   *
+   * @see #handle(String, Set, Converter, BiFunction)
+   */
+  public final <T> ConstantSetting<T> constant(final String name,
+                                               final Set<Annotation> qualifiers,
+                                               final Converter<? extends T> converter,
+                                               final BiFunction<? super String,
+                                                                ? super Set<? extends Annotation>,
+                                                                ? extends String> defaultValueFunction) {
+    final ConstantSetting<T> returnValue = new ConstantSetting<>(this.handle(name, qualifiers, converter, defaultValueFunction));
+    this.addInvalidationListener(name, returnValue.getInvalidationListener());
+    return returnValue;
+  }
+
+  /**
+   * Unregisters the supplied {@link ConstantSetting}, which must have
+   * been created by this {@link Settings}, so that it is no longer
+   * notified of invalidations and may be garbage collected.
+   *
+   * <p>The supplied {@link ConstantSetting} may still be used
+   * afterwards, but will never again reacquire its value once it has
+   * been acquired.</p>
+   *
+   * @param constantSetting the {@link ConstantSetting} to release;
+   * may be {@code null} in which case no action will be taken
+   *
+   * @idempotency This method is idempotent.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #constant(String, Set, Converter, BiFunction)
+   */
+  public final void release(final ConstantSetting<?> constantSetting) {
+    if (constantSetting != null) {
+      this.removeInvalidationListener(constantSetting.getName(), constantSetting.getInvalidationListener());
+    }
+  }
+
+  //----------------------------------------------------------------------------
+
+  /**
+   * Returns a {@link LiveSetting} whose value is the value of the
+   * <a href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code type}, and which is reacquired only when that setting is
+   * {@linkplain #invalidate(String, Set) invalidated}.
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value; may be {@code null}; will be
+   * copied
+   *
+   * @param type a {@link Class} used to find a suitable {@link
+   * Converter}; must not be {@code null}
+   *
+   * @return a non-{@code null} {@link LiveSetting}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * type} is {@code null}
+   *
+   * @exception IllegalArgumentException if a suitable {@link
+   * Converter} could not be found
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic:
+   * each invocation returns a new {@link LiveSetting}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #live(String, Set, Converter, BiFunction)
+   */
+  public final <T> LiveSetting<T> live(final String name,
+                                       final Set<Annotation> qualifiers,
+                                       final Class<T> type) {
+    return this.live(name, qualifiers, this.converterProvider.getConverter(type), null);
+  }
+
+  /**
+   * Returns a {@link LiveSetting} whose value is the value of the
+   * <a href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name}, converted to the supplied
+   * {@code type}, and which is reacquired only when that setting is
+   * {@linkplain #invalidate(String, Set) invalidated}.
+   *
+   * @param name the name of the setting; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value; may be {@code null}; will be
+   * copied
+   *
+   * @param type a {@link Type} used to find a suitable {@link
+   * Converter}; must not be {@code null}
+   *
+   * @param defaultValueFunction a {@link BiFunction} accepting a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a> and a {@link Set} of qualifier {@link Annotation}s that
+   * returns a default {@link String}-typed value when a value could
+   * not sourced; may be {@code null}
+   *
+   * @return a non-{@code null} {@link LiveSetting}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * type} is {@code null}
+   *
+   * @exception IllegalArgumentException if a suitable {@link
+   * Converter} could not be found
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic:
+   * each invocation returns a new {@link LiveSetting}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #live(String, Set, Converter, BiFunction)
+   */
+  public final LiveSetting<?> live(final String name,
+                                   final Set<Annotation> qualifiers,
+                                   final Type type,
+                                   final BiFunction<? super String,
+                                                    ? super Set<? extends Annotation>,
+                                                    ? extends String> defaultValueFunction) {
+    return this.live(name, qualifiers, this.converterProvider.getConverter(type), defaultValueFunction);
+  }
+
+  /**
+   * Returns a {@link LiveSetting} whose value is the value of the
+   * <a href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a>d by the supplied {@code name} and which is reacquired
+   * only when that setting, or any setting its value was <a
+   * href="{@docRoot}/overview-summary.html#interpolation">interpolated</a>
+   * from, is {@linkplain #invalidate(String, Set) invalidated}.
+   *
+   * <p>The returned {@link LiveSetting} remains registered with this
+   * {@link Settings} until it is passed to the {@link
+   * #release(LiveSetting)} method.</p>
+   *
+   * @param <T> the type to which any value should be {@linkplain
+   * Converter#convert(Value) converted}
+   *
+   * @param name the name of the setting; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value; may be {@code null}; will be
+   * copied
+   *
+   * @param converter a {@link Converter} used to {@linkplain
+   * Converter#convert(Value) convert} a {@link String} value into a
+   * <a href="{@docRoot}/overview-summary.html#setting_value">setting
+   * value</a> of the appropriate type; must not be {@code null}
+   *
+   * @param defaultValueFunction a {@link BiFunction} accepting a <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting
+   * name</a> and a {@link Set} of qualifier {@link Annotation}s that
+   * returns a default {@link String}-typed value when a value could
+   * not sourced; may be {@code null}
+   *
+   * @return a non-{@code null} {@link LiveSetting}
+   *
+   * @exception NullPointerException if either {@code name} or {@code
+   * converter} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent but not deterministic:
+   * each invocation returns a new {@link LiveSetting}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see LiveSetting
+   *
+   * @see #release(LiveSetting)
+   *
+   * @see #constant(String, Set, Converter, BiFunction)
+   */
+  public final <T> LiveSetting<T> live(final String name,
+                                       final Set<Annotation> qualifiers,
+                                       final Converter<? extends T> converter,
+                                       final BiFunction<? super String,
+                                                        ? super Set<? extends Annotation>,
+                                                        ? extends String> defaultValueFunction) {
+    final LiveSetting<T> returnValue = new LiveSetting<>(this.handle(name, qualifiers, converter, defaultValueFunction));
+    this.addInvalidationListener(name, returnValue.getInvalidationListener());
+    return returnValue;
+  }
+
+  /**
+   * Unregisters the supplied {@link LiveSetting}, which must have
+   * been created by this {@link Settings}, so that it is no longer
+   * notified of invalidations and may be garbage collected.
+   *
+   * <p>The supplied {@link LiveSetting} may still be used afterwards,
+   * but will never again reacquire its value once it has been
+   * acquired.</p>
+   *
+   * @param liveSetting the {@link LiveSetting} to release; may be
+   * {@code null} in which case no action will be taken
+   *
+   * @idempotency This method is idempotent.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #live(String, Set, Converter, BiFunction)
+   */
+  public final void release(final LiveSetting<?> liveSetting) {
+    if (liveSetting != null) {
+      this.removeInvalidationListener(liveSetting.getName(), liveSetting.getInvalidationListener());
+    }
+  }
+
+  /**
+   * Starts recording the <a
+   * href="{@docRoot}/overview-summary.html#setting_name">names</a>
+   * and qualifiers of the settings read from this {@link Settings},
+   * and from all of its {@linkplain #withQualifiers(Set) views}, so
+   * that they can be written to the file identified by the supplied
+   * {@link Path} and {@linkplain #prefetch(Path, Executor)
+   * prefetched} by a {@link Settings} created later, typically when
+   * the application next starts.
+   *
+   * <p>Recording is intended for settings read dynamically, whose
+   * names are not known until they are read.  Recording ends, and the
+   * file is written, when the returned {@link AccessRecorder} is
+   * {@linkplain AccessRecorder#close() closed}.  Until then, reading
+   * a setting costs an additional lookup, by name and then by
+   * qualifiers, in concurrent collections, and allocates only the
+   * first time the setting is read.</p>
+   *
+   * @param path the {@link Path} of the file to write; must not be
+   * {@code null}
+   *
+   * @return a new {@link AccessRecorder}; never {@code null}
+   *
+   * @exception NullPointerException if {@code path} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent: each invocation
+   * starts a new recording.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see AccessRecorder
+   *
+   * @see #prefetch(Path, Executor)
+   */
+  public final AccessRecorder recordAccesses(final Path path) {
+    final AccessRecorder returnValue = new AccessRecorder(this, path);
+    this.accessRecorders.add(returnValue);
+    return returnValue;
+  }
+
+  final void removeAccessRecorder(final AccessRecorder accessRecorder) {
+    this.accessRecorders.remove(accessRecorder);
+  }
+
+  final void recordAccess(final String name, final Set<Annotation> qualifiers) {
+    if (!this.accessRecorders.isEmpty()) {
+      for (final AccessRecorder accessRecorder : this.accessRecorders) {
+        accessRecorder.record(name, qualifiers);
+      }
+    }
+  }
+
+  /**
+   * Reads the settings recorded in the file identified by the
+   * supplied {@link Path} by an {@link AccessRecorder} and, using
+   * the supplied {@link Executor}, acquires their values from this
+   * {@link Settings} in a single background batch.
+   *
+   * <p>Values are never cached by a {@link Settings}, so prefetching
+   * has the effect of initializing the {@link Source}s of the
+   * prefetched settings and filling whatever caches they maintain,
+   * so that they are warm when the settings are first read in
+   * earnest.  Values are acquired as {@link String}s, are
+   * interpolated, and are then discarded.  Failures to acquire
+   * individual values are ignored.  Reads performed by this method
+   * are not themselves {@linkplain #recordAccesses(Path)
+   * recorded}.</p>
+   *
+   * @param path the {@link Path} of a file written by an {@link
+   * AccessRecorder}; must not be {@code null}; if the file does not
+   * exist, no action is taken
+   *
+   * @param executor the {@link Executor} on which the batch will run;
+   * must not be {@code null}
+   *
+   * @return a {@link CompletableFuture} that completes when the batch
+   * has run, or completes exceptionally if the file could not be
+   * read; never {@code null}
+   *
+   * @exception NullPointerException if either parameter is {@code
+   * null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency No guarantees of any kind are made with respect to
+   * the idempotency of this method.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #recordAccesses(Path)
+   */
+  public final CompletableFuture<Void> prefetch(final Path path, final Executor executor) {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(executor);
+    return CompletableFuture.runAsync(() -> {
+        if (Files.exists(path)) {
+          final Collection<Entry<String, Set<Annotation>>> accesses;
+          try {
+            accesses = AccessRecorder.read(path);
+          } catch (final IOException ioException) {
+            throw new UncheckedIOException(ioException.getMessage(), ioException);
+          }
+          final Converter<?> converter = this.converterProvider.getConverter(String.class);
+          for (final Entry<String, Set<Annotation>> access : accesses) {
+            final String name = access.getKey();
+            final Set<Annotation> qualifiers = access.getValue();
+            try {
+              this.getOrAbsent(name, qualifiers, this.getValue(name, qualifiers, null), converter, null, null);
+            } catch (final RuntimeException acquisitionFailure) {
+              // The failure will recur, and be reported, when the
+              // setting is read in earnest.
+            }
+          }
+        }
+      }, executor);
+  }
+
+  //----------------------------------------------------------------------------
+
+  /**
+   * Implements the {@link Source#getValue(String, Set)} method so
+   * that this {@link Settings} can be conveniently used as a {@link
+   * Source} from a higher-order {@link Settings}.
+   *
+   * <p>End users should never need to call this method directly.</p>
+   *
+   * @param name the name of the setting for which a value is to be
+   * returned; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of the value to be returned; may be {@code
+   * null}; if non-{@code null} then this parameter value must be safe
+   * for concurrent iteration by multiple threads
+   *
+   * @return a suitable {@link Value}, or {@code null} if no {@link
+   * Value} could be created or acquired
+   *
+   * @exception NullPointerException if {@code name} is {@code null}
+   *
+   * @exception ValueAcquisitionException if there was a procedural
+   * problem acquiring a {@link Value}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method may not be idempotent.  That is, two
+   * invocations supplied with the same {@code name} and {@code
+   * qualifiers} parameter values may or may not return {@link Value}s
+   * that are identical, {@linkplain Object#equals(Object) equal} or
+   * neither.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see Source#getValue(String, Set)
+   */
+  @Experimental
+  @Override
+  public final Value getValue(final String name, final Set<Annotation> qualifiers) {
+    try {
+      return this.getValue(name, qualifiers, NULL);
+    } catch (final AmbiguousValuesException ambiguousValuesException) {
+      throw new ValueAcquisitionException(ambiguousValuesException.getMessage(), ambiguousValuesException);
     }
   }
 
   private final Value getValue(final String name,
                                Set<Annotation> qualifiers,
-                               final ELContext elContext,
-                               final ExpressionFactory expressionFactory,
                                final BiFunction<? super String,
                                                 ? super Set<? extends Annotation>,
                                                 ? extends String> defaultValueFunction) {
     Objects.requireNonNull(name);
-    Objects.requireNonNull(elContext);
-    Objects.requireNonNull(expressionFactory);
-
-    final int qualifiersSize;
     if (qualifiers == null || qualifiers.isEmpty()) {
       qualifiers = Collections.emptySet();
-      qualifiersSize = 0;
     } else {
       qualifiers = Collections.unmodifiableSet(qualifiers);
-      qualifiersSize = qualifiers.size();
     }
+    return this.getValue(this.sourcesFunction.apply(name, qualifiers), name, qualifiers);
+  }
+
+  final Value getValue(final Set<? extends Source> sources,
+                       final String name,
+                       final Set<Annotation> qualifiers) {
+    assert name != null;
+    assert qualifiers != null;
+    final int qualifiersSize = qualifiers.size();
 
     // The candidate for returning.
     Value selectedValue = null;
@@ -2432,7 +3664,6 @@ public class Settings extends Source {
     // Bad values.
     Collection<Value> badValues = null;
 
-    final Set<? extends Source> sources = this.sourcesFunction.apply(name, qualifiers);
     if (sources != null) {
       for (final Source source : sources) {
         if (source != null && source != this) {
@@ -2666,8 +3897,26 @@ public class Settings extends Source {
    * {@linkplain PropertyDescriptor#getWriteMethod() affiliated write
    * methods} to set the corresponding values.
    *
-   * <p>This implementation calls the {@link #configure(Object,
-   * Iterable, String, Set)} method with sensible defaults.</p>
+   * <p>This implementation behaves as if it called the {@link
+   * #configure(Object, Iterable, String, Set)} method with sensible
+   * defaults.  The supplied {@code object}'s class is introspected
+   * only once per {@link Settings} instance; the resulting setting
+   * names, {@link Converter}s, default values and write methods are
+   * cached and reused.  Non-{@code final} instance fields annotated
+   * with {@link Setting} and not otherwise injected are also set.
+   * A property or field whose type has no {@link Converter} but is a
+   * public class with a public zero-argument constructor is
+   * configured recursively, using its setting name followed by a
+   * period as a prefix; one whose type is a {@link java.util.List} or
+   * {@link Collection} of such a class, or a {@link Map} of {@link
+   * String} keys to such a class, receives one element for each key
+   * in the comma-separated value of its own setting, each configured
+   * using its setting name, a period, the key and a period as a
+   * prefix.</p>
+   *
+   * <p>If a {@link Configurator} has been generated for the supplied
+   * {@code object}'s class, it is used instead, and no introspection
+   * occurs.</p>
    *
    * @param object the {@link Object} to configure; must not be {@code null}
    *
@@ -2725,10 +3974,7 @@ public class Settings extends Source {
    */
   public final void configure(final Object object)
     throws IntrospectionException, ReflectiveOperationException {
-    this.configure(object,
-                   Arrays.asList(Introspector.getBeanInfo(object.getClass()).getPropertyDescriptors()),
-                   null,
-                   this.qualifiers);
+    this.getConfigurator(object.getClass()).configure(this, object, null, this.getDefaultQualifiers());
   }
 
   /**
@@ -2738,8 +3984,26 @@ public class Settings extends Source {
    * {@linkplain PropertyDescriptor#getWriteMethod() affiliated write
    * methods} to set the corresponding values.
    *
-   * <p>This implementation calls the {@link #configure(Object,
-   * Iterable, String, Set)} method with sensible defaults.</p>
+   * <p>This implementation behaves as if it called the {@link
+   * #configure(Object, Iterable, String, Set)} method with sensible
+   * defaults.  The supplied {@code object}'s class is introspected
+   * only once per {@link Settings} instance; the resulting setting
+   * names, {@link Converter}s, default values and write methods are
+   * cached and reused.  Non-{@code final} instance fields annotated
+   * with {@link Setting} and not otherwise injected are also set.
+   * A property or field whose type has no {@link Converter} but is a
+   * public class with a public zero-argument constructor is
+   * configured recursively, using its setting name followed by a
+   * period as a prefix; one whose type is a {@link java.util.List} or
+   * {@link Collection} of such a class, or a {@link Map} of {@link
+   * String} keys to such a class, receives one element for each key
+   * in the comma-separated value of its own setting, each configured
+   * using its setting name, a period, the key and a period as a
+   * prefix.</p>
+   *
+   * <p>If a {@link Configurator} has been generated for the supplied
+   * {@code object}'s class, it is used instead, and no introspection
+   * occurs.</p>
    *
    * @param object the {@link Object} to configure; must not be {@code null}
    *
@@ -2805,10 +4069,7 @@ public class Settings extends Source {
   public final void configure(final Object object,
                               final String prefix)
     throws IntrospectionException, ReflectiveOperationException {
-    this.configure(object,
-                   Arrays.asList(Introspector.getBeanInfo(object.getClass()).getPropertyDescriptors()),
-                   prefix,
-                   this.qualifiers);
+    this.getConfigurator(object.getClass()).configure(this, object, prefix, this.getDefaultQualifiers());
   }
 
   /**
@@ -2818,8 +4079,26 @@ public class Settings extends Source {
    * {@linkplain PropertyDescriptor#getWriteMethod() affiliated write
    * methods} to set the corresponding values.
    *
-   * <p>This implementation calls the {@link #configure(Object,
-   * Iterable, String, Set)} method with sensible defaults.</p>
+   * <p>This implementation behaves as if it called the {@link
+   * #configure(Object, Iterable, String, Set)} method with sensible
+   * defaults.  The supplied {@code object}'s class is introspected
+   * only once per {@link Settings} instance; the resulting setting
+   * names, {@link Converter}s, default values and write methods are
+   * cached and reused.  Non-{@code final} instance fields annotated
+   * with {@link Setting} and not otherwise injected are also set.
+   * A property or field whose type has no {@link Converter} but is a
+   * public class with a public zero-argument constructor is
+   * configured recursively, using its setting name followed by a
+   * period as a prefix; one whose type is a {@link java.util.List} or
+   * {@link Collection} of such a class, or a {@link Map} of {@link
+   * String} keys to such a class, receives one element for each key
+   * in the comma-separated value of its own setting, each configured
+   * using its setting name, a period, the key and a period as a
+   * prefix.</p>
+   *
+   * <p>If a {@link Configurator} has been generated for the supplied
+   * {@code object}'s class, it is used instead, and no introspection
+   * occurs.</p>
    *
    * @param object the {@link Object} to configure; must not be {@code null}
    *
@@ -2883,10 +4162,7 @@ public class Settings extends Source {
   public final void configure(final Object object,
                               final Set<Annotation> qualifiers)
     throws IntrospectionException, ReflectiveOperationException {
-    this.configure(object,
-                   Arrays.asList(Introspector.getBeanInfo(object.getClass()).getPropertyDescriptors()),
-                   null,
-                   qualifiers);
+    this.getConfigurator(object.getClass()).configure(this, object, null, qualifiers);
   }
 
   /**
@@ -2896,8 +4172,26 @@ public class Settings extends Source {
    * {@linkplain PropertyDescriptor#getWriteMethod() affiliated write
    * methods} to set the corresponding values.
    *
-   * <p>This implementation calls the {@link #configure(Object,
-   * Iterable, String, Set)} method with sensible defaults.</p>
+   * <p>This implementation behaves as if it called the {@link
+   * #configure(Object, Iterable, String, Set)} method with sensible
+   * defaults.  The supplied {@code object}'s class is introspected
+   * only once per {@link Settings} instance; the resulting setting
+   * names, {@link Converter}s, default values and write methods are
+   * cached and reused.  Non-{@code final} instance fields annotated
+   * with {@link Setting} and not otherwise injected are also set.
+   * A property or field whose type has no {@link Converter} but is a
+   * public class with a public zero-argument constructor is
+   * configured recursively, using its setting name followed by a
+   * period as a prefix; one whose type is a {@link java.util.List} or
+   * {@link Collection} of such a class, or a {@link Map} of {@link
+   * String} keys to such a class, receives one element for each key
+   * in the comma-separated value of its own setting, each configured
+   * using its setting name, a period, the key and a period as a
+   * prefix.</p>
+   *
+   * <p>If a {@link Configurator} has been generated for the supplied
+   * {@code object}'s class, it is used instead, and no introspection
+   * occurs.</p>
    *
    * @param object the {@link Object} to configure; must not be {@code null}
    *
@@ -2969,10 +4263,7 @@ public class Settings extends Source {
                               final String prefix,
                               final Set<Annotation> qualifiers)
     throws IntrospectionException, ReflectiveOperationException {
-    this.configure(object,
-                   Arrays.asList(Introspector.getBeanInfo(object.getClass()).getPropertyDescriptors()),
-                   prefix,
-                   qualifiers);
+    this.getConfigurator(object.getClass()).configure(this, object, prefix, qualifiers);
   }
 
   /**
@@ -3046,7 +4337,7 @@ public class Settings extends Source {
     this.configure(object,
                    Arrays.asList(beanInfo.getPropertyDescriptors()),
                    null,
-                   this.qualifiers);
+                   this.getDefaultQualifiers());
   }
 
   /**
@@ -3128,7 +4419,7 @@ public class Settings extends Source {
     this.configure(object,
                    Arrays.asList(beanInfo.getPropertyDescriptors()),
                    prefix,
-                   this.qualifiers);
+                   this.getDefaultQualifiers());
   }
 
   /**
@@ -3369,7 +4660,7 @@ public class Settings extends Source {
     this.configure(object,
                    propertyDescriptors,
                    null,
-                   this.qualifiers);
+                   this.getDefaultQualifiers());
   }
 
    /**
@@ -3450,7 +4741,7 @@ public class Settings extends Source {
     this.configure(object,
                    propertyDescriptors,
                    prefix,
-                   this.qualifiers);
+                   this.getDefaultQualifiers());
   }
 
   /**
@@ -3496,9 +4787,10 @@ public class Settings extends Source {
    * the value of that attribute is {@code null} or not a {@link
    * String} (very common) then no default value will be used.</li>
    *
-   * <li>The {@link #get(String, Set, Converter, BiFunction)} method
-   * is called.  If the method throws a {@link
-   * NoSuchElementException}, then processing stops.</li>
+   * <li>A value is acquired as if by the {@link #get(String, Set,
+   * Converter, BiFunction)} method.  If there is no value and no
+   * default value, then processing stops.  No {@link
+   * NoSuchElementException} is created in this case.</li>
    *
    * <li>The return value from the previous step is passed to an
    * invocation of the {@link PropertyDescriptor}'s {@linkplain
@@ -3518,122 +4810,585 @@ public class Settings extends Source {
    * PropertyDescriptor}s; must not be {@code null}
    *
    * @param prefix a {@link String} that will be prepended to each
-   * {@linkplain PropertyDescriptor#getName()
-   * <code>PropertyDescriptor</code> name} before using the result as
-   * the name of a setting for which a value {@linkplain #get(String,
-   * Set, Converter, BiFunction) will be acquired}; may be {@code
-   * null}
+   * {@linkplain PropertyDescriptor#getName()
+   * <code>PropertyDescriptor</code> name} before using the result as
+   * the name of a setting for which a value {@linkplain #get(String,
+   * Set, Converter, BiFunction) will be acquired}; may be {@code
+   * null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of values; may be {@code null}; if
+   * non-{@code null} then this parameter value must be safe for
+   * concurrent iteration by multiple threads
+   *
+   * @exception NullPointerException if either {@code object} or {@code
+   * propertyDescriptors} is {@code null}
+   *
+   * @exception ReflectiveOperationException if there was a problem
+   * invoking a {@linkplain PropertyDescriptor#getWriteMethod() write
+   * method}; the supplied {@link Object} may, in this case, be left
+   * in an inconsistent state
+   *
+   * @exception IllegalArgumentException if {@linkplain
+   * Converter#convert(Value) conversion} could not occur for any
+   * reason; see {@link Converter#convert(Value)}; the supplied {@link
+   * Object} may, in this case, be left in an inconsistent state
+   *
+   * @exception ConversionException if {@linkplain
+   * Converter#convert(Value) conversion} could not occur for any
+   * reason other than bad inputs; the supplied {@link Object} may, in
+   * this case, be left in an inconsistent state
+   *
+   * @exception ValueAcquisitionException if there was a procedural
+   * problem acquiring a value; the supplied {@link Object} may, in
+   * this case, be left in an inconsistent state
+   *
+   * @exception ArbitrationException if there was a problem performing
+   * value arbitration; the supplied {@link Object} may, in this case,
+   * be left in an inconsistent state
+   *
+   * @exception AmbiguousValuesException if arbitration completed but
+   * could not resolve an ambiguity between potential return values;
+   * the supplied {@link Object} may, in this case, be left in an
+   * inconsistent state
+   *
+   * @exception MalformedValuesException if the {@link
+   * #handleMalformedValues(String, Set, Collection)} method was
+   * overridden and the override throws a {@link
+   * MalformedValuesException}; the supplied {@link Object} may, in
+   * this case, be left in an inconsistent state
+   *
+   * @exception ELException if there was an error related to
+   * expression language parsing or evaluation; the supplied {@link
+   * Object} may, in this case, be left in an inconsistent state
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @idempotency No guarantees are made with respect to the
+   * idempotency of this method.
+   */
+  public final void configure(final Object object,
+                              final Iterable<? extends PropertyDescriptor> propertyDescriptors,
+                              final String prefix,
+                              final Set<Annotation> qualifiers)
+    throws ReflectiveOperationException {
+    Objects.requireNonNull(object);
+    Objects.requireNonNull(propertyDescriptors);
+    for (final PropertyDescriptor pd : propertyDescriptors) {
+      if (pd != null) {
+        final String name = pd.getName();
+        if (name != null) {
+          final Method writeMethod = pd.getWriteMethod();
+          if (writeMethod != null) {
+
+            final String settingName;
+            if (prefix == null) {
+              settingName = name;
+            } else {
+              settingName = new StringBuilder(prefix).append(name).toString();
+            }
+
+            final Type type;
+            final Object typeObject = pd.getValue("propertyType");
+            if (typeObject instanceof Type) {
+              type = (Type)typeObject;
+            } else if (typeObject instanceof TypeLiteral) {
+              type = ((TypeLiteral<?>)typeObject).getType();
+            } else {
+              type = pd.getPropertyType();
+            }
+            assert type != null;
+
+            final Converter<?> converter;
+            final PropertyEditor propertyEditor = pd.createPropertyEditor(object);
+            if (propertyEditor != null && type instanceof Class) {
+              converter = new PropertyEditorConverter<Object>((Class<?>)type, propertyEditor);
+            } else {
+              converter = this.converterProvider.getConverter(type);
+            }
+
+            final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction;
+            final Object defaultValue = pd.getValue("defaultValue");
+            if (defaultValue instanceof String) {
+              defaultValueFunction = (n, qs) -> (String)defaultValue;
+            } else {
+              defaultValueFunction = null;
+            }
+
+            final Object value = this.getOrAbsent(settingName, qualifiers, converter, defaultValueFunction);
+            if (value != ABSENT) {
+              writeMethod.invoke(object, value);
+            }
+
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates and returns a new instance of the supplied {@code type}
+   * by invoking one of its constructors with <a
+   * href="{@docRoot}/overview-summary.html#setting_value">setting
+   * values</a> named after its parameters.
+   *
+   * <p>This implementation calls the {@link #bind(Class, String,
+   * Set)} method with sensible defaults.</p>
+   *
+   * @param <R> the type of object to create
+   *
+   * @param type the {@link Class} of the object to create; must not
+   * be {@code null}
+   *
+   * @return a new instance of the supplied {@code type}; never {@code
+   * null}
+   *
+   * @exception NullPointerException if {@code type} is {@code null}
+   *
+   * @exception ReflectiveOperationException if a suitable constructor
+   * could not be found or invoked
+   *
+   * @exception IllegalArgumentException if a suitable {@link
+   * Converter} could not be found for a constructor parameter, if a
+   * constructor parameter's name could not be determined, or if
+   * {@linkplain Converter#convert(Value) conversion} could not occur
+   * for any reason
+   *
+   * @exception NoSuchElementException if a constructor parameter
+   * annotated with a {@link Setting} annotation whose {@link
+   * Setting#required() required} element is {@code true} had no
+   * value
+   *
+   * @exception ValueAcquisitionException if there was a procedural
+   * problem acquiring a value
+   *
+   * @exception ArbitrationException if there was a problem performing
+   * value arbitration
+   *
+   * @exception AmbiguousValuesException if arbitration completed but
+   * could not resolve an ambiguity between potential return values
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent: each invocation
+   * creates a new object.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #bind(Class, String, Set)
+   */
+  public final <R> R bind(final Class<R> type) throws ReflectiveOperationException {
+    return this.bind(type, null, this.getDefaultQualifiers());
+  }
+
+  /**
+   * Creates and returns a new instance of the supplied {@code type}
+   * by invoking one of its constructors with <a
+   * href="{@docRoot}/overview-summary.html#setting_value">setting
+   * values</a> named after its parameters.
+   *
+   * <p>This implementation calls the {@link #bind(Class, String,
+   * Set)} method with sensible defaults.</p>
+   *
+   * @param <R> the type of object to create
+   *
+   * @param type the {@link Class} of the object to create; must not
+   * be {@code null}
+   *
+   * @param prefix a {@link String} that will be prepended to each
+   * parameter name before using the result as the name of a setting;
+   * may be {@code null}
+   *
+   * @return a new instance of the supplied {@code type}; never {@code
+   * null}
+   *
+   * @exception NullPointerException if {@code type} is {@code null}
+   *
+   * @exception ReflectiveOperationException if a suitable constructor
+   * could not be found or invoked
+   *
+   * @exception IllegalArgumentException if a suitable {@link
+   * Converter} could not be found for a constructor parameter, if a
+   * constructor parameter's name could not be determined, or if
+   * {@linkplain Converter#convert(Value) conversion} could not occur
+   * for any reason
+   *
+   * @exception NoSuchElementException if a constructor parameter
+   * annotated with a {@link Setting} annotation whose {@link
+   * Setting#required() required} element is {@code true} had no
+   * value
+   *
+   * @exception ValueAcquisitionException if there was a procedural
+   * problem acquiring a value
+   *
+   * @exception ArbitrationException if there was a problem performing
+   * value arbitration
+   *
+   * @exception AmbiguousValuesException if arbitration completed but
+   * could not resolve an ambiguity between potential return values
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent: each invocation
+   * creates a new object.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #bind(Class, String, Set)
+   */
+  public final <R> R bind(final Class<R> type, final String prefix) throws ReflectiveOperationException {
+    return this.bind(type, prefix, this.getDefaultQualifiers());
+  }
+
+  /**
+   * Creates and returns a new instance of the supplied {@code type}
+   * by invoking one of its constructors with <a
+   * href="{@docRoot}/overview-summary.html#setting_value">setting
+   * values</a> named after its parameters.
+   *
+   * <p>This method is the counterpart of the {@link
+   * #configure(Object, String, Set)} method for immutable objects,
+   * including records, whose state can only be supplied at
+   * construction time.</p>
+   *
+   * <p>The constructor invoked is, in order of preference, the sole
+   * public constructor annotated with {@link
+   * java.beans.ConstructorProperties}, the sole public constructor,
+   * or the public constructor with the most parameters (for a
+   * record, its canonical constructor).  The setting name for a
+   * given parameter is the supplied {@code prefix} followed by, in
+   * order of preference, the {@linkplain Setting#name() name} of a
+   * {@link Setting} annotation on the parameter, the corresponding
+   * element of the {@link java.beans.ConstructorProperties}
+   * annotation, or the name of the parameter itself (which requires
+   * that the class be compiled with {@code javac}'s {@code
+   * -parameters} option).  A {@link Setting} annotation on a
+   * parameter may also supply a {@linkplain Setting#defaultValue()
+   * default value} or mark the parameter as {@linkplain
+   * Setting#required() required}.</p>
+   *
+   * <p>All values are acquired before the constructor is invoked.  A
+   * parameter whose setting has no value receives {@code null}, or
+   * the zero value of its type if that type is primitive.</p>
+   *
+   * <p>The supplied {@code type} is introspected only once per
+   * {@link Settings} instance; the resulting setting names, {@link
+   * Converter}s, default values and constructor are cached and
+   * reused.</p>
+   *
+   * @param <R> the type of object to create
+   *
+   * @param type the {@link Class} of the object to create; must not
+   * be {@code null}
+   *
+   * @param prefix a {@link String} that will be prepended to each
+   * parameter name before using the result as the name of a setting;
+   * may be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s to further
+   * qualify the selection of values; may be {@code null}; if
+   * non-{@code null} then this parameter value must be safe for
+   * concurrent iteration by multiple threads
+   *
+   * @return a new instance of the supplied {@code type}; never {@code
+   * null}
+   *
+   * @exception NullPointerException if {@code type} is {@code null}
+   *
+   * @exception ReflectiveOperationException if a suitable constructor
+   * could not be found or invoked
+   *
+   * @exception IllegalArgumentException if a suitable {@link
+   * Converter} could not be found for a constructor parameter, if a
+   * constructor parameter's name could not be determined, or if
+   * {@linkplain Converter#convert(Value) conversion} could not occur
+   * for any reason
+   *
+   * @exception NoSuchElementException if a constructor parameter
+   * annotated with a {@link Setting} annotation whose {@link
+   * Setting#required() required} element is {@code true} had no
+   * value
+   *
+   * @exception ValueAcquisitionException if there was a procedural
+   * problem acquiring a value
+   *
+   * @exception ArbitrationException if there was a problem performing
+   * value arbitration
+   *
+   * @exception AmbiguousValuesException if arbitration completed but
+   * could not resolve an ambiguity between potential return values
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent: each invocation
+   * creates a new object.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #configure(Object, String, Set)
+   */
+  public final <R> R bind(final Class<R> type, final String prefix, final Set<Annotation> qualifiers)
+    throws ReflectiveOperationException {
+    return this.getBinder(type).bind(this, prefix, qualifiers);
+  }
+
+  /**
+   * Returns a new implementation of the supplied interface whose
+   * methods return <a
+   * href="{@docRoot}/overview-summary.html#setting_value">setting
+   * values</a> named after them.
+   *
+   * <p>This implementation calls the {@link #proxy(Class, String,
+   * Set)} method with sensible defaults.</p>
+   *
+   * @param <I> the interface type
+   *
+   * @param type the interface to implement; must not be {@code null}
+   *
+   * @return a new implementation of the supplied interface; never
+   * {@code null}
+   *
+   * @exception NullPointerException if {@code type} is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code type} is not an
+   * interface, if it declares a method that is not a suitable getter,
+   * or if a suitable {@link Converter} could not be found for a
+   * method's return type
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent: each invocation
+   * creates a new proxy.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #proxy(Class, String, Set)
+   */
+  public final <I> I proxy(final Class<I> type) {
+    return this.proxy(type, null, this.getDefaultQualifiers());
+  }
+
+  /**
+   * Returns a new implementation of the supplied interface whose
+   * methods return <a
+   * href="{@docRoot}/overview-summary.html#setting_value">setting
+   * values</a> named after them.
+   *
+   * <p>This implementation calls the {@link #proxy(Class, String,
+   * Set)} method with sensible defaults.</p>
+   *
+   * @param <I> the interface type
+   *
+   * @param type the interface to implement; must not be {@code null}
+   *
+   * @param prefix a {@link String} that will be prepended to each
+   * name derived from a method before using the result as the name
+   * of a setting; may be {@code null}
+   *
+   * @return a new implementation of the supplied interface; never
+   * {@code null}
+   *
+   * @exception NullPointerException if {@code type} is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code type} is not an
+   * interface, if it declares a method that is not a suitable getter,
+   * or if a suitable {@link Converter} could not be found for a
+   * method's return type
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent: each invocation
+   * creates a new proxy.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #proxy(Class, String, Set)
+   */
+  public final <I> I proxy(final Class<I> type, final String prefix) {
+    return this.proxy(type, prefix, this.getDefaultQualifiers());
+  }
+
+  /**
+   * Returns a new implementation of the supplied interface whose
+   * methods return <a
+   * href="{@docRoot}/overview-summary.html#setting_value">setting
+   * values</a> named after them.
+   *
+   * <p>Every method of the supplied interface must be abstract, take
+   * no parameters and return a value.  The setting name for a given
+   * method is the supplied {@code prefix} followed by, in order of
+   * preference, the {@linkplain Setting#name() name} of a {@link
+   * Setting} annotation on the method, the decapitalized remainder
+   * of a method name beginning with {@code get} (or, for methods
+   * returning {@code boolean}, {@code is}), or the method name
+   * itself.  A {@link Setting} annotation on a method may also supply
+   * a {@linkplain Setting#defaultValue() default value} or mark the
+   * setting as {@linkplain Setting#required() required}.</p>
+   *
+   * <p>Each method acquires and converts its value on first
+   * invocation and thereafter returns the converted value directly,
+   * until the setting is {@linkplain #invalidate(String, Set)
+   * invalidated}, at which point the next invocation acquires it
+   * again.  A method whose setting has no value returns {@code null},
+   * or the zero value of its return type if that type is
+   * primitive.</p>
+   *
+   * <p>The returned object remains registered with this {@link
+   * Settings} until it is {@linkplain #releaseProxy(Object)
+   * released}, so it should be created once and shared.  The supplied
+   * {@code type} is introspected only once per {@link Settings}
+   * instance.</p>
+   *
+   * <p>The returned object is a {@link java.lang.reflect.Proxy}.</p>
+   *
+   * @param <I> the interface type
+   *
+   * @param type the interface to implement; must not be {@code null}
+   *
+   * @param prefix a {@link String} that will be prepended to each
+   * name derived from a method before using the result as the name
+   * of a setting; may be {@code null}
    *
    * @param qualifiers a {@link Set} of {@link Annotation}s to further
-   * qualify the selection of values; may be {@code null}; if
-   * non-{@code null} then this parameter value must be safe for
-   * concurrent iteration by multiple threads
+   * qualify the selection of values; may be {@code null}; will be
+   * copied
    *
-   * @exception NullPointerException if either {@code object} or {@code
-   * propertyDescriptors} is {@code null}
+   * @return a new implementation of the supplied interface; never
+   * {@code null}
    *
-   * @exception ReflectiveOperationException if there was a problem
-   * invoking a {@linkplain PropertyDescriptor#getWriteMethod() write
-   * method}; the supplied {@link Object} may, in this case, be left
-   * in an inconsistent state
+   * @exception NullPointerException if {@code type} is {@code null}
    *
-   * @exception IllegalArgumentException if {@linkplain
-   * Converter#convert(Value) conversion} could not occur for any
-   * reason; see {@link Converter#convert(Value)}; the supplied {@link
-   * Object} may, in this case, be left in an inconsistent state
+   * @exception IllegalArgumentException if {@code type} is not an
+   * interface, if it declares a method that is not a suitable getter,
+   * or if a suitable {@link Converter} could not be found for a
+   * method's return type
    *
-   * @exception ConversionException if {@linkplain
-   * Converter#convert(Value) conversion} could not occur for any
-   * reason other than bad inputs; the supplied {@link Object} may, in
-   * this case, be left in an inconsistent state
+   * @nullability This method never returns {@code null}.
    *
-   * @exception ValueAcquisitionException if there was a procedural
-   * problem acquiring a value; the supplied {@link Object} may, in
-   * this case, be left in an inconsistent state
+   * @idempotency This method is not idempotent: each invocation
+   * creates a new proxy.
    *
-   * @exception ArbitrationException if there was a problem performing
-   * value arbitration; the supplied {@link Object} may, in this case,
-   * be left in an inconsistent state
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
    *
-   * @exception AmbiguousValuesException if arbitration completed but
-   * could not resolve an ambiguity between potential return values;
-   * the supplied {@link Object} may, in this case, be left in an
-   * inconsistent state
+   * @see #invalidate(String, Set)
+   */
+  public final <I> I proxy(final Class<I> type, final String prefix, Set<Annotation> qualifiers) {
+    if (qualifiers == null || qualifiers.isEmpty()) {
+      qualifiers = Collections.emptySet();
+    } else {
+      qualifiers = Collections.unmodifiableSet(new LinkedHashSet<>(qualifiers));
+    }
+    @SuppressWarnings("unchecked")
+    ProxyBinder<I> proxyBinder = (ProxyBinder<I>)this.proxyBinders.get(Objects.requireNonNull(type));
+    if (proxyBinder == null) {
+      proxyBinder = ProxyBinder.of(type, this.converterProvider);
+      @SuppressWarnings("unchecked")
+      final ProxyBinder<I> existing = (ProxyBinder<I>)this.proxyBinders.putIfAbsent(type, proxyBinder);
+      if (existing != null) {
+        proxyBinder = existing;
+      }
+    }
+    return proxyBinder.proxy(this, prefix, qualifiers);
+  }
+
+  /**
+   * Unregisters the supplied proxy, which must have been created by
+   * the {@link #proxy(Class, String, Set)} method of this {@link
+   * Settings} or one of its ilk, so that it is no longer notified of
+   * invalidations and may be garbage collected.
    *
-   * @exception MalformedValuesException if the {@link
-   * #handleMalformedValues(String, Set, Collection)} method was
-   * overridden and the override throws a {@link
-   * MalformedValuesException}; the supplied {@link Object} may, in
-   * this case, be left in an inconsistent state
+   * <p>The supplied proxy may still be used afterwards, but its
+   * methods will never again reacquire their values once they have
+   * been acquired.</p>
    *
-   * @exception ELException if there was an error related to
-   * expression language parsing or evaluation; the supplied {@link
-   * Object} may, in this case, be left in an inconsistent state
+   * @param proxy the proxy to release; may be {@code null} in which
+   * case no action will be taken; if it was not created by this
+   * {@link Settings}, no action will be taken
+   *
+   * @idempotency This method is idempotent.
    *
    * @threadsafety This method is safe for concurrent use by multiple
    * threads.
    *
-   * @idempotency No guarantees are made with respect to the
-   * idempotency of this method.
+   * @see #proxy(Class, String, Set)
    */
-  public final void configure(final Object object,
-                              final Iterable<? extends PropertyDescriptor> propertyDescriptors,
-                              final String prefix,
-                              final Set<Annotation> qualifiers)
-    throws ReflectiveOperationException {
-    Objects.requireNonNull(object);
-    Objects.requireNonNull(propertyDescriptors);
-    for (final PropertyDescriptor pd : propertyDescriptors) {
-      if (pd != null) {
-        final String name = pd.getName();
-        if (name != null) {
-          final Method writeMethod = pd.getWriteMethod();
-          if (writeMethod != null) {
-
-            final String settingName;
-            if (prefix == null) {
-              settingName = name;
-            } else {
-              settingName = new StringBuilder(prefix).append(name).toString();
-            }
+  public final void releaseProxy(final Object proxy) {
+    ProxyBinder.release(this, proxy);
+  }
 
-            final Type type;
-            final Object typeObject = pd.getValue("propertyType");
-            if (typeObject instanceof Type) {
-              type = (Type)typeObject;
-            } else if (typeObject instanceof TypeLiteral) {
-              type = ((TypeLiteral<?>)typeObject).getType();
-            } else {
-              type = pd.getPropertyType();
-            }
-            assert type != null;
+  private final <R> ConstructorBinder<R> getBinder(final Class<R> c) throws ReflectiveOperationException {
+    @SuppressWarnings("unchecked")
+    ConstructorBinder<R> returnValue = (ConstructorBinder<R>)this.binders.get(Objects.requireNonNull(c));
+    if (returnValue == null) {
+      returnValue = ConstructorBinder.of(c, this.converterProvider);
+      @SuppressWarnings("unchecked")
+      final ConstructorBinder<R> existing = (ConstructorBinder<R>)this.binders.putIfAbsent(c, returnValue);
+      if (existing != null) {
+        returnValue = existing;
+      }
+    }
+    return returnValue;
+  }
 
-            final Converter<?> converter;
-            final PropertyEditor propertyEditor = pd.createPropertyEditor(object);
-            if (propertyEditor != null && type instanceof Class) {
-              converter = new PropertyEditorConverter<Object>((Class<?>)type, propertyEditor);
-            } else {
-              converter = this.converterProvider.getConverter(type);
-            }
+  final Configurator<Object> getConfigurator(final Class<?> c) throws IntrospectionException, IllegalAccessException {
+    @SuppressWarnings("unchecked")
+    Configurator<Object> returnValue = (Configurator<Object>)this.configurators.get(c);
+    if (returnValue == null) {
+      returnValue = getGeneratedConfigurator(c);
+      if (returnValue == null) {
+        returnValue = BeanConfigurator.of(c, this.converterProvider);
+      }
+      @SuppressWarnings("unchecked")
+      final Configurator<Object> existing = (Configurator<Object>)this.configurators.putIfAbsent(c, returnValue);
+      if (existing != null) {
+        returnValue = existing;
+      }
+    }
+    return returnValue;
+  }
 
-            final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction;
-            final Object defaultValue = pd.getValue("defaultValue");
-            if (defaultValue instanceof String) {
-              defaultValueFunction = (n, qs) -> (String)defaultValue;
-            } else {
-              defaultValueFunction = null;
-            }
+  private static final Configurator<Object> getGeneratedConfigurator(final Class<?> c) {
+    final Class<?> configuratorClass;
+    try {
+      configuratorClass =
+        Class.forName(Configurator.getGeneratedClassName(c.getName()), true, c.getClassLoader());
+    } catch (final ClassNotFoundException classNotFoundException) {
+      return null;
+    }
+    if (!configures(configuratorClass, c)) {
+      return null;
+    }
+    try {
+      @SuppressWarnings("unchecked")
+      final Configurator<Object> returnValue = (Configurator<Object>)configuratorClass.getConstructor().newInstance();
+      return returnValue;
+    } catch (final ReflectiveOperationException reflectiveOperationException) {
+      // Fall back on introspection.
+      return null;
+    }
+  }
 
-            try {
-              writeMethod.invoke(object, this.get(settingName, qualifiers, converter, defaultValueFunction));
-            } catch (final NoSuchElementException noSuchElementException) {
-              // That's fine
-            }
 
-          }
+  // Whether configuratorClass directly implements Configurator<c>, as
+  // a generated Configurator does; a class that merely happens to
+  // bear the generated name of c's Configurator is not used.
+  private static final boolean configures(final Class<?> configuratorClass, final Class<?> c) {
+    for (final Type type : configuratorClass.getGenericInterfaces()) {
+      if (type instanceof ParameterizedType) {
+        final ParameterizedType parameterizedType = (ParameterizedType)type;
+        if (parameterizedType.getRawType() == Configurator.class) {
+          return parameterizedType.getActualTypeArguments()[0] == c;
         }
       }
     }
+    return false;
   }
 
   //----------------------------------------------------------------------------
@@ -3645,11 +5400,12 @@ public class Settings extends Source {
    * {@link Value} to be used instead (normally drawn from the {@link
    * Collection} according to some heuristic).
    *
-   * <p>This implementation {@linkplain Iterable#iterator() iterates}
-   * over the {@link Arbiter} instances {@linkplain #Settings(Set,
-   * BiFunction, ConverterProvider, Iterable) supplied at construction
-   * time} and asks each in turn to {@linkplain Arbiter#arbitrate(Set,
-   * String, Set, Collection) perform value arbitration}.  The first
+   * <p>This implementation iterates over the {@link Arbiter}
+   * instances {@linkplain #Settings(Set, BiFunction,
+   * ConverterProvider, Iterable) supplied at construction time}, as
+   * most recently {@linkplain #refreshArbiters() materialized}, and
+   * asks each in turn to {@linkplain Arbiter#arbitrate(Set, String,
+   * Set, Collection) perform value arbitration}.  The first
    * non-{@code null} value from an {@link Arbiter} is used as the
    * return value from this method; otherwise {@code null} is
    * returned.</p>
@@ -3696,25 +5452,61 @@ public class Settings extends Source {
                             final String name,
                             final Set<Annotation> qualifiers,
                             final Collection<? extends Value> values) {
-    final Value returnValue;
-    Value temp = null;
-    final Iterable<? extends Arbiter> arbiters = this.arbiters;
-    if (arbiters == null) {
-      returnValue = null;
-    } else {
-      for (final Arbiter arbiter : arbiters) {
-        if (arbiter != null) {
-          temp = arbiter.arbitrate(sources, name, qualifiers, values);
-          if (temp != null) {
-            break;
-          }
-        }
+    if (this.root != this) {
+      return this.root.arbitrate(sources, name, qualifiers, values);
+    }
+    Value returnValue = null;
+    Arbiter[] arbiterChain = this.arbiterChain.get();
+    if (arbiterChain == null) {
+      arbiterChain = this.materializeArbiters();
+    }
+    for (final Arbiter arbiter : arbiterChain) {
+      returnValue = arbiter.arbitrate(sources, name, qualifiers, values);
+      if (returnValue != null) {
+        break;
       }
-      returnValue = temp;
     }
     return returnValue;
   }
 
+  /**
+   * Causes the {@link Iterable} of {@link Arbiter}s {@linkplain
+   * #Settings(Set, BiFunction, ConverterProvider, Iterable) supplied
+   * at construction time} to be iterated over again, and the {@link
+   * Arbiter}s it yields to be used in all subsequent {@linkplain
+   * #arbitrate(Set, String, Set, Collection) value arbitration}.
+   *
+   * <p>{@link Arbiter}s are otherwise iterated over only once, when
+   * value arbitration first occurs, and the result is reused.  Call
+   * this method if the contents of that {@link Iterable} may have
+   * changed, for example because the set of {@link Arbiter} beans
+   * available in a CDI container has changed.</p>
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @idempotency This method is idempotent provided that the
+   * contents of the {@link Iterable} of {@link Arbiter}s supplied at
+   * construction time have not changed.
+   *
+   * @see #arbitrate(Set, String, Set, Collection)
+   */
+  public final void refreshArbiters() {
+    this.materializeArbiters();
+  }
+
+  private final Arbiter[] materializeArbiters() {
+    final List<Arbiter> arbiterList = new ArrayList<>();
+    for (final Arbiter arbiter : this.arbiters) {
+      if (arbiter != null) {
+        arbiterList.add(arbiter);
+      }
+    }
+    final Arbiter[] returnValue = arbiterList.toArray(new Arbiter[arbiterList.size()]);
+    this.arbiterChain.set(returnValue);
+    return returnValue;
+  }
+
   /**
    * Given a {@link Source}, a name of a setting and a (possibly
    * {@code null}) {@link Set} of qualifying {@link Annotation}s,
@@ -3764,6 +5556,8 @@ public class Settings extends Source {
     final Value returnValue;
     if (source == this) {
       returnValue = null;
+    } else if (this.root != this) {
+      returnValue = this.root.getValue(source, name, qualifiers);
     } else {
       returnValue = source.getValue(name, qualifiers);
     }
@@ -3822,31 +5616,231 @@ public class Settings extends Source {
    * @see Value
    */
   protected void handleMalformedValues(final String name, final Set<Annotation> qualifiers, final Collection<? extends Value> badValues) {
-
+    if (this.root != this) {
+      this.root.handleMalformedValues(name, qualifiers, badValues);
+    }
   }
 
-  private final String interpolate(final String value,
-                                   final ELContext elContext,
-                                   final ExpressionFactory expressionFactory,
-                                   final Set<Annotation> qualifiers) {
-    Objects.requireNonNull(elContext);
-    Objects.requireNonNull(expressionFactory);
-    final String returnValue;
-    if (value == null) {
-      returnValue = null;
-    } else {
-      String temp = null;
-      try {
-        final ValueExpression valueExpression = expressionFactory.createValueExpression(elContext, value, String.class);
-        assert valueExpression != null;
-        temp = String.class.cast(valueExpression.getValue(elContext));
-      } finally {
-        returnValue = temp;
+  /**
+   * Notifies this {@link Settings} that the value of the <a
+   * href="{@docRoot}/overview-summary.html#setting_name">setting</a>
+   * identified by the supplied {@code name} and {@code qualifiers}
+   * may have changed, and notifies the {@linkplain
+   * #addInvalidationListener(String, BiConsumer) invalidation
+   * listeners registered for the name} of every setting whose value
+   * is affected as a result, as well as those {@linkplain
+   * #addInvalidationListener(BiConsumer) registered for all names}.
+   *
+   * <p>While <a
+   * href="{@docRoot}/overview-summary.html#interpolation">interpolating</a>
+   * values, this {@link Settings} records which settings' values
+   * referred to which other settings.  A setting is affected by an
+   * invocation of this method if it is the setting identified by the
+   * supplied {@code name} and {@code qualifiers}, if it has the
+   * supplied {@code name} and was acquired with qualifiers that
+   * {@linkplain Set#containsAll(Collection) include} the supplied
+   * {@code qualifiers}, or if its value was interpolated, directly or
+   * transitively, from an affected setting.  Settings that do not
+   * depend on the named setting are not affected, so the work done
+   * by this method and by listeners is proportional to the size of
+   * the change, not to the number of settings.</p>
+   *
+   * <p>Each affected setting is reported exactly once per invocation
+   * of this method.  Its recorded references are discarded, and will
+   * be recorded again the next time its value is acquired.</p>
+   *
+   * @param name the name of the setting whose value may have
+   * changed; must not be {@code null}
+   *
+   * @param qualifiers a {@link Set} of {@link Annotation}s
+   * qualifying the setting whose value may have changed; may be
+   * {@code null} in which case all settings with the supplied {@code
+   * name} are affected
+   *
+   * @exception NullPointerException if {@code name} is {@code null}
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @idempotency This method is idempotent with respect to this
+   * {@link Settings}' state, but invokes listeners each time it is
+   * called.
+   *
+   * @see #addInvalidationListener(BiConsumer)
+   */
+  public final void invalidate(final String name, final Set<Annotation> qualifiers) {
+    final Key key = new Key(name, qualifiers);
+    final Set<Key> affectedKeys = new LinkedHashSet<>();
+    affectedKeys.add(key);
+    final Queue<Key> queue = new ArrayDeque<>();
+    queue.add(key);
+    while (!queue.isEmpty()) {
+      final Key affectedKey = queue.remove();
+      final Set<Key> dependents = this.dependents.get(affectedKey.getName());
+      if (dependents != null) {
+        for (final Key dependent : dependents) {
+          // References are always resolved using the qualifiers of
+          // the referring setting.  The first hop honors the caller's
+          // (possibly partial) qualifiers; later hops must match
+          // exactly.
+          final boolean matches;
+          if (affectedKey == key) {
+            matches = dependent.getQualifiers().containsAll(key.getQualifiers());
+          } else {
+            matches = dependent.getQualifiers().equals(affectedKey.getQualifiers());
+          }
+          if (matches && affectedKeys.add(dependent)) {
+            queue.add(dependent);
+          }
+        }
       }
     }
-    return returnValue;
+    for (final Key affectedKey : affectedKeys) {
+      final Set<String> dependencyNames = this.dependencies.remove(affectedKey);
+      if (dependencyNames != null) {
+        for (final String dependencyName : dependencyNames) {
+          final Set<Key> dependents = this.dependents.get(dependencyName);
+          if (dependents != null) {
+            dependents.remove(affectedKey);
+          }
+        }
+      }
+    }
+    for (final Key affectedKey : affectedKeys) {
+      final String affectedName = affectedKey.getName();
+      final Set<Annotation> affectedQualifiers = affectedKey.getQualifiers();
+      final Collection<? extends BiConsumer<? super String, ? super Set<Annotation>>> namedListeners =
+        this.namedInvalidationListeners.get(affectedName);
+      if (namedListeners != null) {
+        for (final BiConsumer<? super String, ? super Set<Annotation>> listener : namedListeners) {
+          listener.accept(affectedName, affectedQualifiers);
+        }
+      }
+      for (final BiConsumer<? super String, ? super Set<Annotation>> listener : this.invalidationListeners) {
+        listener.accept(affectedName, affectedQualifiers);
+      }
+    }
+  }
+
+  /**
+   * Adds a {@link BiConsumer} that will be notified, by way of the
+   * {@link #invalidate(String, Set)} method, of the name and
+   * qualifiers of every setting whose value may have changed.
+   *
+   * @param listener the {@link BiConsumer} to add; must not be {@code
+   * null}; must be safe for concurrent use by multiple threads
+   *
+   * @exception NullPointerException if {@code listener} is {@code
+   * null}
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #invalidate(String, Set)
+   *
+   * @see #addInvalidationListener(String, BiConsumer)
+   *
+   * @see #removeInvalidationListener(BiConsumer)
+   */
+  public final void addInvalidationListener(final BiConsumer<? super String, ? super Set<Annotation>> listener) {
+    this.invalidationListeners.add(Objects.requireNonNull(listener));
+  }
+
+  /**
+   * Adds a {@link BiConsumer} that will be notified, by way of the
+   * {@link #invalidate(String, Set)} method, of the qualifiers of
+   * every setting with the supplied {@code name} whose value may have
+   * changed.
+   *
+   * <p>Listeners interested in particular settings should prefer
+   * this method to the {@link #addInvalidationListener(BiConsumer)}
+   * method, since an invalidation notifies only the listeners
+   * registered for the names of the settings it affects.</p>
+   *
+   * @param name the <a
+   * href="{@docRoot}/overview-summary.html#setting_name">name</a> of
+   * the setting of interest; must not be {@code null}
+   *
+   * @param listener the {@link BiConsumer} to add; must not be {@code
+   * null}; must be safe for concurrent use by multiple threads; will
+   * be added at most once for any given {@code name}
+   *
+   * @exception NullPointerException if {@code name} or {@code
+   * listener} is {@code null}
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #invalidate(String, Set)
+   *
+   * @see #removeInvalidationListener(String, BiConsumer)
+   */
+  public final void addInvalidationListener(final String name,
+                                            final BiConsumer<? super String, ? super Set<Annotation>> listener) {
+    Objects.requireNonNull(listener);
+    this.namedInvalidationListeners.compute(Objects.requireNonNull(name), (n, listeners) -> {
+        if (listeners == null) {
+          listeners = ConcurrentHashMap.newKeySet();
+        }
+        listeners.add(listener);
+        return listeners;
+      });
+  }
+
+  /**
+   * Removes a {@link BiConsumer} previously {@linkplain
+   * #addInvalidationListener(BiConsumer) added}.
+   *
+   * @param listener the {@link BiConsumer} to remove; may be {@code
+   * null} in which case no action will be taken
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #addInvalidationListener(BiConsumer)
+   */
+  public final void removeInvalidationListener(final BiConsumer<? super String, ? super Set<Annotation>> listener) {
+    if (listener != null) {
+      this.invalidationListeners.remove(listener);
+    }
+  }
+
+  /**
+   * Removes a {@link BiConsumer} previously {@linkplain
+   * #addInvalidationListener(String, BiConsumer) added} for the
+   * supplied {@code name}.
+   *
+   * @param name the name the {@link BiConsumer} was added for; may
+   * be {@code null} in which case no action will be taken
+   *
+   * @param listener the {@link BiConsumer} to remove; may be {@code
+   * null} in which case no action will be taken
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #addInvalidationListener(String, BiConsumer)
+   */
+  public final void removeInvalidationListener(final String name,
+                                               final BiConsumer<? super String, ? super Set<Annotation>> listener) {
+    if (name != null && listener != null) {
+      this.namedInvalidationListeners.computeIfPresent(name, (n, listeners) -> {
+          listeners.remove(listener);
+          return listeners.isEmpty() ? null : listeners;
+        });
+    }
   }
 
+  private final void recordDependency(final Key dependent, final String dependencyName) {
+    // In the steady state every edge has already been recorded, so
+    // check first, and leave the shared maps unwritten.
+    final Set<Key> dependents = this.dependents.get(dependencyName);
+    if (dependents != null && dependents.contains(dependent)) {
+      return;
+    }
+    this.dependents.computeIfAbsent(dependencyName, n -> ConcurrentHashMap.newKeySet()).add(dependent);
+    this.dependencies.computeIfAbsent(dependent, k -> ConcurrentHashMap.newKeySet()).add(dependencyName);
+  }
 
   /*
    * Static methods.
@@ -3925,121 +5919,150 @@ public class Settings extends Source {
 
   }
 
-  private static final class SourceELResolver extends ELResolver {
+  private final class Resolver implements BiFunction<String, String, String> {
 
-    private static final Set<String> MAGIC_NAMES;
+    private final Resolver parent;
 
-    static {
-      MAGIC_NAMES = new HashSet<>();
-      MAGIC_NAMES.add("s");
-      MAGIC_NAMES.add("settings");
-    }
+    private final String name;
 
-    private final Settings settings;
+    private final Set<Annotation> qualifiers;
 
-    private final ExpressionFactory expressionFactory;
+    private final int depth;
 
-    private final Set<Annotation> qualifiers;
+    private Key key;
 
-    private SourceELResolver(final Settings settings,
-                             final Set<Annotation> qualifiers) {
-      this(settings,
-           ExpressionFactory.newInstance(),
-           qualifiers);
-    }
+    // Only used by the root Resolver; memoizes resolved references
+    // for the duration of a single top-level value acquisition.  An
+    // Interpolator may resolve references concurrently, so this must
+    // be safe for concurrent use.  Null until the first reference is
+    // resolved, since most values contain none.
+    private volatile Map<String, Object> resolutions;
 
-    private SourceELResolver(final Settings settings,
-                             final ExpressionFactory expressionFactory,
-                             final Set<Annotation> qualifiers) {
-      super();
-      this.settings = Objects.requireNonNull(settings);
-      this.expressionFactory = expressionFactory;
-      if (qualifiers == null) {
-        this.qualifiers = Collections.emptySet();
-      } else {
-        this.qualifiers = Collections.unmodifiableSet(qualifiers);
-      }
-    }
+    private Converter<? extends String> stringConverter;
 
-    @Override
-    public final Class<?> getCommonPropertyType(final ELContext elContext, final Object base) {
-      return Object.class;
+    private Resolver(final String name, final Set<Annotation> qualifiers) {
+      this(null, name, qualifiers, 0);
     }
 
-    @Override
-    public final Iterator<FeatureDescriptor> getFeatureDescriptors(final ELContext elContext, final Object base) {
-      return Collections.emptyIterator();
+    private Resolver(final Resolver parent, final String name) {
+      this(parent, name, parent.qualifiers, parent.depth + 1);
     }
 
-    @Override
-    public final boolean isReadOnly(final ELContext elContext, final Object base, final Object property) {
-      if (elContext != null && (property instanceof String || property instanceof Settings)) {
-        elContext.setPropertyResolved(true);
-      }
-      return true;
+    private Resolver(final Resolver parent, final String name, final Set<Annotation> qualifiers, final int depth) {
+      super();
+      this.parent = parent;
+      this.name = Objects.requireNonNull(name);
+      this.qualifiers = qualifiers;
+      this.depth = depth;
     }
 
     @Override
-    public final Class<?> getType(final ELContext elContext, final Object base, final Object property) {
-      Objects.requireNonNull(elContext);
-      Class<?> returnValue = null;
-      if (base == null) {
-        if (MAGIC_NAMES.contains(property)) {
-          elContext.setPropertyResolved(true);
-          returnValue = this.settings.getClass();
+    public final String apply(final String name, final String defaultValue) {
+      Objects.requireNonNull(name);
+      Key key = this.key;
+      if (key == null) {
+        key = new Key(this.name, this.qualifiers);
+        this.key = key;
+      }
+      recordDependency(key, name);
+      final Map<String, Object> resolutions = this.getResolutions();
+      Object resolution = resolutions.get(name);
+      if (resolution == null) {
+        // computeIfAbsent() cannot be used here: resolving a reference
+        // resolves its own references through this same map.  Two
+        // concurrent resolutions of a shared reference may therefore
+        // both do the work; that duplication is accepted, and the
+        // first result is the one every caller sees.
+        resolution = this.resolve(name);
+        final Object existing = resolutions.putIfAbsent(name, resolution);
+        if (existing != null) {
+          resolution = existing;
         }
-      } else if (base instanceof Settings && property instanceof String) {
-        final Settings settings = (Settings)base;
-        final String value =
-          settings.get((String)property,
-                       this.qualifiers,
-                       elContext,
-                       this.expressionFactory,
-                       settings.converterProvider.getConverter(String.class),
-                       null);
-        elContext.setPropertyResolved(true);
-        if (value == null) {
-          throw new PropertyNotFoundException((String)property);
+      }
+      final String returnValue;
+      if (resolution == ABSENT) {
+        if (defaultValue == null) {
+          throw new NoSuchElementException(name + " (" + this.qualifiers + ")");
         }
-        returnValue = String.class;
+        // Default values are not memoized, since two references to
+        // the same setting may supply different defaults.
+        final Resolver child = this.child(name);
+        final String interpolatedDefaultValue = interpolator.interpolate(defaultValue, this.qualifiers, child);
+        returnValue =
+          child.convert(new Value(null /* no Source; we synthesized this Value */, name, this.qualifiers, interpolatedDefaultValue));
+      } else if (resolution == NULL_VALUE) {
+        returnValue = null;
+      } else {
+        returnValue = (String)resolution;
       }
-      // Note that as currently written returnValue may be null.
       return returnValue;
     }
 
-    @Override
-    public final Object getValue(final ELContext elContext, final Object base, final Object property) {
-      Objects.requireNonNull(elContext);
-      Object returnValue = null;
-      if (base == null) {
-        if (MAGIC_NAMES.contains(property)) {
-          elContext.setPropertyResolved(true);
-          returnValue = this.settings;
+    private final Object resolve(final String name) {
+      // Settings referenced during interpolation are accessed too,
+      // and a snapshot is incomplete without them.
+      recordAccess(name, this.qualifiers);
+      final Value value = getValue(name, this.qualifiers, null);
+      final Object returnValue;
+      if (value == null) {
+        returnValue = ABSENT;
+      } else {
+        final Resolver child = this.child(name);
+        final String interpolatedValue = interpolator.interpolate(value.get(), this.qualifiers, child);
+        final String convertedValue = child.convert(new Value(value, interpolatedValue));
+        returnValue = convertedValue == null ? NULL_VALUE : convertedValue;
+      }
+      return returnValue;
+    }
+
+    private final Resolver child(final String name) {
+      for (Resolver r = this; r != null; r = r.parent) {
+        if (r.name.equals(name)) {
+          final StringBuilder cycle = new StringBuilder(name);
+          for (Resolver r2 = this; r2 != r.parent; r2 = r2.parent) {
+            cycle.insert(0, " -> ").insert(0, r2.name);
+          }
+          throw new ValueAcquisitionException("Circular reference: " + cycle);
         }
-      } else if (base instanceof Settings && property instanceof String) {
-        final Settings settings = (Settings)base;
-        final String value =
-          settings.get((String)property,
-                       this.qualifiers,
-                       elContext,
-                       this.expressionFactory,
-                       settings.converterProvider.getConverter(String.class),
-                       null);
-        elContext.setPropertyResolved(true);
-        if (value == null) {
-          throw new PropertyNotFoundException((String)property);
+      }
+      if (this.depth + 1 >= MAXIMUM_INTERPOLATION_DEPTH) {
+        throw new ValueAcquisitionException("Maximum interpolation depth (" + MAXIMUM_INTERPOLATION_DEPTH +
+                                            ") exceeded while resolving " + name);
+      }
+      return new Resolver(this, name);
+    }
+
+    private final String convert(final Value value) {
+      final Resolver root = this.getRoot();
+      Converter<? extends String> stringConverter = root.stringConverter;
+      if (stringConverter == null) {
+        stringConverter = converterProvider.getConverter(String.class);
+        root.stringConverter = stringConverter;
+      }
+      return stringConverter.convert(value);
+    }
+
+    private final Map<String, Object> getResolutions() {
+      final Resolver root = this.getRoot();
+      Map<String, Object> resolutions = root.resolutions;
+      if (resolutions == null) {
+        synchronized (root) {
+          resolutions = root.resolutions;
+          if (resolutions == null) {
+            resolutions = new ConcurrentHashMap<>();
+            root.resolutions = resolutions;
+          }
         }
-        returnValue = value;
       }
-      // Note that as currently written returnValue may be null.
-      return returnValue;
+      return resolutions;
     }
 
-    @Override
-    public final void setValue(final ELContext elContext, final Object base, final Object property, final Object value) {
-      if (elContext != null) {
-        elContext.setPropertyResolved(false);
+    private final Resolver getRoot() {
+      Resolver root = this;
+      while (root.parent != null) {
+        root = root.parent;
       }
+      return root;
     }
 
   }
@@ -34,14 +34,24 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import javax.enterprise.context.Dependent;
 
 import javax.enterprise.context.spi.CreationalContext;
@@ -51,6 +61,7 @@ import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Any;
 import javax.enterprise.inject.CreationException;
 import javax.enterprise.inject.Default;
+import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.UnsatisfiedResolutionException;
 
 import javax.enterprise.inject.spi.AfterBeanDiscovery;
@@ -63,6 +74,7 @@ import javax.enterprise.inject.spi.AnnotatedType;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanAttributes;
 import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.BeforeShutdown;
 import javax.enterprise.inject.spi.DefinitionException;
 import javax.enterprise.inject.spi.Extension;
 import javax.enterprise.inject.spi.InjectionPoint;
@@ -79,12 +91,29 @@ import javax.inject.Singleton;
  * {@link Configured} annotations, as well as injection of {@link
  * Settings} instances.
  *
+ * <p>An injection point qualified with {@link Setting} whose type is
+ * {@link LiveSetting LiveSetting&lt;T&gt;} or {@link Supplier
+ * Supplier&lt;T&gt;} receives a {@link LiveSetting} whose value is
+ * converted to {@code T} and reacquired whenever the setting is
+ * {@linkplain Settings#invalidate(String, Set) invalidated}, rather
+ * than a value fixed at injection time.</p>
+ *
  * @author <a href="https://about.me/lairdnelson"
  * target="_parent">Laird Nelson</a>
  */
 public class SettingsExtension implements Extension {
 
 
+  /*
+   * Static fields.
+   */
+
+
+  private static final Object ABSENT = new Object();
+
+  private static final Logger logger = Logger.getLogger(SettingsExtension.class.getName());
+
+
   /*
    * Instance fields.
    */
@@ -92,6 +121,8 @@ public class SettingsExtension implements Extension {
 
   private final Map<Set<Annotation>, Set<Type>> configuredTypes;
 
+  private final Map<Set<Annotation>, Set<Type>> liveConfiguredTypes;
+
   private final Set<InjectionPoint> settingInjectionPoints;
   
   private final Set<Set<Annotation>> settingQualifierSets;
@@ -100,6 +131,38 @@ public class SettingsExtension implements Extension {
 
   private final Set<Type> knownConversionTypes;
 
+  // Everything needed to produce a value for a @Setting injection
+  // point other than the value itself, computed once for each
+  // injection point seen during deployment and indexed by the
+  // identity of its Annotated, which, unlike the InjectionPoint
+  // handed to a producer, is the same object every time.  Published
+  // to deployedSettingResolutions once deployment is complete, and
+  // never modified thereafter.
+  private final Map<Annotated, SettingResolution> deploymentSettingResolutions;
+
+  private volatile Map<Annotated, SettingResolution> deployedSettingResolutions;
+
+  // SettingResolutions for injection points not seen during
+  // deployment, such as those created by Instance#select().  Unlike
+  // the other fields, this is retained after deployment.
+  private final ConcurrentMap<InjectionPointKey, SettingResolution> settingResolutions;
+
+  // Values acquired in parallel during validation, each consumed by
+  // the first production for its injection point.
+  private final ConcurrentMap<SettingResolution, PrefetchedValue> prefetchedValues;
+
+  // Shared by every ConverterProvider, sources BiFunction and Arbiter
+  // Iterable installed by this extension, so that the Settings
+  // instances installed for different qualifier sets reuse the same
+  // Converter, Source and Arbiter instances.  Created during
+  // AfterBeanDiscovery and closed at BeforeShutdown.
+  private BeanManagerBackedReferences references;
+
+  // Every Settings instance installed by this extension resolves its
+  // Sources through this single instance, whose cache is keyed by
+  // qualifiers only and so is valid for all of them.
+  private BeanManagerBackedSourcesSupplier sourcesSupplier;
+
 
   /*
    * Constructors.
@@ -112,10 +175,15 @@ public class SettingsExtension implements Extension {
   public SettingsExtension() {
     super();
     this.configuredTypes = new HashMap<>();
+    this.liveConfiguredTypes = new HashMap<>();
     this.settingInjectionPoints = new HashSet<>();
     this.settingQualifierSets = new HashSet<>();
     this.settingsQualifierSets = new HashSet<>();
     this.knownConversionTypes = new HashSet<>(Collections.singleton(String.class));
+    this.deploymentSettingResolutions = new IdentityHashMap<>();
+    this.deployedSettingResolutions = Collections.emptyMap();
+    this.settingResolutions = new ConcurrentHashMap<>();
+    this.prefetchedValues = new ConcurrentHashMap<>();
   }
 
 
@@ -171,6 +239,8 @@ public class SettingsExtension implements Extension {
 
         this.settingInjectionPoints.add(injectionPoint);
 
+        this.deploymentSettingResolutions.putIfAbsent(injectionPoint.getAnnotated(), new SettingResolution(injectionPoint));
+
         final Set<Annotation> settingQualifiers = new HashSet<>(injectionPointQualifiers);
         settingQualifiers.add(Any.Literal.INSTANCE);
         this.settingQualifierSets.add(settingQualifiers);
@@ -198,12 +268,26 @@ public class SettingsExtension implements Extension {
     if (qualifiers != null && !qualifiers.isEmpty()) {
       for (final Annotation qualifier : qualifiers) {
         if (qualifier instanceof Configured) {
-          Set<Type> types = this.configuredTypes.get(qualifiers);
+          // Configured#live() is @Nonbinding, so normalize it away;
+          // otherwise two beans differing only in its value would be
+          // ambiguous.
+          final Set<Annotation> configuredQualifiers = new HashSet<>(qualifiers);
+          configuredQualifiers.remove(qualifier);
+          configuredQualifiers.add(Configured.Literal.INSTANCE);
+          Set<Type> types = this.configuredTypes.get(configuredQualifiers);
           if (types == null) {
             types = new HashSet<>();
-            this.configuredTypes.put(qualifiers, types);
+            this.configuredTypes.put(configuredQualifiers, types);
           }
           types.add(injectionPoint.getType());
+          if (((Configured)qualifier).live()) {
+            Set<Type> liveTypes = this.liveConfiguredTypes.get(configuredQualifiers);
+            if (liveTypes == null) {
+              liveTypes = new HashSet<>();
+              this.liveConfiguredTypes.put(configuredQualifiers, liveTypes);
+            }
+            liveTypes.add(injectionPoint.getType());
+          }
           break;
         }
       }
@@ -213,6 +297,7 @@ public class SettingsExtension implements Extension {
   private final void installConverterProviderBeans(@Observes final AfterBeanDiscovery event,
                                                    final BeanManager beanManager) {
     final Type type = ConverterProvider.class;
+    final BeanManagerBackedReferences references = this.getReferences(beanManager);
     addBean(event,
             beanManager,
             type,
@@ -222,7 +307,8 @@ public class SettingsExtension implements Extension {
               .scope(Singleton.class)
               .qualifiers(nq)
               .beanClass(BeanManagerBackedConverterProvider.class)
-              .createWith(cc -> new BeanManagerBackedConverterProvider(bm, nq)));
+              .createWith(cc -> new BeanManagerBackedConverterProvider(bm, nq, references))
+              .destroyWith((converterProvider, cc) -> ((BeanManagerBackedConverterProvider)converterProvider).close()));
   }
 
   private final void installSourcesSupplierBeans(@Observes final AfterBeanDiscovery event,
@@ -230,6 +316,7 @@ public class SettingsExtension implements Extension {
     final Type type = new TypeLiteral<BiFunction<String, Set<Annotation>, Set<Source>>>() {
       private static final long serialVersionUID = 1L;
     }.getType();
+    final BeanManagerBackedSourcesSupplier sourcesSupplier = this.getSourcesSupplier(beanManager);
     addBean(event,
             beanManager,
             type,
@@ -239,16 +326,19 @@ public class SettingsExtension implements Extension {
               .scope(Singleton.class)
               .qualifiers(nq)
               .beanClass(BeanManagerBackedSourcesSupplier.class)
-              .createWith(cc -> new BeanManagerBackedSourcesSupplier(bm)));
+              .createWith(cc -> sourcesSupplier));
   }
 
   private final void installSettingsBeans(@Observes final AfterBeanDiscovery event,
                                           final BeanManager beanManager) {
+    final BeanManagerBackedReferences references = this.getReferences(beanManager);
     addBean(event,
             beanManager,
             Settings.class,
             this.settingsQualifierSets,
-            (e, bm, t, nq) -> e.addBean()
+            (e, bm, t, nq) -> {
+              final BeanManagerBackedArbiters arbiters = new BeanManagerBackedArbiters(bm, nq, references);
+              e.addBean()
               .types(t)
               .scope(Singleton.class)
               .qualifiers(nq)
@@ -263,9 +353,11 @@ public class SettingsExtension implements Extension {
                   },
                   qualifiersArray).get();
                 final ConverterProvider converterProvider = instance.select(ConverterProvider.class, qualifiersArray).get();
-                final Iterable<? extends Arbiter> arbiters = instance.select(Arbiter.class, qualifiersArray);
-                return new Settings(nq, sourcesSupplier, converterProvider, arbiters);
-              }));
+                final Instance<Interpolator> interpolatorInstance = instance.select(Interpolator.class, qualifiersArray);
+                final Interpolator interpolator = interpolatorInstance.isResolvable() ? interpolatorInstance.get() : null;
+                return new Settings(nq, sourcesSupplier, converterProvider, arbiters, interpolator);
+              });
+            });
   }
 
   private final void installSettingProducers(@Observes final AfterBeanDiscovery event,
@@ -290,8 +382,11 @@ public class SettingsExtension implements Extension {
             // could be a wildcard or a type variable.  Or it could be
             // a ParameterizedType with recursive wildcards or type
             // variables.
+            // LiveSetting<T> and Supplier<T> wrap the type to be
+            // synthesized in one more level.
+            final int depth = getLiveType(type) == null ? 1 : 2;
             final BeanAttributes<?> beanAttributes =
-              new FlexiblyTypedBeanAttributes<Object>(delegate, settingQualifiers, Collections.singleton(synthesizeLegalBeanType(type, 1)));
+              new FlexiblyTypedBeanAttributes<Object>(delegate, settingQualifiers, Collections.singleton(synthesizeLegalBeanType(type, depth)));
             final ProducerFactory<SettingsExtension> defaultProducerFactory =
               beanManager.getProducerFactory(producerMethodTemplate, null);
             final ProducerFactory<SettingsExtension> producerFactory = new ProducerFactory<SettingsExtension>() {
@@ -305,6 +400,17 @@ public class SettingsExtension implements Extension {
                     public final Set<InjectionPoint> getInjectionPoints() {
                       return injectionPoints;
                     }
+
+                    @Override
+                    public final T produce(final CreationalContext<T> cc) {
+                      // The producer method template only gathers
+                      // its arguments; this extension produces the
+                      // value without having to be looked up.
+                      final ProducerArguments arguments = (ProducerArguments)super.produce(cc);
+                      @SuppressWarnings("unchecked")
+                      final T returnValue = (T)SettingsExtension.this.produce(arguments.injectionPoint, arguments.settings);
+                      return returnValue;
+                    }
                   };
                 }
               };
@@ -325,8 +431,12 @@ public class SettingsExtension implements Extension {
       assert qualifiers.contains(Configured.Literal.INSTANCE);
       final Set<Type> types = entry.getValue();
       assert types != null;
+      final Set<Type> liveTypes = this.liveConfiguredTypes.get(qualifiers);
       for (final Type type : types) {
         if (noBeans(beanManager, type, qualifiers)) {
+          final boolean live = liveTypes != null && liveTypes.contains(type);
+          final Map<Object, Reconfigurator> reconfigurators =
+            live ? Collections.synchronizedMap(new IdentityHashMap<>()) : null;
           final Set<Annotation> newQualifiers = new HashSet<>(qualifiers);
           newQualifiers.removeIf(e -> e instanceof Configured);
           if (newQualifiers.isEmpty()) {
@@ -354,12 +464,23 @@ public class SettingsExtension implements Extension {
                   final T contextualInstance = bean.create(cc);
                   try {
                     settings.configure(contextualInstance, qualifiers);
+                    if (live) {
+                      reconfigurators.put(contextualInstance, Reconfigurator.install(settings, contextualInstance, null, qualifiers));
+                    }
                   } catch (final IntrospectionException | ReflectiveOperationException exception) {
                     throw new CreationException(exception.getMessage(), exception);
                   }
                   return contextualInstance;
                 })
-              .destroyWith((contextualInstance, cc) -> bean.destroy(contextualInstance, cc));
+              .destroyWith((contextualInstance, cc) -> {
+                  if (live) {
+                    final Reconfigurator reconfigurator = reconfigurators.remove(contextualInstance);
+                    if (reconfigurator != null) {
+                      reconfigurator.close();
+                    }
+                  }
+                  bean.destroy(contextualInstance, cc);
+                });
           }          
         }
       }
@@ -368,19 +489,40 @@ public class SettingsExtension implements Extension {
   
   private final void validate(@Observes final AfterDeploymentValidation event,
                               final BeanManager beanManager) {
+    this.deployedSettingResolutions = this.deploymentSettingResolutions;
     final CreationalContext<?> cc = beanManager.createCreationalContext(null);
     try {
+      this.prefetch(beanManager, cc);
+      // Validation proper remains sequential, so that errors are
+      // reported exactly as before; the producer consumes the values
+      // acquired above instead of acquiring them again.
       for (final InjectionPoint settingInjectionPoint : this.settingInjectionPoints) {
         beanManager.validate(settingInjectionPoint);
         beanManager.getInjectableReference(settingInjectionPoint, cc);
       }
     } finally {
+      this.prefetchedValues.clear();
       cc.release();
     }
     this.settingInjectionPoints.clear();
     this.settingQualifierSets.clear();
     this.settingsQualifierSets.clear();
     this.configuredTypes.clear();
+    this.liveConfiguredTypes.clear();
+  }
+
+
+  private final void shutdown(@Observes final BeforeShutdown event) {
+    // All contexts have been destroyed by now, so nothing can still be
+    // using the shared references.
+    if (this.sourcesSupplier != null) {
+      this.sourcesSupplier.close();
+      this.sourcesSupplier = null;
+    }
+    if (this.references != null) {
+      this.references.close();
+      this.references = null;
+    }
   }
 
 
@@ -389,6 +531,159 @@ public class SettingsExtension implements Extension {
    */
 
 
+  private final BeanManagerBackedReferences getReferences(final BeanManager beanManager) {
+    // Called only during AfterBeanDiscovery, which is single-threaded.
+    if (this.references == null) {
+      this.references = new BeanManagerBackedReferences(beanManager);
+    }
+    return this.references;
+  }
+
+  private final BeanManagerBackedSourcesSupplier getSourcesSupplier(final BeanManager beanManager) {
+    // Called only during AfterBeanDiscovery, which is single-threaded.
+    if (this.sourcesSupplier == null) {
+      this.sourcesSupplier = new BeanManagerBackedSourcesSupplier(beanManager, this.getReferences(beanManager));
+    }
+    return this.sourcesSupplier;
+  }
+
+  // Acquires the values of all known @Setting injection points, and
+  // builds the Configurators for, and acquires the property values
+  // of, all known @Configured types, in parallel.  Failures are
+  // logged here; they recur, and are reported, when the injection
+  // point is validated or the @Configured bean is created.
+  private final void prefetch(final BeanManager beanManager, final CreationalContext<?> cc) {
+    final Map<Set<Annotation>, Settings> settingsByQualifiers = new HashMap<>();
+    final Collection<Runnable> work = new ArrayList<>();
+    for (final InjectionPoint injectionPoint : this.settingInjectionPoints) {
+      final Set<Annotation> qualifiers = new HashSet<>(injectionPoint.getQualifiers());
+      qualifiers.removeIf(e -> e instanceof Setting);
+      qualifiers.add(Any.Literal.INSTANCE);
+      final Settings settings = getSettings(beanManager, qualifiers, false, cc, settingsByQualifiers);
+      if (settings != null) {
+        final SettingResolution settingResolution = this.getSettingResolution(injectionPoint);
+        work.add(() -> this.prefetchedValues.put(settingResolution, new PrefetchedValue(settings, settingResolution.getValue(settings))));
+      }
+    }
+    for (final Entry<Set<Annotation>, Set<Type>> entry : this.configuredTypes.entrySet()) {
+      // Resolve the Settings exactly as the @Configured bean's
+      // create() method does; it is a singleton, so the Configurators
+      // cached here are the ones that bean will use.
+      final Set<Annotation> qualifiers = new HashSet<>(entry.getKey());
+      qualifiers.removeIf(e -> e instanceof Configured);
+      if (qualifiers.isEmpty()) {
+        qualifiers.add(Default.Literal.INSTANCE);
+      }
+      final Settings settings = getSettings(beanManager, qualifiers, true, cc, settingsByQualifiers);
+      // The @Configured bean configures its instances with all of its
+      // qualifiers.
+      final Set<Annotation> configuredQualifiers = entry.getKey();
+      if (settings != null) {
+        for (final Type type : entry.getValue()) {
+          final Class<?> c;
+          if (type instanceof Class) {
+            c = (Class<?>)type;
+          } else if (type instanceof ParameterizedType) {
+            c = (Class<?>)((ParameterizedType)type).getRawType();
+          } else {
+            continue;
+          }
+          work.add(() -> {
+              try {
+                final Configurator<?> configurator = settings.getConfigurator(c);
+                // Acquire and convert the values the bean will be
+                // configured with, too.  Generated Configurators
+                // expose no properties, so only those built by
+                // introspection can do this.
+                if (configurator instanceof BeanConfigurator) {
+                  ((BeanConfigurator)configurator).prefetch(settings, null, configuredQualifiers);
+                }
+              } catch (final IntrospectionException | ReflectiveOperationException configuratorFailure) {
+                // Creation of the @Configured bean will report the
+                // problem.
+                if (logger.isLoggable(Level.WARNING)) {
+                  logger.log(Level.WARNING, "Prefetching failed: " + configuratorFailure.getMessage(), configuratorFailure);
+                }
+              }
+            });
+        }
+      }
+    }
+    final int size = work.size();
+    if (size > 0) {
+      final int threads = Math.min(size, Runtime.getRuntime().availableProcessors());
+      if (threads < 2) {
+        for (final Runnable task : work) {
+          runPrefetchTask(task);
+        }
+      } else {
+        // Run the work on threads this extension owns, rather than on
+        // the common pool, so that it sees the context classloader
+        // the container was started with, as Sources and Converters
+        // acquired on the container's own thread would.
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, SettingsExtension.class.getName() + " prefetch");
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+          });
+        try {
+          final Collection<Callable<Void>> tasks = new ArrayList<>(size);
+          for (final Runnable task : work) {
+            tasks.add(() -> {
+                runPrefetchTask(task);
+                return null;
+              });
+          }
+          executor.invokeAll(tasks);
+        } catch (final InterruptedException interruptedException) {
+          // Whatever was not prefetched will be acquired when it is
+          // needed.
+          Thread.currentThread().interrupt();
+        } finally {
+          executor.shutdownNow();
+        }
+      }
+    }
+  }
+
+  private static final void runPrefetchTask(final Runnable task) {
+    try {
+      task.run();
+    } catch (final RuntimeException failure) {
+      // Validation or bean creation will acquire the value again, and
+      // will report the problem if it recurs.
+      if (logger.isLoggable(Level.WARNING)) {
+        logger.log(Level.WARNING, "Prefetching failed: " + failure.getMessage(), failure);
+      }
+    }
+  }
+
+  private static final Settings getSettings(final BeanManager beanManager,
+                                            final Set<Annotation> qualifiers,
+                                            final boolean fallBackToDefault,
+                                            final CreationalContext<?> cc,
+                                            final Map<Set<Annotation>, Settings> settingsByQualifiers) {
+    Settings returnValue = settingsByQualifiers.get(qualifiers);
+    if (returnValue == null && !settingsByQualifiers.containsKey(qualifiers)) {
+      try {
+        Set<Bean<?>> beans = beanManager.getBeans(Settings.class, qualifiers.toArray(new Annotation[qualifiers.size()]));
+        if (fallBackToDefault && (beans == null || beans.isEmpty())) {
+          beans = beanManager.getBeans(Settings.class);
+        }
+        final Bean<?> bean = beanManager.resolve(beans);
+        if (bean != null) {
+          returnValue = (Settings)beanManager.getReference(bean, Settings.class, cc);
+        }
+      } catch (final RuntimeException resolutionFailure) {
+        // Validation will report the problem, if any.
+      }
+      settingsByQualifiers.put(qualifiers, returnValue);
+    }
+    return returnValue;
+  }
+
   private final void addBean(final AfterBeanDiscovery event,
                              final BeanManager beanManager,
                              final Type type,
@@ -420,9 +715,16 @@ public class SettingsExtension implements Extension {
    * {@linkplain Settings#get(String, Set, Type, Supplier) acquire a
    * value}; must not be {@code null}
    *
-   * @return a value for a setting, or {@code null}
+   * @return the supplied arguments, from which the {@link Producer}
+   * that invoked this method, which already refers to the {@link
+   * SettingsExtension} that computed how to acquire values for the
+   * supplied {@code injectionPoint}, produces the setting value;
+   * never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code
+   * null}
    *
-   * @nullability This method may return {@code null}.
+   * @nullability This method never returns {@code null}.
    *
    * @idempotency No guarantees with respect to idempotency are made
    * of this method.
@@ -439,21 +741,41 @@ public class SettingsExtension implements Extension {
   @Dependent
   @Deprecated
   private static final Object producerMethodTemplate(final InjectionPoint injectionPoint,
-                                                     final BeanManager beanManager,
                                                      final Settings settings) {
-    Objects.requireNonNull(injectionPoint);
-    Objects.requireNonNull(settings);
-    final Set<Annotation> qualifiers = new HashSet<>(Objects.requireNonNull(injectionPoint.getQualifiers()));
-    qualifiers.removeIf(e -> e instanceof Setting);
-    if (qualifiers.isEmpty()) {
-      qualifiers.add(Default.Literal.INSTANCE);
+    return new ProducerArguments(injectionPoint, settings);
+  }
+
+  private final Object produce(final InjectionPoint injectionPoint, final Settings settings) {
+    final SettingResolution settingResolution = this.getSettingResolution(injectionPoint);
+    if (!this.prefetchedValues.isEmpty()) {
+      final PrefetchedValue prefetchedValue = this.prefetchedValues.remove(settingResolution);
+      if (prefetchedValue != null && prefetchedValue.settings == settings) {
+        return prefetchedValue.value;
+      }
     }
-    return settings.get(getName(injectionPoint),
-                        qualifiers,
-                        injectionPoint.getType(),
-                        getDefaultValueFunction(injectionPoint, beanManager));
+    return settingResolution.getValue(settings);
   }
 
+  private final SettingResolution getSettingResolution(final InjectionPoint injectionPoint) {
+    SettingResolution returnValue = this.deployedSettingResolutions.get(injectionPoint.getAnnotated());
+    // Injection points created by Instance#select() share the
+    // Annotated of the Instance injection point they were selected
+    // from, whose type is never theirs.
+    if (returnValue == null || !returnValue.type.equals(injectionPoint.getType())) {
+      final InjectionPointKey key = new InjectionPointKey(injectionPoint);
+      returnValue = this.settingResolutions.get(key);
+      if (returnValue == null) {
+        returnValue = new SettingResolution(injectionPoint);
+        final SettingResolution existing = this.settingResolutions.putIfAbsent(key, returnValue);
+        if (existing != null) {
+          returnValue = existing;
+        }
+      }
+    }
+    return returnValue;
+  }
+
+
   private static final Setting extractSetting(final InjectionPoint injectionPoint) {
     Setting returnValue = null;
     if (injectionPoint != null) {
@@ -477,36 +799,19 @@ public class SettingsExtension implements Extension {
 
   private static final BiFunction<? super String,
                                   ? super Set<? extends Annotation>,
-                                  ? extends String> getDefaultValueFunction(final InjectionPoint injectionPoint,
-                                                                            final BeanManager beanManager) {
-    Objects.requireNonNull(injectionPoint);
-    Objects.requireNonNull(beanManager);
-    final Setting setting = Objects.requireNonNull(extractSetting(injectionPoint));
+                                  ? extends String> getDefaultValueFunction(final Setting setting) {
+    // Required settings are handled by SettingResolution.
+    assert !setting.required();
     final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> returnValue;
-    if (setting.required()) {
-      returnValue = (n, qs) -> {
-        final Set<Annotation> qualifiers = new HashSet<>(Objects.requireNonNull(injectionPoint.getQualifiers()));
-        qualifiers.removeIf(e -> e instanceof Setting);
-        if (qualifiers.isEmpty()) {
-          qualifiers.add(Default.Literal.INSTANCE);
-        }
-        throw new UnsatisfiedResolutionException("No value was found in any source for the setting named " + getName(injectionPoint) + " with qualifiers " + qualifiers);
-      };
+    final String defaultValue = setting.defaultValue();
+    if (defaultValue == null || defaultValue.equals(Setting.UNSET)) {
+      returnValue = SettingsExtension::returnNull;
     } else {
-      final String defaultValue = setting.defaultValue();
-      if (defaultValue == null || defaultValue.equals(Setting.UNSET)) {
-        returnValue = SettingsExtension::returnNull;
-      } else {
-        returnValue = (n, qs) -> setting.defaultValue();
-      }
+      returnValue = (n, qs) -> defaultValue;
     }
     return returnValue;
   }
 
-  private static final String getName(final InjectionPoint injectionPoint) {
-    return getName(extractSetting(injectionPoint), injectionPoint.getAnnotated());
-  }
-
   private static final String getName(final Setting setting, final Annotated annotated) {
     Objects.requireNonNull(setting);
     Objects.requireNonNull(annotated);
@@ -540,6 +845,21 @@ public class SettingsExtension implements Extension {
     return name;
   }
 
+  private static final Type getLiveType(final Type type) {
+    Type returnValue = null;
+    if (type instanceof ParameterizedType) {
+      final ParameterizedType parameterizedType = (ParameterizedType)type;
+      final Type rawType = parameterizedType.getRawType();
+      if (LiveSetting.class.equals(rawType) || Supplier.class.equals(rawType)) {
+        returnValue = parameterizedType.getActualTypeArguments()[0];
+        if (returnValue instanceof WildcardType) {
+          returnValue = ((WildcardType)returnValue).getUpperBounds()[0];
+        }
+      }
+    }
+    return returnValue;
+  }
+
   private static final String returnNull(final String name,
                                          final Set<? extends Annotation> qualifiers) {
     return null;
@@ -673,6 +993,173 @@ public class SettingsExtension implements Extension {
    */
 
 
+  // Identifies an injection point by the field or the parameter it
+  // represents, since InjectionPoint implementations need not
+  // implement equals().  The type and qualifiers are part of the key
+  // because injection points created by Instance#select() share the
+  // member of the Instance injection point they were selected from.
+  private static final class InjectionPointKey {
+
+    private final Member member;
+
+    private final int position;
+
+    private final Type type;
+
+    private final Set<Annotation> qualifiers;
+
+    private InjectionPointKey(final InjectionPoint injectionPoint) {
+      super();
+      final Annotated annotated = injectionPoint.getAnnotated();
+      if (annotated instanceof AnnotatedParameter) {
+        final AnnotatedParameter<?> annotatedParameter = (AnnotatedParameter<?>)annotated;
+        this.member = annotatedParameter.getDeclaringCallable().getJavaMember();
+        this.position = annotatedParameter.getPosition();
+      } else {
+        this.member = injectionPoint.getMember();
+        this.position = -1;
+      }
+      this.type = injectionPoint.getType();
+      final Set<Annotation> qualifiers = injectionPoint.getQualifiers();
+      this.qualifiers = qualifiers == null ? Collections.emptySet() : new HashSet<>(qualifiers);
+    }
+
+    @Override
+    public final int hashCode() {
+      int hashCode = 17;
+      hashCode = 37 * hashCode + Objects.hashCode(this.member);
+      hashCode = 37 * hashCode + this.position;
+      hashCode = 37 * hashCode + Objects.hashCode(this.type);
+      hashCode = 37 * hashCode + this.qualifiers.hashCode();
+      return hashCode;
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+      if (other == this) {
+        return true;
+      } else if (other instanceof InjectionPointKey) {
+        final InjectionPointKey her = (InjectionPointKey)other;
+        return
+          this.position == her.position &&
+          Objects.equals(this.member, her.member) &&
+          Objects.equals(this.type, her.type) &&
+          this.qualifiers.equals(her.qualifiers);
+      } else {
+        return false;
+      }
+    }
+
+  }
+
+  private static final class ProducerArguments {
+
+    private final InjectionPoint injectionPoint;
+
+    private final Settings settings;
+
+    private ProducerArguments(final InjectionPoint injectionPoint, final Settings settings) {
+      super();
+      this.injectionPoint = Objects.requireNonNull(injectionPoint);
+      this.settings = Objects.requireNonNull(settings);
+    }
+
+  }
+
+  private static final class PrefetchedValue {
+
+    private final Settings settings;
+
+    private final Object value;
+
+    private PrefetchedValue(final Settings settings, final Object value) {
+      super();
+      this.settings = settings;
+      this.value = value;
+    }
+
+  }
+
+  private static final class SettingResolution {
+
+    private final String name;
+
+    private final Set<Annotation> qualifiers;
+
+    private final Type type;
+
+    private final boolean required;
+
+    private final BiFunction<? super String, ? super Set<? extends Annotation>, ? extends String> defaultValueFunction;
+
+    // Non-null only if the injection point is of type LiveSetting<T>
+    // or Supplier<T>, in which case it is T.
+    private final Type liveType;
+
+    // One LiveSetting per Settings is shared by every injection into
+    // the injection point, so that dependent objects injected
+    // repeatedly do not register ever more invalidation listeners.
+    private final ConcurrentMap<Settings, LiveSetting<?>> liveSettings;
+
+    private SettingResolution(final InjectionPoint injectionPoint) {
+      super();
+      final Setting setting = Objects.requireNonNull(extractSetting(injectionPoint));
+      final Set<Annotation> qualifiers = new HashSet<>(Objects.requireNonNull(injectionPoint.getQualifiers()));
+      qualifiers.removeIf(e -> e instanceof Setting);
+      if (qualifiers.isEmpty()) {
+        qualifiers.add(Default.Literal.INSTANCE);
+      }
+      this.name = getName(setting, injectionPoint.getAnnotated());
+      this.qualifiers = Collections.unmodifiableSet(qualifiers);
+      this.type = injectionPoint.getType();
+      this.required = setting.required();
+      this.defaultValueFunction = this.required ? null : getDefaultValueFunction(setting);
+      this.liveType = getLiveType(this.type);
+      this.liveSettings = this.liveType == null ? null : new ConcurrentHashMap<>();
+    }
+
+    private final Object getValue(final Settings settings) {
+      final Object returnValue;
+      if (this.liveType != null) {
+        returnValue = this.getLiveSetting(settings);
+      } else if (this.required) {
+        returnValue = this.getRequiredValue(settings, this.type);
+      } else {
+        returnValue = settings.get(this.name, this.qualifiers, this.type, this.defaultValueFunction);
+      }
+      return returnValue;
+    }
+
+    private final LiveSetting<?> getLiveSetting(final Settings settings) {
+      LiveSetting<?> returnValue = this.liveSettings.get(settings);
+      if (returnValue == null) {
+        if (this.required) {
+          // Fail at injection time, as for any other required setting.
+          this.getRequiredValue(settings, this.liveType);
+        }
+        returnValue = settings.live(this.name, this.qualifiers, this.liveType, this.defaultValueFunction);
+        final LiveSetting<?> existing = this.liveSettings.putIfAbsent(settings, returnValue);
+        if (existing != null) {
+          settings.release(returnValue);
+          returnValue = existing;
+        }
+      }
+      return returnValue;
+    }
+
+    private final Object getRequiredValue(final Settings settings, final Type type) {
+      // Detect a missing value without causing Settings to create a
+      // NoSuchElementException.
+      final Object returnValue = settings.getOrElse(this.name, this.qualifiers, type, ABSENT);
+      if (returnValue == ABSENT) {
+        throw new UnsatisfiedResolutionException("No value was found in any source for the setting named " +
+                                                 this.name + " with qualifiers " + this.qualifiers);
+      }
+      return returnValue;
+    }
+
+  }
+
   @FunctionalInterface
   private interface BeanAdder {
 
@@ -0,0 +1,484 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+import java.lang.annotation.Annotation;
+
+import java.nio.file.Path;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import java.util.function.BiFunction;
+
+/**
+ * An immutable record of the {@link Value}s of a number of settings,
+ * read from a file written by the {@link
+ * AccessRecorder#writeSnapshot(Path)} method, that can stand in for
+ * the {@link Source}s of a {@link Settings} while they initialize.
+ *
+ * <p>A {@link SettingsSnapshot} is used in three steps:</p>
+ *
+ * <ol>
+ *
+ * <li>It is {@linkplain #read(Path) read} from a file.</li>
+ *
+ * <li>The sources {@link BiFunction} of a new {@link Settings} is
+ * {@linkplain #wrap(BiFunction) wrapped} by it, so that while it is
+ * {@linkplain #isServing() serving}, that {@link Settings} sources
+ * any setting recorded in the snapshot from the snapshot alone,
+ * without consulting the wrapped {@link BiFunction} or the {@link
+ * Source}s it returns.</li>
+ *
+ * <li>It is {@linkplain #revalidate(Settings, Executor) revalidated}
+ * in the background: every recorded setting is acquired from the
+ * real {@link Source}s and compared with the snapshot, after which
+ * the snapshot stops serving and every setting whose {@link Value}
+ * differed is {@linkplain Settings#invalidate(String, Set)
+ * invalidated}, so that {@link LiveSetting}s, {@link
+ * ConstantSetting}s and other invalidation listeners observe the
+ * change.</li>
+ *
+ * </ol>
+ *
+ * <p>Snapshots record raw, uninterpolated {@link Value}s, since a
+ * {@link Settings} <a
+ * href="{@docRoot}/overview-summary.html#interpolation">interpolates</a>
+ * every value it acquires.  Files are written in the same format as
+ * those written by {@link AccessRecorder}, and so without Java
+ * serialization; settings whose qualifiers cannot be written, or
+ * whose qualifiers' types are not present or usable when the file is
+ * read, are skipped.</p>
+ *
+ * <p><strong>Because snapshots record raw values, a snapshot file
+ * contains passwords and other secrets in plain text unless they are
+ * excluded</strong> when it is {@linkplain
+ * AccessRecorder#writeSnapshot(Path, java.util.function.Predicate)
+ * written}.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @threadsafety Instances of this class are safe for concurrent use
+ * by multiple threads.
+ *
+ * @see AccessRecorder#writeSnapshot(Path)
+ *
+ * @see #read(Path)
+ */
+public final class SettingsSnapshot {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final int VERSION = 2;
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final long timestamp;
+
+  private final Source source;
+
+  // Keyed by setting name and requested qualifiers.  A null value
+  // records that no value could be sourced.
+  private final Map<Entry<String, Set<Annotation>>, Value> values;
+
+  private volatile boolean serving;
+
+  private volatile BiFunction<? super String,
+                              ? super Set<Annotation>,
+                              ? extends Set<? extends Source>> sourcesFunction;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private SettingsSnapshot(final long timestamp) {
+    super();
+    this.timestamp = timestamp;
+    this.source = new SnapshotSource();
+    this.values = new HashMap<>();
+    this.serving = true;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the time at which this {@link SettingsSnapshot} was
+   * written, in milliseconds since the epoch.
+   *
+   * @return the time at which this {@link SettingsSnapshot} was
+   * written
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see System#currentTimeMillis()
+   */
+  public final long getTimestamp() {
+    return this.timestamp;
+  }
+
+  /**
+   * Returns {@code true} if this {@link SettingsSnapshot} is still
+   * serving the settings it records, that is, if it has not yet been
+   * {@linkplain #revalidate(Settings, Executor) revalidated}.
+   *
+   * @return {@code true} if this {@link SettingsSnapshot} is still
+   * serving the settings it records
+   *
+   * @idempotency This method is idempotent and deterministic until
+   * revalidation completes.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final boolean isServing() {
+    return this.serving;
+  }
+
+  /**
+   * Returns a {@link BiFunction} suitable for {@linkplain
+   * Settings#Settings(Set, BiFunction, ConverterProvider, Iterable,
+   * Interpolator) supplying <code>Source</code>s to a
+   * <code>Settings</code>} that, while this {@link SettingsSnapshot}
+   * is {@linkplain #isServing() serving}, returns a {@link Set}
+   * containing only a {@link Source} backed by this {@link
+   * SettingsSnapshot} for any setting it records, and otherwise
+   * delegates to the supplied {@link BiFunction}.
+   *
+   * <p>This method may be called only once.</p>
+   *
+   * @param sourcesFunction the {@link BiFunction} to wrap; must not
+   * be {@code null}
+   *
+   * @return a {@link BiFunction}; never {@code null}
+   *
+   * @exception NullPointerException if {@code sourcesFunction} is
+   * {@code null}
+   *
+   * @exception IllegalStateException if this method has already been
+   * called
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final synchronized BiFunction<String, Set<Annotation>, Set<? extends Source>> wrap(final BiFunction<? super String,
+                                                                                                          ? super Set<Annotation>,
+                                                                                                          ? extends Set<? extends Source>> sourcesFunction) {
+    Objects.requireNonNull(sourcesFunction);
+    if (this.sourcesFunction != null) {
+      throw new IllegalStateException();
+    }
+    this.sourcesFunction = sourcesFunction;
+    final Set<Source> snapshotSources = Collections.singleton(this.source);
+    return (name, qualifiers) -> {
+      if (this.serving && this.values.containsKey(key(name, qualifiers))) {
+        return snapshotSources;
+      }
+      return sourcesFunction.apply(name, qualifiers);
+    };
+  }
+
+  /**
+   * Using the supplied {@link Executor}, acquires every setting
+   * recorded by this {@link SettingsSnapshot} from the {@link
+   * Source}s returned by the {@link BiFunction} it {@linkplain
+   * #wrap(BiFunction) wrapped}, stops {@linkplain #isServing()
+   * serving} them, {@linkplain Settings#refreshSources() refreshes}
+   * the {@link Source}s of the supplied {@link Settings}, and
+   * {@linkplain Settings#invalidate(String, Set) invalidates} in it
+   * every setting whose {@link Value} differed from the one recorded.
+   *
+   * <p>A setting differs if it is now present and was not, or vice
+   * versa, or if its {@linkplain Value#get() value} or {@linkplain
+   * Value#getQualifiers() qualifiers} differ.  A setting whose {@link
+   * Value} can no longer be acquired because of an error is treated
+   * as having changed, so that the error surfaces when it is next
+   * read.</p>
+   *
+   * @param settings the {@link Settings} whose sources {@link
+   * BiFunction} was {@linkplain #wrap(BiFunction) produced} by this
+   * {@link SettingsSnapshot}; must not be {@code null}
+   *
+   * @param executor the {@link Executor} on which revalidation will
+   * run; must not be {@code null}
+   *
+   * @return a {@link CompletableFuture} that completes, with an
+   * unmodifiable {@link Set} of the names and qualifiers of the
+   * settings that were invalidated, once revalidation is finished;
+   * never {@code null}
+   *
+   * @exception NullPointerException if either parameter is {@code
+   * null}
+   *
+   * @exception IllegalStateException if the {@link
+   * #wrap(BiFunction)} method has not been called
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public final CompletableFuture<Set<Entry<String, Set<Annotation>>>> revalidate(final Settings settings,
+                                                                                final Executor executor) {
+    Objects.requireNonNull(settings);
+    Objects.requireNonNull(executor);
+    final BiFunction<? super String, ? super Set<Annotation>, ? extends Set<? extends Source>> sourcesFunction =
+      this.sourcesFunction;
+    if (sourcesFunction == null) {
+      throw new IllegalStateException();
+    }
+    return CompletableFuture.supplyAsync(() -> {
+        final Set<Entry<String, Set<Annotation>>> changes = new LinkedHashSet<>();
+        for (final Entry<Entry<String, Set<Annotation>>, Value> entry : this.values.entrySet()) {
+          final Entry<String, Set<Annotation>> key = entry.getKey();
+          final String name = key.getKey();
+          final Set<Annotation> qualifiers = key.getValue();
+          Value value;
+          try {
+            value = settings.getValue(sourcesFunction.apply(name, qualifiers), name, qualifiers);
+          } catch (final RuntimeException acquisitionFailure) {
+            changes.add(key);
+            continue;
+          }
+          if (!equals(entry.getValue(), value)) {
+            changes.add(key);
+          }
+        }
+        // Stop serving before invalidating, so that invalidation
+        // listeners reacquire values from the real Sources, including
+        // those that resolved their Sources while the snapshot was
+        // serving.
+        this.serving = false;
+        settings.refreshSources();
+        for (final Entry<String, Set<Annotation>> change : changes) {
+          settings.invalidate(change.getKey(), change.getValue());
+        }
+        return Collections.unmodifiableSet(changes);
+      }, executor);
+  }
+
+  @Override
+  public final String toString() {
+    return this.values.keySet().toString();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Reads a {@link SettingsSnapshot} from a file written by the
+   * {@link AccessRecorder#writeSnapshot(Path)} method.
+   *
+   * @param path the {@link Path} of the file to read; must not be
+   * {@code null}
+   *
+   * @return a new {@link SettingsSnapshot} that is {@linkplain
+   * #isServing() serving}; never {@code null}
+   *
+   * @exception NullPointerException if {@code path} is {@code null}
+   *
+   * @exception IOException if the file could not be read
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic provided
+   * that the file does not change.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  public static final SettingsSnapshot read(final Path path) throws IOException {
+    try (final DataInputStream in = AnnotationCodec.newDataInputStream(path)) {
+      final int version = in.readInt();
+      if (version != VERSION) {
+        throw new StreamCorruptedException("Unsupported version: " + version);
+      }
+      final SettingsSnapshot returnValue = new SettingsSnapshot(in.readLong());
+      final int size = AnnotationCodec.readSize(in);
+      for (int i = 0; i < size; i++) {
+        final String name = in.readUTF();
+        final Set<Annotation> qualifiers = AnnotationCodec.readQualifiers(in);
+        final Value value;
+        final boolean complete;
+        if (in.readBoolean()) {
+          final Set<Annotation> valueQualifiers = AnnotationCodec.readQualifiers(in);
+          final boolean authoritative = in.readBoolean();
+          final String v = AnnotationCodec.readString(in);
+          complete = qualifiers != null && valueQualifiers != null;
+          value = complete ? new Value(returnValue.source, name, valueQualifiers, authoritative, v) : null;
+        } else {
+          complete = qualifiers != null;
+          value = null;
+        }
+        if (complete) {
+          returnValue.values.put(key(name, qualifiers), value);
+        }
+      }
+      return returnValue;
+    }
+  }
+
+  static final void write(final DataOutputStream out,
+                          final Settings settings,
+                          final Collection<? extends Entry<String, Set<Annotation>>> accesses)
+    throws IOException {
+    final long timestamp = System.currentTimeMillis();
+    final List<Record> records = new ArrayList<>(accesses.size());
+    for (final Entry<String, Set<Annotation>> access : accesses) {
+      final byte[] qualifiers = AnnotationCodec.encodeQualifiers(access.getValue());
+      if (qualifiers == null) {
+        continue;
+      }
+      final Value value;
+      try {
+        value = settings.getValue(access.getKey(), access.getValue());
+      } catch (final RuntimeException acquisitionFailure) {
+        // Leave the setting to be acquired normally.
+        continue;
+      }
+      final byte[] valueQualifiers;
+      if (value == null) {
+        valueQualifiers = null;
+      } else {
+        valueQualifiers = AnnotationCodec.encodeQualifiers(value.getQualifiers());
+        if (valueQualifiers == null) {
+          continue;
+        }
+      }
+      records.add(new Record(access.getKey(), qualifiers, value, valueQualifiers));
+    }
+    out.writeInt(VERSION);
+    out.writeLong(timestamp);
+    out.writeInt(records.size());
+    for (final Record record : records) {
+      out.writeUTF(record.name);
+      out.write(record.qualifiers);
+      final Value value = record.value;
+      if (value == null) {
+        out.writeBoolean(false);
+      } else {
+        out.writeBoolean(true);
+        out.write(record.valueQualifiers);
+        out.writeBoolean(value.isAuthoritative());
+        AnnotationCodec.writeString(out, value.get());
+      }
+    }
+  }
+
+  private static final Entry<String, Set<Annotation>> key(final String name, final Set<Annotation> qualifiers) {
+    return new SimpleImmutableEntry<>(name, qualifiers == null ? Collections.emptySet() : qualifiers);
+  }
+
+  private static final boolean equals(final Value snapshotValue, final Value value) {
+    if (snapshotValue == null) {
+      return value == null;
+    } else if (value == null) {
+      return false;
+    }
+    return Objects.equals(snapshotValue.get(), value.get()) && snapshotValue.getQualifiers().equals(value.getQualifiers());
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private final class SnapshotSource extends Source {
+
+    private SnapshotSource() {
+      super();
+    }
+
+    @Override
+    public final Value getValue(final String name, final Set<Annotation> qualifiers) {
+      return values.get(key(name, qualifiers));
+    }
+
+    @Override
+    public final String toString() {
+      return "Snapshot of " + timestamp;
+    }
+
+  }
+
+  // A setting to be written, with its qualifiers and those of its
+  // Value already encoded.
+  private static final class Record {
+
+    private final String name;
+
+    private final byte[] qualifiers;
+
+    private final Value value;
+
+    private final byte[] valueQualifiers;
+
+    private Record(final String name, final byte[] qualifiers, final Value value, final byte[] valueQualifiers) {
+      super();
+      this.name = name;
+      this.qualifiers = qualifiers;
+      this.value = value;
+      this.valueQualifiers = valueQualifiers;
+    }
+
+  }
+
+}
@@ -0,0 +1,626 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings.processor;
+
+import java.beans.Introspector;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+
+import javax.lang.model.SourceVersion;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+import javax.lang.model.util.ElementFilter;
+
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.microbean.settings.Configured;
+import org.microbean.settings.Configurator;
+import org.microbean.settings.Setting;
+
+/**
+ * An {@link AbstractProcessor} that generates, at compile time, a
+ * {@link Configurator} for each eligible class that uses {@link
+ * Setting}s or is {@link Configured}, and an index describing every
+ * setting it binds.
+ *
+ * <p>A class is processed if it is annotated with {@link Setting}
+ * or {@link Configured}, if it declares a field annotated with {@link
+ * Setting}, or if it is the type of a field, parameter or producer
+ * method annotated with {@link Configured}, and if it is being
+ * compiled in the same compilation.</p>
+ *
+ * <p>The generated {@link Configurator} binds the same properties
+ * that {@link org.microbean.settings.Settings#configure(Object,
+ * String, Set)} would discover by introspection: every writable Java
+ * Bean property, in property name order, followed by every
+ * non-{@code static}, non-{@code final} field annotated with {@link
+ * Setting} that is not also annotated with {@code
+ * javax.inject.Inject}.  It is named according to the convention
+ * documented by the {@link Configurator} interface and so is used in
+ * preference to introspection at run time.</p>
+ *
+ * <p>A class for which code cannot be generated that behaves exactly
+ * as introspection would is skipped, and is configured by
+ * introspection at run time as usual.  This is the case if, among
+ * other things, the class is abstract, generic, private or local, has
+ * an explicit {@link java.beans.BeanInfo}, has overloaded or indexed
+ * setters, has a setter that declares exceptions or disagrees in type
+ * with its getter, or has a property or field whose type is neither
+ * primitive nor in a {@code java} or {@code javax} package (and so
+ * might be a nested bean), or that cannot be reached from the class'
+ * package.</p>
+ *
+ * <p>Once processing is over, a class output resource named {@value
+ * #INDEX_RESOURCE_NAME} is written.  Each of its lines describes one
+ * setting bound by a generated {@link Configurator} and consists of
+ * the following tab-separated columns: the binary name of the
+ * configured class, the setting name (relative to any prefix), the
+ * type of the setting, its default value (empty if there is none) and
+ * {@code true} or {@code false} depending on whether it is required.
+ * Tabs, newlines and backslashes within columns are escaped as they
+ * would be in a Java string literal.</p>
+ *
+ * <p>This processor is deliberately not registered as a {@linkplain
+ * java.util.ServiceLoader service}, so it does not run merely
+ * because this library is on a compilation's class path.  To use it,
+ * name it explicitly, for example with {@code javac}'s {@code
+ * -processor org.microbean.settings.processor.SettingsProcessor}
+ * option or, with Maven, in the {@code annotationProcessors} element
+ * of the {@code maven-compiler-plugin}'s configuration.  Note that
+ * naming any processor explicitly disables discovery of all
+ * others.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson"
+ * target="_parent">Laird Nelson</a>
+ *
+ * @threadsafety Instances of this class are not safe for concurrent
+ * use by multiple threads, which is consistent with how annotation
+ * processors are used.
+ *
+ * @see Configurator
+ */
+@SupportedAnnotationTypes({ "org.microbean.settings.Configured", "org.microbean.settings.Setting" })
+public final class SettingsProcessor extends AbstractProcessor {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  /**
+   * The name of the class output resource listing every setting bound
+   * by a generated {@link Configurator}.
+   *
+   * @nullability This field is never {@code null}.
+   */
+  public static final String INDEX_RESOURCE_NAME = "META-INF/org.microbean.settings/settings.idx";
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Set<String> processedClassNames;
+
+  private final List<String> indexLines;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link SettingsProcessor}.
+   */
+  public SettingsProcessor() {
+    super();
+    this.processedClassNames = new HashSet<>();
+    this.indexLines = new ArrayList<>();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@link SourceVersion#latestSupported()} when invoked.
+   *
+   * @return {@link SourceVersion#latestSupported()}
+   *
+   * @nullability This method never returns {@code null}.
+   */
+  @Override
+  public final SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  /**
+   * Generates a {@link Configurator} for each eligible class found in
+   * the supplied {@link RoundEnvironment} and, once processing is
+   * over, writes the {@linkplain #INDEX_RESOURCE_NAME index}.
+   *
+   * @param annotations the annotation types requested to be
+   * processed; ignored
+   *
+   * @param roundEnvironment the {@link RoundEnvironment} describing
+   * the current round; must not be {@code null}
+   *
+   * @return {@code false} in all cases, so that other processors may
+   * also process the {@link Setting} and {@link Configured}
+   * annotations
+   */
+  @Override
+  public final boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+    if (roundEnvironment.processingOver()) {
+      this.writeIndex();
+      return false;
+    }
+    // Classes found only because they declare @Setting fields (which
+    // may all be injected) get no Configurator if they have nothing
+    // to configure.
+    final Map<TypeElement, Boolean> candidates = new LinkedHashMap<>();
+    for (final Element element : roundEnvironment.getElementsAnnotatedWith(Setting.class)) {
+      if (element.getKind() == ElementKind.CLASS) {
+        candidates.put((TypeElement)element, Boolean.TRUE);
+      } else if (element.getKind() == ElementKind.FIELD) {
+        candidates.putIfAbsent((TypeElement)element.getEnclosingElement(), Boolean.FALSE);
+      }
+    }
+    for (final Element element : roundEnvironment.getElementsAnnotatedWith(Configured.class)) {
+      final TypeMirror type;
+      switch (element.getKind()) {
+      case CLASS:
+      case FIELD:
+      case PARAMETER:
+        type = element.asType();
+        break;
+      case METHOD:
+        type = ((ExecutableElement)element).getReturnType();
+        break;
+      default:
+        type = null;
+        break;
+      }
+      if (type != null && type.getKind() == TypeKind.DECLARED) {
+        final Element typeElement = ((DeclaredType)type).asElement();
+        if (typeElement.getKind() == ElementKind.CLASS) {
+          candidates.put((TypeElement)typeElement, Boolean.TRUE);
+        }
+      }
+    }
+    final Set<? extends Element> rootElements = roundEnvironment.getRootElements();
+    for (final Map.Entry<TypeElement, Boolean> entry : candidates.entrySet()) {
+      final TypeElement candidate = entry.getKey();
+      if (rootElements.contains(getOutermostTypeElement(candidate)) &&
+          this.processedClassNames.add(candidate.getQualifiedName().toString())) {
+        final List<Property> properties = this.getProperties(candidate);
+        if (properties != null && (!properties.isEmpty() || entry.getValue().booleanValue())) {
+          try {
+            this.generate(candidate, properties);
+          } catch (final IOException ioException) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ioException.toString(), candidate);
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  // Returns null if the supplied class is not eligible.
+  private final List<Property> getProperties(final TypeElement typeElement) {
+    if (typeElement.getKind() != ElementKind.CLASS ||
+        typeElement.getModifiers().contains(Modifier.ABSTRACT) ||
+        !typeElement.getTypeParameters().isEmpty()) {
+      return null;
+    }
+    for (Element e = typeElement; e instanceof TypeElement; e = e.getEnclosingElement()) {
+      final TypeElement t = (TypeElement)e;
+      if (t.getModifiers().contains(Modifier.PRIVATE) ||
+          (t.getNestingKind() != NestingKind.TOP_LEVEL && t.getNestingKind() != NestingKind.MEMBER)) {
+        return null;
+      }
+    }
+    final PackageElement packageElement = this.processingEnv.getElementUtils().getPackageOf(typeElement);
+
+    final Map<String, String> setterTypes = new HashMap<>();
+    final Map<String, String> getterTypes = new HashMap<>();
+    final Map<String, Property> beanProperties = new TreeMap<>();
+    final List<Property> fieldProperties = new ArrayList<>();
+    final Set<String> fieldNames = new HashSet<>();
+    for (TypeElement t = typeElement; t != null; t = getSuperclass(t)) {
+      if (this.processingEnv.getElementUtils().getTypeElement(t.getQualifiedName() + "BeanInfo") != null) {
+        return null;
+      }
+      final boolean accessible =
+        t.getModifiers().contains(Modifier.PUBLIC) || packageElement.equals(this.processingEnv.getElementUtils().getPackageOf(t));
+
+      for (final ExecutableElement method : ElementFilter.methodsIn(t.getEnclosedElements())) {
+        final Set<Modifier> modifiers = method.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) {
+          continue;
+        }
+        final String methodName = method.getSimpleName().toString();
+        final List<? extends VariableElement> parameters = method.getParameters();
+        if (methodName.length() > 3 && methodName.startsWith("set") && method.getReturnType().getKind() == TypeKind.VOID) {
+          if (parameters.size() == 2 && parameters.get(0).asType().getKind() == TypeKind.INT) {
+            // An indexed setter.
+            return null;
+          } else if (parameters.size() == 1) {
+            final TypeMirror type = parameters.get(0).asType();
+            final String typeName = this.render(type);
+            if (typeName == null) {
+              return null;
+            }
+            final String previousTypeName = setterTypes.putIfAbsent(methodName, typeName);
+            if (previousTypeName != null) {
+              if (!previousTypeName.equals(typeName)) {
+                // An overloaded setter.
+                return null;
+              }
+              // An overridden setter.
+              continue;
+            }
+            if (!accessible || !method.getThrownTypes().isEmpty()) {
+              return null;
+            }
+            final String name = Introspector.decapitalize(methodName.substring(3));
+            beanProperties.put(name, new Property(name, type, typeName, methodName, true, null, false));
+          }
+        } else if (parameters.isEmpty() && method.getReturnType().getKind() != TypeKind.VOID) {
+          final String name;
+          if (methodName.length() > 3 && methodName.startsWith("get")) {
+            name = Introspector.decapitalize(methodName.substring(3));
+          } else if (methodName.length() > 2 &&
+                     methodName.startsWith("is") &&
+                     method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+            name = Introspector.decapitalize(methodName.substring(2));
+          } else {
+            continue;
+          }
+          getterTypes.putIfAbsent(name, this.render(method.getReturnType()));
+        }
+      }
+
+      for (final VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+        if (!fieldNames.add(field.getSimpleName().toString())) {
+          // A hidden field.
+          return null;
+        }
+        final Setting setting = field.getAnnotation(Setting.class);
+        if (setting == null || isInjected(field)) {
+          continue;
+        }
+        final Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+          continue;
+        }
+        if (modifiers.contains(Modifier.PRIVATE) ||
+            (!packageElement.equals(this.processingEnv.getElementUtils().getPackageOf(t)) &&
+             !(modifiers.contains(Modifier.PUBLIC) && t.getModifiers().contains(Modifier.PUBLIC)))) {
+          return null;
+        }
+        final TypeMirror type = field.asType();
+        final String typeName = this.render(type);
+        if (typeName == null) {
+          return null;
+        }
+        String name = setting.name();
+        if (name == null || name.isEmpty() || name.equals(Setting.UNSET)) {
+          name = field.getSimpleName().toString();
+        }
+        final String defaultValue = setting.defaultValue();
+        fieldProperties.add(new Property(name,
+                                         type,
+                                         typeName,
+                                         field.getSimpleName().toString(),
+                                         false,
+                                         defaultValue == null || defaultValue.equals(Setting.UNSET) ? null : defaultValue,
+                                         setting.required()));
+      }
+    }
+
+    for (final Property property : beanProperties.values()) {
+      final String getterType = getterTypes.get(property.name);
+      if (getterType != null && !getterType.equals(property.typeName)) {
+        return null;
+      }
+    }
+    final List<Property> returnValue = new ArrayList<>(beanProperties.values());
+    returnValue.addAll(fieldProperties);
+    return returnValue;
+  }
+
+  private final TypeElement getSuperclass(final TypeElement typeElement) {
+    final TypeMirror superclass = typeElement.getSuperclass();
+    if (superclass.getKind() == TypeKind.DECLARED) {
+      final TypeElement returnValue = (TypeElement)((DeclaredType)superclass).asElement();
+      if (!returnValue.getQualifiedName().contentEquals("java.lang.Object")) {
+        return returnValue;
+      }
+    }
+    return null;
+  }
+
+  // Returns the source form of the supplied type, or null if it
+  // cannot be bound without introspection.
+  private final String render(final TypeMirror type) {
+    final String returnValue;
+    switch (type.getKind()) {
+    case BOOLEAN:
+    case BYTE:
+    case CHAR:
+    case DOUBLE:
+    case FLOAT:
+    case INT:
+    case LONG:
+    case SHORT:
+      returnValue = type.getKind().name().toLowerCase(Locale.ROOT);
+      break;
+    case ARRAY:
+      final String componentTypeName = this.render(((ArrayType)type).getComponentType());
+      returnValue = componentTypeName == null ? null : componentTypeName + "[]";
+      break;
+    case DECLARED:
+      final DeclaredType declaredType = (DeclaredType)type;
+      final String name = ((TypeElement)declaredType.asElement()).getQualifiedName().toString();
+      if (!name.startsWith("java.") && !name.startsWith("javax.")) {
+        returnValue = null;
+        break;
+      }
+      final List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+      if (typeArguments.isEmpty()) {
+        returnValue = name;
+        break;
+      }
+      final StringBuilder sb = new StringBuilder(name).append('<');
+      for (int i = 0; i < typeArguments.size(); i++) {
+        final String typeArgumentName = this.render(typeArguments.get(i));
+        if (typeArgumentName == null) {
+          return null;
+        }
+        if (i > 0) {
+          sb.append(", ");
+        }
+        sb.append(typeArgumentName);
+      }
+      returnValue = sb.append('>').toString();
+      break;
+    default:
+      returnValue = null;
+      break;
+    }
+    return returnValue;
+  }
+
+  private final void generate(final TypeElement typeElement, final List<Property> properties) throws IOException {
+    final String packageName =
+      this.processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+    final String binaryName = this.processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+    final String qualifiedName = Configurator.getGeneratedClassName(binaryName);
+    final String simpleName = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+    final String className = typeElement.getQualifiedName().toString();
+
+    try (final Writer writer = this.processingEnv.getFiler().createSourceFile(qualifiedName, typeElement).openWriter();
+         final PrintWriter out = new PrintWriter(writer)) {
+      out.println("// Generated by " + SettingsProcessor.class.getName() + ".  Do not edit.");
+      if (!packageName.isEmpty()) {
+        out.println("package " + packageName + ";");
+      }
+      out.println();
+      out.println("public final class " + simpleName +
+                  " implements org.microbean.settings.Configurator<" + className + "> {");
+      out.println();
+      for (int i = 0; i < properties.size(); i++) {
+        final String typeName = properties.get(i).typeName;
+        out.print("  private static final java.lang.reflect.Type TYPE_" + i + " = ");
+        if (typeName.indexOf('<') < 0) {
+          out.println(typeName + ".class;");
+        } else {
+          out.println("new javax.enterprise.util.TypeLiteral<" + typeName + ">() {");
+          out.println("      private static final long serialVersionUID = 1L;");
+          out.println("    }.getType();");
+        }
+        out.println();
+      }
+      out.println("  public " + simpleName + "() {");
+      out.println("    super();");
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  @SuppressWarnings(\"unchecked\")");
+      out.println("  public final void configure(final org.microbean.settings.Settings settings,");
+      out.println("                              final " + className + " object,");
+      out.println("                              final java.lang.String prefix,");
+      out.println("                              final java.util.Set<java.lang.annotation.Annotation> qualifiers) {");
+      out.println("    java.util.Objects.requireNonNull(settings);");
+      out.println("    java.util.Objects.requireNonNull(object);");
+      out.println("    final java.lang.String p = prefix == null ? \"\" : prefix;");
+      if (!properties.isEmpty()) {
+        out.println("    java.util.Optional<?> value;");
+      }
+      for (int i = 0; i < properties.size(); i++) {
+        final Property property = properties.get(i);
+        final String castType;
+        if (property.type.getKind().isPrimitive()) {
+          castType =
+            this.processingEnv.getTypeUtils().boxedClass((PrimitiveType)property.type).getQualifiedName().toString();
+        } else {
+          castType = property.typeName;
+        }
+        final String settingName = this.processingEnv.getElementUtils().getConstantExpression(property.name);
+        final String value;
+        if (property.defaultValue != null) {
+          value = "(" + castType + ")settings.get(p.concat(" + settingName + "), qualifiers, TYPE_" + i + ", (n, qs) -> " +
+            this.processingEnv.getElementUtils().getConstantExpression(property.defaultValue) + ")";
+        } else if (property.required) {
+          value = "(" + castType + ")settings.get(p.concat(" + settingName + "), qualifiers, TYPE_" + i + ")";
+        } else {
+          out.println("    value = settings.find(p.concat(" + settingName + "), qualifiers, TYPE_" + i + ");");
+          out.println("    if (value.isPresent()) {");
+          out.println("      " + property.assignment("(" + castType + ")value.get()"));
+          out.println("    }");
+          value = null;
+        }
+        if (value != null) {
+          out.println("    " + property.assignment(value));
+        }
+        this.indexLines.add(escape(binaryName) + '\t' +
+                            escape(property.name) + '\t' +
+                            escape(property.typeName) + '\t' +
+                            (property.defaultValue == null ? "" : escape(property.defaultValue)) + '\t' +
+                            property.required);
+      }
+      out.println("  }");
+      out.println();
+      out.println("}");
+    }
+  }
+
+  private final void writeIndex() {
+    if (this.indexLines.isEmpty()) {
+      return;
+    }
+    try {
+      final FileObject index =
+        this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE_NAME);
+      try (final Writer writer = index.openWriter();
+           final PrintWriter out = new PrintWriter(writer)) {
+        for (final String line : this.indexLines) {
+          out.print(line);
+          out.print('\n');
+        }
+      }
+    } catch (final IOException ioException) {
+      this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ioException.toString());
+    }
+    this.indexLines.clear();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final TypeElement getOutermostTypeElement(final TypeElement typeElement) {
+    TypeElement returnValue = typeElement;
+    for (Element e = typeElement.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+      returnValue = (TypeElement)e;
+    }
+    return returnValue;
+  }
+
+  private static final boolean isInjected(final Element element) {
+    for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      if (((TypeElement)annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals("javax.inject.Inject")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final String escape(final String s) {
+    return s.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class Property {
+
+    private final String name;
+
+    private final TypeMirror type;
+
+    private final String typeName;
+
+    private final String memberName;
+
+    private final boolean setter;
+
+    private final String defaultValue;
+
+    private final boolean required;
+
+    private Property(final String name,
+                     final TypeMirror type,
+                     final String typeName,
+                     final String memberName,
+                     final boolean setter,
+                     final String defaultValue,
+                     final boolean required) {
+      super();
+      this.name = name;
+      this.type = type;
+      this.typeName = typeName;
+      this.memberName = memberName;
+      this.setter = setter;
+      this.defaultValue = defaultValue;
+      this.required = required;
+    }
+
+    private final String assignment(final String value) {
+      if (this.setter) {
+        return "object." + this.memberName + "(" + value + ");";
+      }
+      return "object." + this.memberName + " = " + value + ";";
+    }
+
+  }
+
+}
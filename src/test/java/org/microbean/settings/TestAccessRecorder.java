@@ -0,0 +1,167 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.StreamCorruptedException;
+
+import java.lang.annotation.Annotation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.inject.Default;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestAccessRecorder {
+
+  private Path directory;
+
+  private List<Entry<String, Set<Annotation>>> reads;
+
+  public TestAccessRecorder() {
+    super();
+  }
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    this.directory = Files.createTempDirectory("access-recorder");
+    this.reads = new CopyOnWriteArrayList<>();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    if (this.directory != null) {
+      Files.walk(this.directory)
+        .sorted(Collections.reverseOrder())
+        .map(Path::toFile)
+        .forEach(File::delete);
+    }
+  }
+
+  @Test
+  public void testRecordAndPrefetch() throws Exception {
+    final Path file = this.directory.resolve("accesses");
+    final Set<Annotation> qualifiers = Collections.singleton(Default.Literal.INSTANCE);
+    // Qualifiers with members are written member by member.
+    final Set<Annotation> settingQualifiers = Collections.singleton(new Setting.Literal("recorded.member", "none", false));
+
+    final Settings settings = this.newSettings();
+    final LiveSetting<String> live = settings.live("recorded.live", null, String.class);
+    try (final AccessRecorder recorder = settings.recordAccesses(file)) {
+      assertEquals(file, recorder.getPath());
+      assertEquals("recorded.plain", settings.get("recorded.plain"));
+      assertEquals("recorded.qualified", settings.withQualifiers(qualifiers).get("recorded.qualified"));
+      assertEquals("recorded.member", settings.withQualifiers(settingQualifiers).get("recorded.member"));
+      assertEquals("recorded.handle", settings.handle("recorded.handle", null, String.class).get());
+      // Reads of a cached value are recorded too.
+      assertEquals("recorded.live", live.get());
+      assertEquals("recorded.live", live.get());
+    }
+    assertTrue(Files.exists(file));
+    // Accesses are no longer recorded once the recorder is closed.
+    settings.get("recorded.late");
+
+    this.reads.clear();
+    this.newSettings().prefetch(file, Runnable::run).get();
+    assertEquals(5, this.reads.size());
+    assertTrue(this.reads.contains(new SimpleImmutableEntry<>("recorded.plain", Collections.emptySet())));
+    assertTrue(this.reads.contains(new SimpleImmutableEntry<>("recorded.qualified", qualifiers)));
+    assertTrue(this.reads.contains(new SimpleImmutableEntry<>("recorded.member", settingQualifiers)));
+    assertTrue(this.reads.contains(new SimpleImmutableEntry<>("recorded.handle", Collections.emptySet())));
+    assertTrue(this.reads.contains(new SimpleImmutableEntry<>("recorded.live", Collections.emptySet())));
+    assertFalse(this.reads.contains(new SimpleImmutableEntry<>("recorded.late", Collections.emptySet())));
+
+    // Qualifiers read back are equal, in both directions, to the
+    // ones recorded.
+    for (final Entry<String, Set<Annotation>> read : this.reads) {
+      if (read.getKey().equals("recorded.member")) {
+        final Annotation member = read.getValue().iterator().next();
+        assertEquals(member, settingQualifiers.iterator().next());
+        assertEquals(settingQualifiers.iterator().next(), member);
+        assertEquals(settingQualifiers.iterator().next().hashCode(), member.hashCode());
+        assertEquals("none", ((Setting)member).defaultValue());
+      }
+    }
+
+    // A missing file is not an error.
+    this.reads.clear();
+    this.newSettings().prefetch(this.directory.resolve("missing"), Runnable::run).get();
+    assertTrue(this.reads.isEmpty());
+  }
+
+  @Test
+  public void testCorruptFiles() throws Exception {
+    // Sizes and lengths larger than the rest of the file are rejected
+    // before anything is allocated for them.
+    final Path accesses = this.directory.resolve("accesses");
+    try (final DataOutputStream out = new DataOutputStream(Files.newOutputStream(accesses))) {
+      out.writeInt(2); // version
+      out.writeInt(1);
+      out.writeUTF("corrupt");
+      out.writeInt(Integer.MAX_VALUE); // number of qualifiers
+    }
+    assertThrows(StreamCorruptedException.class, () -> AccessRecorder.read(accesses));
+
+    final Path snapshot = this.directory.resolve("snapshot");
+    try (final DataOutputStream out = new DataOutputStream(Files.newOutputStream(snapshot))) {
+      out.writeInt(2); // version
+      out.writeLong(0L);
+      out.writeInt(1);
+      out.writeUTF("corrupt");
+      out.writeInt(0); // no qualifiers
+      out.writeBoolean(true);
+      out.writeInt(0); // no value qualifiers
+      out.writeBoolean(true);
+      out.writeInt(Integer.MAX_VALUE); // length of the value
+    }
+    assertThrows(StreamCorruptedException.class, () -> SettingsSnapshot.read(snapshot));
+  }
+
+  private final Settings newSettings() {
+    final Source source = new Source() {
+        @Override
+        public final Value getValue(final String name, final Set<Annotation> qualifiers) {
+          reads.add(new SimpleImmutableEntry<>(name, qualifiers));
+          return new Value(this, name, qualifiers, name);
+        }
+      };
+    return new Settings(null,
+                        (name, qualifiers) -> Collections.singleton(source),
+                        new Converters(),
+                        null,
+                        new PlaceholderInterpolator());
+  }
+
+}
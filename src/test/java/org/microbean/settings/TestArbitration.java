@@ -0,0 +1,89 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestArbitration {
+
+  public TestArbitration() {
+    super();
+  }
+
+  @Test
+  public void testArbiterChainIsMaterialized() {
+    final List<Arbiter> arbiterList = new CopyOnWriteArrayList<>();
+    final AtomicInteger iterations = new AtomicInteger();
+    final Iterable<Arbiter> arbiters = () -> {
+      iterations.incrementAndGet();
+      return arbiterList.iterator();
+    };
+    final Settings settings = new Settings(null, null, new Converters(), arbiters, null);
+    final Set<Source> sources = Collections.emptySet();
+    final Set<Annotation> qualifiers = Collections.emptySet();
+    final Collection<Value> values = Collections.emptySet();
+    assertEquals(0, iterations.get());
+    assertNull(settings.arbitrate(sources, "a", qualifiers, values));
+    assertNull(settings.arbitrate(sources, "a", qualifiers, values));
+    assertEquals(1, iterations.get());
+
+    final Value value = new Value(null, "a", qualifiers, "b");
+    arbiterList.add(new FixedArbiter(value));
+    // Not seen until the chain is refreshed.
+    assertNull(settings.arbitrate(sources, "a", qualifiers, values));
+    settings.refreshArbiters();
+    assertEquals(2, iterations.get());
+    assertEquals(value, settings.arbitrate(sources, "a", qualifiers, values));
+  }
+
+  private static final class FixedArbiter extends Arbiter {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Value value;
+
+    private FixedArbiter(final Value value) {
+      super();
+      this.value = value;
+    }
+
+    @Override
+    public final Value arbitrate(final Set<? extends Source> sources,
+                                 final String name,
+                                 final Set<? extends Annotation> qualifiers,
+                                 final Collection<? extends Value> values) {
+      return this.value;
+    }
+
+  }
+
+}
@@ -22,6 +22,8 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 
+import java.util.function.Supplier;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.context.Initialized;
@@ -79,6 +81,17 @@ public class TestBasicInjection {
   @Setting(name = "nonexistent", defaultValue = "${settings[\"java.home\"]}")
   private String nonexistent;
 
+  @Inject
+  @Setting(name = "test.list")
+  private LiveSetting<String> liveTestList;
+
+  @Inject
+  @Setting(name = "cls", defaultValue = "java.lang.Integer")
+  private Supplier<Class<?>> clsSupplier;
+
+  @Inject
+  private Settings settings;
+
   @Inject
   @Configured
   private Person configuredPerson;
@@ -142,6 +155,14 @@ public class TestBasicInjection {
     assertNotNull(this.configuredPerson);
     assertEquals("Abraham", this.configuredPerson.getFirstName());
     assertNull(this.configuredPerson.getLastName());
+    assertEquals(Integer.class, this.clsSupplier.get());
+    assertEquals("a,b,c", this.liveTestList.get());
+    System.setProperty("test.list", "d,e");
+    // Live settings change only when invalidated.
+    assertEquals("a,b,c", this.liveTestList.get());
+    this.settings.invalidate("test.list", null);
+    assertEquals("d,e", this.liveTestList.get());
+    System.setProperty("test.list", "a,b,c");
     
   }
 
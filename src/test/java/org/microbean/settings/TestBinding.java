@@ -0,0 +1,128 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.beans.ConstructorProperties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestBinding {
+
+  private Settings settings;
+
+  public TestBinding() {
+    super();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    System.setProperty("pool.url", "jdbc:h2:mem:test");
+    System.setProperty("pool.size", "8");
+    this.settings = new Settings();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    System.clearProperty("pool.size");
+    System.clearProperty("pool.url");
+  }
+
+  @Test
+  public void testConstructorBinding() throws ReflectiveOperationException {
+    final Pool pool = this.settings.bind(Pool.class, "pool.");
+    assertEquals("jdbc:h2:mem:test", pool.getUrl());
+    assertEquals(8, pool.getSize());
+    assertEquals(30L, pool.getTimeout());
+    assertNull(pool.getUser());
+    assertEquals(0, this.settings.bind(Pool.class, "nonexistent.").getSize());
+  }
+
+  @Test
+  public void testProxy() {
+    final PoolConfiguration configuration = this.settings.proxy(PoolConfiguration.class, "pool.");
+    assertEquals("jdbc:h2:mem:test", configuration.getUrl());
+    assertEquals(8, configuration.getSize());
+    assertEquals(30L, configuration.timeout());
+    System.setProperty("pool.size", "16");
+    assertEquals(8, configuration.getSize());
+    this.settings.invalidate("pool.size", null);
+    assertEquals(16, configuration.getSize());
+    assertEquals(0, this.settings.proxy(PoolConfiguration.class, "nonexistent.").getSize());
+    // A released proxy no longer sees invalidations.
+    this.settings.releaseProxy(configuration);
+    System.setProperty("pool.size", "32");
+    this.settings.invalidate("pool.size", null);
+    assertEquals(16, configuration.getSize());
+  }
+
+  public static interface PoolConfiguration {
+
+    public String getUrl();
+
+    public int getSize();
+
+    @Setting(name = "timeout", defaultValue = "30")
+    public long timeout();
+
+  }
+
+  public static final class Pool {
+
+    private final String url;
+
+    private final int size;
+
+    private final long timeout;
+
+    private final String user;
+
+    @ConstructorProperties({ "url", "size", "timeout", "user" })
+    public Pool(final String url,
+                final int size,
+                @Setting(name = "timeout", defaultValue = "30") final long timeout,
+                final String user) {
+      super();
+      this.url = url;
+      this.size = size;
+      this.timeout = timeout;
+      this.user = user;
+    }
+
+    public String getUrl() {
+      return this.url;
+    }
+
+    public int getSize() {
+      return this.size;
+    }
+
+    public long getTimeout() {
+      return this.timeout;
+    }
+
+    public String getUser() {
+      return this.user;
+    }
+
+  }
+
+}
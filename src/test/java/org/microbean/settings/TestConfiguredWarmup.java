@@ -0,0 +1,192 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.beans.SimpleBeanInfo;
+
+import java.lang.annotation.Annotation;
+
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.Initialized;
+
+import javax.enterprise.event.Observes;
+
+import javax.enterprise.inject.Instance;
+
+import javax.enterprise.inject.se.SeContainerInitializer;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ApplicationScoped
+public class TestConfiguredWarmup {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final AtomicInteger introspections = new AtomicInteger();
+
+  private static final AtomicInteger greetingReads = new AtomicInteger();
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private AutoCloseable container;
+
+  @Inject
+  private Instance<Holder> holders;
+
+  // @Configured beans are configured by the default Settings bean,
+  // which is installed only if something injects it.
+  @Inject
+  private Settings settings;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  public TestConfiguredWarmup() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @BeforeEach
+  public void startContainer() throws Exception {
+    this.stopContainer();
+    introspections.set(0);
+    greetingReads.set(0);
+    final SeContainerInitializer initializer = SeContainerInitializer.newInstance();
+    initializer.addBeanClasses(TestConfiguredWarmup.class, Holder.class, Warmed.class, GreetingSource.class);
+    this.container = initializer.initialize();
+  }
+
+  @AfterEach
+  public void stopContainer() throws Exception {
+    if (this.container != null) {
+      this.container.close();
+      this.container = null;
+    }
+  }
+
+  private void onStartup(@Observes @Initialized(ApplicationScoped.class) final Object event) {
+    // No @Configured Warmed has been created yet, but its
+    // Configurator, and hence its BeanInfo, was built, and its
+    // property values acquired, during deployment validation.
+    final int warmIntrospections = introspections.get();
+    assertTrue(warmIntrospections > 0);
+    assertTrue(greetingReads.get() > 0);
+    assertEquals("hello", this.holders.get().warmed.getWarmupGreeting());
+    assertEquals(warmIntrospections, introspections.get());
+  }
+
+  @Test
+  public void testWarmup() {
+
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  @Dependent
+  public static class Holder {
+
+    @Inject
+    @Configured
+    private Warmed warmed;
+
+    public Holder() {
+      super();
+    }
+
+  }
+
+  @Dependent
+  public static class Warmed {
+
+    private String warmupGreeting;
+
+    public Warmed() {
+      super();
+    }
+
+    public String getWarmupGreeting() {
+      return this.warmupGreeting;
+    }
+
+    public void setWarmupGreeting(final String warmupGreeting) {
+      this.warmupGreeting = warmupGreeting;
+    }
+
+  }
+
+  // Found by the Introspector by name; returns no descriptors of its
+  // own, so the Introspector falls back to reflection.
+  public static class WarmedBeanInfo extends SimpleBeanInfo {
+
+    public WarmedBeanInfo() {
+      super();
+      introspections.incrementAndGet();
+    }
+
+  }
+
+  @Dependent
+  private static class GreetingSource extends Source {
+
+    GreetingSource() {
+      super();
+    }
+
+    @Override
+    public Value getValue(final String name, final Set<Annotation> qualifiers) {
+      if ("warmupGreeting".equals(name)) {
+        greetingReads.incrementAndGet();
+        return new Value(this, name, qualifiers, "hello");
+      }
+      return null;
+    }
+
+  }
+
+}
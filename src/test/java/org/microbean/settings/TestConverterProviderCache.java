@@ -0,0 +1,220 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.Initialized;
+
+import javax.enterprise.event.Observes;
+
+import javax.enterprise.inject.se.SeContainerInitializer;
+
+import javax.enterprise.inject.spi.BeanManager;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@ApplicationScoped
+public class TestConverterProviderCache {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final AtomicInteger converterInstances = new AtomicInteger();
+
+  private static final AtomicInteger converterDestructions = new AtomicInteger();
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private AutoCloseable container;
+
+  @Inject
+  private BeanManager beanManager;
+
+  @Inject
+  @Setting(name = "widget")
+  private Widget widget;
+
+  @Inject
+  @Setting(name = "widget")
+  private Widget sameWidget;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  public TestConverterProviderCache() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @BeforeEach
+  public void startContainer() throws Exception {
+    this.stopContainer();
+    converterInstances.set(0);
+    converterDestructions.set(0);
+    final SeContainerInitializer initializer = SeContainerInitializer.newInstance();
+    initializer.addBeanClasses(TestConverterProviderCache.class, WidgetConverter.class, WidgetSource.class);
+    this.container = initializer.initialize();
+  }
+
+  @AfterEach
+  public void stopContainer() throws Exception {
+    if (this.container != null) {
+      this.container.close();
+      this.container = null;
+    }
+  }
+
+  private void onStartup(@Observes @Initialized(ApplicationScoped.class) final Object event) {
+    assertEquals("widget", this.widget.name);
+    assertEquals("widget", this.sameWidget.name);
+    // The installed ConverterProvider resolved the dependent
+    // Converter once and reused it.
+    assertEquals(1, converterInstances.get());
+
+    final AtomicInteger lookups = new AtomicInteger();
+    final BeanManager countingBeanManager = countLookups(this.beanManager, lookups);
+    final BeanManagerBackedReferences references = new BeanManagerBackedReferences(countingBeanManager);
+    final BeanManagerBackedConverterProvider converterProvider =
+      new BeanManagerBackedConverterProvider(countingBeanManager, null, references);
+    final Converter<?> converter = converterProvider.getConverter(Widget.class);
+    assertEquals(2, converterInstances.get());
+    final int lookupsAfterResolution = lookups.get();
+    // A repeated lookup consults neither the BeanManager nor the
+    // shared references.
+    assertSame(converter, converterProvider.getConverter(Widget.class));
+    assertEquals(lookupsAfterResolution, lookups.get());
+    assertEquals(2, converterInstances.get());
+    converterProvider.close();
+    references.close();
+    assertEquals(1, converterDestructions.get());
+  }
+
+  @Test
+  public void testConverterProviderCache() throws Exception {
+    // Shutting the container down releases the Converter resolved by
+    // the installed ConverterProvider.
+    this.stopContainer();
+    assertEquals(2, converterDestructions.get());
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final BeanManager countLookups(final BeanManager beanManager, final AtomicInteger lookups) {
+    return (BeanManager)Proxy.newProxyInstance(BeanManager.class.getClassLoader(),
+                                               new Class<?>[] { BeanManager.class },
+                                               (proxy, method, arguments) -> {
+                                                 lookups.incrementAndGet();
+                                                 try {
+                                                   return method.invoke(beanManager, arguments);
+                                                 } catch (final InvocationTargetException invocationTargetException) {
+                                                   throw invocationTargetException.getCause();
+                                                 }
+                                               });
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  public static final class Widget {
+
+    private final String name;
+
+    private Widget(final String name) {
+      super();
+      this.name = name;
+    }
+
+  }
+
+  @Dependent
+  private static class WidgetConverter implements Converter<Widget> {
+
+    private static final long serialVersionUID = 1L;
+
+    WidgetConverter() {
+      super();
+      converterInstances.incrementAndGet();
+    }
+
+    @Override
+    public Widget convert(final Value value) {
+      return new Widget(value.get());
+    }
+
+    @PreDestroy
+    private void destroy() {
+      converterDestructions.incrementAndGet();
+    }
+
+  }
+
+  @Dependent
+  private static class WidgetSource extends Source {
+
+    WidgetSource() {
+      super();
+    }
+
+    @Override
+    public Value getValue(final String name, final Set<Annotation> qualifiers) {
+      return "widget".equals(name) ? new Value(this, name, qualifiers, name) : null;
+    }
+
+  }
+
+}
@@ -0,0 +1,140 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.Set;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.Initialized;
+
+import javax.enterprise.event.Observes;
+
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Instance;
+
+import javax.enterprise.inject.se.SeContainerInitializer;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ApplicationScoped
+public class TestInstanceSelection {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private AutoCloseable container;
+
+  // Cause producers for the two settings to be installed; the name
+  // element of Setting is binding.
+  @Inject
+  @Setting(name = "probe.a")
+  private String probeA;
+
+  @Inject
+  @Setting(name = "probe.b")
+  private String probeB;
+
+  @Inject
+  @Any
+  private Instance<String> strings;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  public TestInstanceSelection() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @BeforeEach
+  public void startContainer() throws Exception {
+    this.stopContainer();
+    final SeContainerInitializer initializer = SeContainerInitializer.newInstance();
+    initializer.addBeanClasses(TestInstanceSelection.class, ProbeSource.class);
+    this.container = initializer.initialize();
+  }
+
+  @AfterEach
+  public void stopContainer() throws Exception {
+    if (this.container != null) {
+      this.container.close();
+      this.container = null;
+    }
+  }
+
+  private void onStartup(@Observes @Initialized(ApplicationScoped.class) final Object event) {
+    assertEquals("A", this.probeA);
+    assertEquals("B", this.probeB);
+    // Both selections come through the same injection point, but
+    // must not share a resolution.
+    assertEquals("A", this.strings.select(new Setting.Literal("probe.a", null, false)).get());
+    assertEquals("B", this.strings.select(new Setting.Literal("probe.b", null, false)).get());
+    assertEquals("A", this.strings.select(new Setting.Literal("probe.a", null, false)).get());
+  }
+
+  @Test
+  public void testSelectionsWithDifferentNames() {
+
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  @Dependent
+  private static class ProbeSource extends Source {
+
+    ProbeSource() {
+      super();
+    }
+
+    @Override
+    public Value getValue(final String name, final Set<Annotation> qualifiers) {
+      if ("probe.a".equals(name)) {
+        return new Value(this, name, qualifiers, "A");
+      } else if ("probe.b".equals(name)) {
+        return new Value(this, name, qualifiers, "B");
+      } else {
+        return null;
+      }
+    }
+
+  }
+
+}
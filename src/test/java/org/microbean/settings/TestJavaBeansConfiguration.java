@@ -18,6 +18,9 @@ package org.microbean.settings;
 
 import java.beans.IntrospectionException;
 
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,13 +51,28 @@ public class TestJavaBeansConfiguration {
   public void startContainer() throws Exception {
     System.setProperty("abe.firstName", "Abraham");
     System.setProperty("abe.lastName", "Lincoln");
-    
+    System.setProperty("abe.nickname", "Honest Abe");
+    System.setProperty("pool.datasource.url", "jdbc:h2:mem:test");
+    System.setProperty("pool.servers", "a, b");
+    System.setProperty("pool.servers.a.host", "alpha");
+    System.setProperty("pool.servers.b.host", "beta");
+    System.setProperty("pool.servers.b.port", "8081");
+    System.setProperty("pool.named", "primary");
+    System.setProperty("pool.named.primary.host", "gamma");
   }
 
   @AfterEach
   public void stopContainer() throws Exception {
     System.clearProperty("abe.firstName");
     System.clearProperty("abe.lastName");
+    System.clearProperty("abe.nickname");
+    System.clearProperty("pool.datasource.url");
+    System.clearProperty("pool.servers");
+    System.clearProperty("pool.servers.a.host");
+    System.clearProperty("pool.servers.b.host");
+    System.clearProperty("pool.servers.b.port");
+    System.clearProperty("pool.named");
+    System.clearProperty("pool.named.primary.host");
   }
 
   @Test
@@ -70,7 +88,168 @@ public class TestJavaBeansConfiguration {
     assertEquals(211, person.getAge());
   }
 
-  private static final class Person {
+  @Test
+  public void testFieldConfiguration() throws IntrospectionException, ReflectiveOperationException {
+    final Settings settings = new Settings();
+    final Celebrity celebrity = new Celebrity();
+    settings.configure(celebrity, "abe.");
+    assertEquals("Abraham", celebrity.getFirstName());
+    assertEquals("Honest Abe", celebrity.nickname);
+    assertEquals("Illinois", celebrity.state);
+    // A second configuration reuses what was learned about the class.
+    final Celebrity another = new Celebrity();
+    settings.configure(another, "abe.");
+    assertEquals("Honest Abe", another.nickname);
+  }
+
+  @Test
+  public void testReconfiguration() throws IntrospectionException, InterruptedException, ReflectiveOperationException {
+    final Settings settings = new Settings();
+    final Person person = new Person();
+    settings.configure(person, "abe.");
+    final Reconfigurator reconfigurator = Reconfigurator.install(settings, person, "abe.", null);
+    try {
+      person.setLastName("Todd");
+      System.setProperty("abe.firstName", "Mary");
+      settings.invalidate("abe.firstName", null);
+      final long deadline = System.currentTimeMillis() + 5000L;
+      while (!"Mary".equals(person.getFirstName()) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(Reconfigurator.DEBOUNCE_MILLISECONDS);
+      }
+      assertEquals("Mary", person.getFirstName());
+      // Only the invalidated setting was applied again.
+      assertEquals("Todd", person.getLastName());
+    } finally {
+      reconfigurator.close();
+    }
+  }
+
+  @Test
+  public void testNestedConfiguration() throws IntrospectionException, ReflectiveOperationException {
+    final Settings settings = new Settings();
+    final Pool pool = new Pool();
+    settings.configure(pool, "pool.");
+    assertNotNull(pool.getDatasource());
+    assertEquals("jdbc:h2:mem:test", pool.getDatasource().getUrl());
+    final List<Server> servers = pool.getServers();
+    assertEquals(2, servers.size());
+    assertEquals("alpha", servers.get(0).getHost());
+    assertEquals(80, servers.get(0).getPort());
+    assertEquals("beta", servers.get(1).getHost());
+    assertEquals(8081, servers.get(1).getPort());
+    final Map<String, Server> named = pool.getNamed();
+    assertEquals(1, named.size());
+    assertEquals("gamma", named.get("primary").getHost());
+    // A nested bean for which there are no settings is not created.
+    assertNull(pool.getFallback());
+  }
+
+  public static final class Pool {
+
+    private DataSource datasource;
+
+    private DataSource fallback;
+
+    private List<Server> servers;
+
+    private Map<String, Server> named;
+
+    public Pool() {
+      super();
+    }
+
+    public DataSource getDatasource() {
+      return this.datasource;
+    }
+
+    public void setDatasource(final DataSource datasource) {
+      this.datasource = datasource;
+    }
+
+    public DataSource getFallback() {
+      return this.fallback;
+    }
+
+    public void setFallback(final DataSource fallback) {
+      this.fallback = fallback;
+    }
+
+    public List<Server> getServers() {
+      return this.servers;
+    }
+
+    public void setServers(final List<Server> servers) {
+      this.servers = servers;
+    }
+
+    public Map<String, Server> getNamed() {
+      return this.named;
+    }
+
+    public void setNamed(final Map<String, Server> named) {
+      this.named = named;
+    }
+
+  }
+
+  public static final class DataSource {
+
+    private String url;
+
+    public DataSource() {
+      super();
+    }
+
+    public String getUrl() {
+      return this.url;
+    }
+
+    public void setUrl(final String url) {
+      this.url = url;
+    }
+
+  }
+
+  public static final class Server {
+
+    private String host;
+
+    @Setting(name = "port", defaultValue = "80")
+    private int port;
+
+    public Server() {
+      super();
+    }
+
+    public String getHost() {
+      return this.host;
+    }
+
+    public void setHost(final String host) {
+      this.host = host;
+    }
+
+    public int getPort() {
+      return this.port;
+    }
+
+  }
+
+  private static final class Celebrity extends Person {
+
+    @Setting(name = "nickname")
+    private String nickname;
+
+    @Setting(name = "state", defaultValue = "Illinois")
+    private String state;
+
+    private Celebrity() {
+      super();
+    }
+
+  }
+
+  private static class Person {
 
     private String firstName;
 
@@ -0,0 +1,177 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestPlaceholderInterpolation {
+
+  private Settings settings;
+
+  public TestPlaceholderInterpolation() {
+    super();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    System.setProperty("db.host", "localhost");
+    System.setProperty("db.port", "5432");
+    System.setProperty("db.url", "jdbc:${db.host}:${db.port}/${db.name:test}");
+    System.setProperty("db.escaped", "\\${db.host} is ${db.host}");
+    System.setProperty("cycle.a", "${cycle.b}");
+    System.setProperty("cycle.b", "${cycle.a}");
+    final Source source = new SystemPropertiesSource();
+    this.settings = new Settings(null,
+                                 (name, qualifiers) -> Collections.singleton(source),
+                                 new Converters(),
+                                 null,
+                                 new PlaceholderInterpolator());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    System.clearProperty("cycle.b");
+    System.clearProperty("cycle.a");
+    System.clearProperty("db.escaped");
+    System.clearProperty("db.url");
+    System.clearProperty("db.port");
+    System.clearProperty("db.host");
+  }
+
+  @Test
+  public void testReferencesAndDefaults() {
+    assertEquals("jdbc:localhost:5432/test", this.settings.get("db.url"));
+    assertEquals(Integer.valueOf(5432), this.settings.get("db.port", Integer.class));
+  }
+
+  @Test
+  public void testEscapes() {
+    assertEquals("${db.host} is localhost", this.settings.get("db.escaped"));
+  }
+
+  @Test
+  public void testMissingReference() {
+    assertThrows(NoSuchElementException.class, () -> this.settings.get("nonexistent", "${nonexistent.too}"));
+  }
+
+  @Test
+  public void testCycle() {
+    assertThrows(ValueAcquisitionException.class, () -> this.settings.get("cycle.a"));
+  }
+
+  @Test
+  public void testMemoization() {
+    final AtomicInteger hostReads = new AtomicInteger();
+    final Source source = new SystemPropertiesSource() {
+        @Override
+        public final Value getValue(final String name, final Set<Annotation> qualifiers) {
+          if ("db.host".equals(name)) {
+            hostReads.incrementAndGet();
+          }
+          return super.getValue(name, qualifiers);
+        }
+      };
+    final Settings settings = new Settings(null,
+                                           (name, qualifiers) -> Collections.singleton(source),
+                                           new Converters(),
+                                           null,
+                                           new PlaceholderInterpolator());
+    assertEquals("localhost/localhost/localhost", settings.get("hosts", "${db.host}/${db.host}/${db.host}"));
+    assertEquals(1, hostReads.get());
+  }
+
+  @Test
+  public void testInvalidation() {
+    assertEquals("jdbc:localhost:5432/test", this.settings.get("db.url"));
+    final List<String> invalidatedNames = new ArrayList<>();
+    this.settings.addInvalidationListener((name, qualifiers) -> invalidatedNames.add(name));
+    final List<String> invalidatedUrlNames = new ArrayList<>();
+    this.settings.addInvalidationListener("db.url", (name, qualifiers) -> invalidatedUrlNames.add(name));
+    this.settings.invalidate("db.port", null);
+    assertEquals(2, invalidatedNames.size());
+    assertEquals("db.port", invalidatedNames.get(0));
+    assertEquals("db.url", invalidatedNames.get(1));
+    assertEquals(Collections.singletonList("db.url"), invalidatedUrlNames);
+    invalidatedNames.clear();
+    invalidatedUrlNames.clear();
+    // db.url's references were discarded by the prior invalidation.
+    this.settings.invalidate("db.host", null);
+    assertEquals(Collections.singletonList("db.host"), invalidatedNames);
+    assertEquals(Collections.emptyList(), invalidatedUrlNames);
+  }
+
+  @Test
+  public void testParallelResolution() {
+    // A single worker thread ensures nested references do not wait on
+    // the Executor.
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Source source = new SystemPropertiesSource();
+      final Settings settings = new Settings(null,
+                                             (name, qualifiers) -> Collections.singleton(source),
+                                             new Converters(),
+                                             null,
+                                             new PlaceholderInterpolator(executor));
+      assertEquals("jdbc:localhost:5432/test", settings.get("db.url"));
+      assertEquals("jdbc:localhost:5432/test and localhost", settings.get("both", "${db.url} and ${db.host}"));
+      assertThrows(NoSuchElementException.class, () -> settings.get("nonexistent", "${db.host}${nonexistent.too}"));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testParallelResolutionOnExecutorThread() throws Exception {
+    // Interpolating on the Executor's only thread must not wait for
+    // tasks queued behind it, including those for nested values.
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Source source = new SystemPropertiesSource();
+      final Settings settings = new Settings(null,
+                                             (name, qualifiers) -> Collections.singleton(source),
+                                             new Converters(),
+                                             null,
+                                             new PlaceholderInterpolator(executor));
+      assertEquals("jdbc:localhost:5432/test and localhost",
+                   executor.submit(() -> settings.get("both", "${db.url} and ${db.host}")).get(10L, TimeUnit.SECONDS));
+      assertEquals("localhost:jdbc:localhost:5432/test",
+                   executor.submit(() -> settings.get("nested", "${db.host}:${undefined:${db.url}}")).get(10L, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
@@ -0,0 +1,215 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.Initialized;
+
+import javax.enterprise.event.Observes;
+
+import javax.enterprise.inject.se.SeContainerInitializer;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ApplicationScoped
+public class TestPrefetch {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final Set<ClassLoader> contextClassLoaders = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+  private static final AtomicBoolean failed = new AtomicBoolean();
+
+  // Held so that the Logger to which the test's Handler is added is
+  // not collected before SettingsExtension acquires it.
+  private static final Logger logger = Logger.getLogger(SettingsExtension.class.getName());
+
+  private static final List<LogRecord> logRecords = new CopyOnWriteArrayList<>();
+
+  // Read by the container's instance of this class, not by the one
+  // running the test.
+  private static volatile ClassLoader contextClassLoader;
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private AutoCloseable container;
+
+  private ClassLoader originalContextClassLoader;
+
+  private Handler handler;
+
+  @Inject
+  @Setting(name = "prefetch.a")
+  private String a;
+
+  @Inject
+  @Setting(name = "prefetch.b")
+  private String b;
+
+  @Inject
+  @Setting(name = "prefetch.c")
+  private String c;
+
+  @Inject
+  @Setting(name = "prefetch.flaky")
+  private String flaky;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  public TestPrefetch() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @BeforeEach
+  public void startContainer() throws Exception {
+    this.stopContainer();
+    contextClassLoaders.clear();
+    failed.set(false);
+    logRecords.clear();
+    this.handler = new Handler() {
+        @Override
+        public final void publish(final LogRecord logRecord) {
+          logRecords.add(logRecord);
+        }
+
+        @Override
+        public final void flush() {
+
+        }
+
+        @Override
+        public final void close() {
+
+        }
+      };
+    logger.addHandler(this.handler);
+    final Thread currentThread = Thread.currentThread();
+    this.originalContextClassLoader = currentThread.getContextClassLoader();
+    contextClassLoader = new ClassLoader(this.originalContextClassLoader) {};
+    currentThread.setContextClassLoader(contextClassLoader);
+    final SeContainerInitializer initializer = SeContainerInitializer.newInstance();
+    initializer.addBeanClasses(TestPrefetch.class, PrefetchSource.class);
+    this.container = initializer.initialize();
+  }
+
+  @AfterEach
+  public void stopContainer() throws Exception {
+    if (this.container != null) {
+      this.container.close();
+      this.container = null;
+    }
+    if (this.originalContextClassLoader != null) {
+      Thread.currentThread().setContextClassLoader(this.originalContextClassLoader);
+      this.originalContextClassLoader = null;
+    }
+    if (this.handler != null) {
+      logger.removeHandler(this.handler);
+      this.handler = null;
+    }
+  }
+
+  private void onStartup(@Observes @Initialized(ApplicationScoped.class) final Object event) {
+    assertEquals("a", this.a);
+    assertEquals("b", this.b);
+    assertEquals("c", this.c);
+    // The first read failed during prefetching; validation read the
+    // value again.
+    assertEquals("flaky", this.flaky);
+    assertTrue(failed.get());
+    // Every value was acquired with the context classloader the
+    // container was started with, whichever thread acquired it.
+    assertEquals(Collections.singleton(contextClassLoader), contextClassLoaders);
+    // The failure was logged, not swallowed.
+    assertEquals(1, logRecords.size());
+    assertTrue(logRecords.get(0).getThrown() instanceof IllegalStateException);
+  }
+
+  @Test
+  public void testPrefetch() {
+
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  @Dependent
+  private static class PrefetchSource extends Source {
+
+    PrefetchSource() {
+      super();
+    }
+
+    @Override
+    public Value getValue(final String name, final Set<Annotation> qualifiers) {
+      if (name.startsWith("prefetch.")) {
+        contextClassLoaders.add(Thread.currentThread().getContextClassLoader());
+        final String value = name.substring("prefetch.".length());
+        if ("flaky".equals(value) && failed.compareAndSet(false, true)) {
+          throw new IllegalStateException(name);
+        }
+        return new Value(this, name, qualifiers, value);
+      }
+      return null;
+    }
+
+  }
+
+}
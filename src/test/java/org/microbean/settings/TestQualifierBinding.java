@@ -0,0 +1,75 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.Collections;
+import java.util.Set;
+
+import javax.enterprise.inject.Default;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestQualifierBinding {
+
+  private Settings settings;
+
+  public TestQualifierBinding() {
+    super();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    final Source source = new Source() {
+        @Override
+        public final Value getValue(final String name, final Set<Annotation> qualifiers) {
+          return new Value(this, name, qualifiers, qualifiers.isEmpty() ? "default" : "qualified");
+        }
+      };
+    this.settings = new Settings(null,
+                                 (name, qualifiers) -> Collections.singleton(source),
+                                 new Converters(),
+                                 null,
+                                 new PlaceholderInterpolator());
+  }
+
+  @Test
+  public void testBind() {
+    final Set<Annotation> qualifiers = Collections.singleton(Default.Literal.INSTANCE);
+    assertEquals("default", this.settings.get("bind.value"));
+    try (final QualifierBinding binding = this.settings.bindQualifiers(qualifiers)) {
+      assertEquals("qualified", this.settings.get("bind.value"));
+      try (final QualifierBinding nested = this.settings.bindQualifiers(null)) {
+        assertEquals(Collections.emptySet(), nested.getQualifiers());
+        assertEquals("default", this.settings.get("bind.value"));
+        // Bound qualifiers are interned.
+        try (final QualifierBinding again = this.settings.bindQualifiers(Collections.singleton(Default.Literal.INSTANCE))) {
+          assertSame(binding.getQualifiers(), again.getQualifiers());
+          assertEquals("qualified", this.settings.get("bind.value"));
+        }
+      }
+      assertEquals("qualified", this.settings.get("bind.value"));
+    }
+    assertEquals("default", this.settings.get("bind.value"));
+  }
+
+}
@@ -0,0 +1,109 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.util.Collections;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TestSettingHandle {
+
+  private Settings settings;
+
+  public TestSettingHandle() {
+    super();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    System.setProperty("handle.port", "8080");
+    System.setProperty("handle.url", "http://localhost:${handle.port}/");
+    final Source source = new SystemPropertiesSource();
+    this.settings = new Settings(null,
+                                 (name, qualifiers) -> Collections.singleton(source),
+                                 new Converters(),
+                                 null,
+                                 new PlaceholderInterpolator());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    System.clearProperty("handle.url");
+    System.clearProperty("handle.port");
+  }
+
+  @Test
+  public void testHandle() {
+    final SettingHandle<Integer> port = this.settings.handle("handle.port", null, Integer.class);
+    assertEquals(Integer.valueOf(8080), port.get());
+    final SettingHandle<String> url = this.settings.handle("handle.url", null, String.class);
+    assertEquals("http://localhost:8080/", url.get());
+    // Values are never cached by a handle.
+    System.setProperty("handle.port", "8081");
+    assertEquals(Integer.valueOf(8081), port.get());
+    assertEquals("http://localhost:8081/", url.get());
+    assertThrows(NoSuchElementException.class, () -> this.settings.handle("handle.missing", null, String.class).get());
+  }
+
+  @Test
+  public void testConstant() throws Throwable {
+    final ConstantSetting<String> url = this.settings.constant("handle.url", null, String.class);
+    assertEquals("http://localhost:8080/", url.get());
+    assertEquals("http://localhost:8080/", (Object)url.getInvoker().invokeExact());
+    // Changes are not seen until the setting is invalidated.
+    System.setProperty("handle.port", "8081");
+    assertEquals("http://localhost:8080/", url.get());
+    // handle.url was interpolated from handle.port, so invalidating
+    // the latter invalidates the former.
+    this.settings.invalidate("handle.port", null);
+    assertEquals("http://localhost:8081/", url.get());
+    // A released ConstantSetting no longer sees invalidations.
+    this.settings.release(url);
+    System.setProperty("handle.port", "8082");
+    this.settings.invalidate("handle.port", null);
+    assertEquals("http://localhost:8081/", url.get());
+  }
+
+  @Test
+  public void testLive() {
+    final LiveSetting<String> url = this.settings.live("handle.url", null, String.class);
+    assertEquals("http://localhost:8080/", url.get());
+    System.setProperty("handle.port", "8081");
+    assertEquals("http://localhost:8080/", url.get());
+    this.settings.invalidate("handle.port", null);
+    assertEquals("http://localhost:8081/", url.get());
+    // A released LiveSetting no longer sees invalidations.
+    this.settings.release(url);
+    System.setProperty("handle.port", "8082");
+    this.settings.invalidate("handle.port", null);
+    assertEquals("http://localhost:8081/", url.get());
+  }
+
+  @Test
+  public void testFind() {
+    assertEquals(Integer.valueOf(8080), this.settings.find("handle.port", Integer.class).get());
+    assertFalse(this.settings.find("handle.missing", String.class).isPresent());
+  }
+
+}
@@ -0,0 +1,159 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.io.File;
+
+import java.lang.annotation.Annotation;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSettingsSnapshot {
+
+  private Path directory;
+
+  private Map<String, String> properties;
+
+  private AtomicInteger reads;
+
+  public TestSettingsSnapshot() {
+    super();
+  }
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    this.directory = Files.createTempDirectory("settings-snapshot");
+    this.properties = new ConcurrentHashMap<>();
+    this.reads = new AtomicInteger();
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    if (this.directory != null) {
+      Files.walk(this.directory)
+        .sorted(Collections.reverseOrder())
+        .map(Path::toFile)
+        .forEach(File::delete);
+    }
+  }
+
+  @Test
+  public void testSnapshot() throws Exception {
+    final Path file = this.directory.resolve("snapshot");
+    this.properties.put("snapshot.port", "8080");
+    this.properties.put("snapshot.host", "localhost");
+    this.properties.put("snapshot.url", "http://${snapshot.host}:${snapshot.port}/");
+
+    final Settings settings = new Settings(null, this::getSources, new Converters(), null, new PlaceholderInterpolator());
+    try (final AccessRecorder recorder = settings.recordAccesses(this.directory.resolve("accesses"))) {
+      assertEquals("http://localhost:8080/", settings.get("snapshot.url"));
+      assertFalse(settings.find("snapshot.missing", String.class).isPresent());
+      recorder.writeSnapshot(file);
+    }
+
+    // The sources change while the application is down.
+    this.properties.put("snapshot.port", "8081");
+    this.reads.set(0);
+
+    final SettingsSnapshot snapshot = SettingsSnapshot.read(file);
+    assertTrue(snapshot.isServing());
+    final Settings restarted =
+      new Settings(null, snapshot.wrap(this::getSources), new Converters(), null, new PlaceholderInterpolator());
+    final LiveSetting<String> url = restarted.live("snapshot.url", null, String.class);
+    assertEquals("http://localhost:8080/", url.get());
+    final LiveSetting<Integer> port = restarted.live("snapshot.port", null, Integer.class);
+    assertEquals(Integer.valueOf(8080), port.get());
+    final LiveSetting<String> host = restarted.live("snapshot.host", null, String.class);
+    assertEquals("localhost", host.get());
+    assertFalse(restarted.find("snapshot.missing", String.class).isPresent());
+    // Everything was served from the snapshot.
+    assertEquals(0, this.reads.get());
+
+    final Set<Map.Entry<String, Set<Annotation>>> changes = snapshot.revalidate(restarted, Runnable::run).get();
+    assertFalse(snapshot.isServing());
+    assertEquals(Collections.singleton(new SimpleImmutableEntry<>("snapshot.port", Collections.emptySet())), changes);
+    // snapshot.url was interpolated from snapshot.port, so it was
+    // invalidated too.
+    assertEquals("http://localhost:8081/", url.get());
+    // A live setting whose own value changed sees the new value,
+    // although it was created while the snapshot was serving.
+    assertEquals(Integer.valueOf(8081), port.get());
+
+    // Settings that did not change no longer come from the snapshot
+    // either.
+    this.properties.put("snapshot.host", "example.com");
+    restarted.invalidate("snapshot.host", null);
+    assertEquals("example.com", host.get());
+    assertEquals("http://example.com:8081/", url.get());
+  }
+
+  @Test
+  public void testExcludedSettings() throws Exception {
+    final Path file = this.directory.resolve("snapshot");
+    this.properties.put("snapshot.user", "scott");
+    this.properties.put("snapshot.password", "tiger");
+
+    final Settings settings = new Settings(null, this::getSources, new Converters(), null, new PlaceholderInterpolator());
+    try (final AccessRecorder recorder = settings.recordAccesses(this.directory.resolve("accesses"))) {
+      assertEquals("scott", settings.get("snapshot.user"));
+      assertEquals("tiger", settings.get("snapshot.password"));
+      recorder.writeSnapshot(file, name -> !name.endsWith(".password"));
+    }
+    assertFalse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("tiger"));
+
+    this.reads.set(0);
+    final SettingsSnapshot snapshot = SettingsSnapshot.read(file);
+    final Settings restarted =
+      new Settings(null, snapshot.wrap(this::getSources), new Converters(), null, new PlaceholderInterpolator());
+    assertEquals("scott", restarted.get("snapshot.user"));
+    assertEquals(0, this.reads.get());
+    // The excluded setting is acquired from the sources.
+    assertEquals("tiger", restarted.get("snapshot.password"));
+    assertTrue(this.reads.get() > 0);
+  }
+
+  private final Set<? extends Source> getSources(final String name, final Set<Annotation> qualifiers) {
+    return Collections.singleton(new Source() {
+        @Override
+        public final Value getValue(final String name, final Set<Annotation> qualifiers) {
+          reads.incrementAndGet();
+          final String value = properties.get(name);
+          return value == null ? null : new Value(this, name, qualifiers, value);
+        }
+      });
+  }
+
+}
@@ -0,0 +1,112 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Default;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestSettingsViews {
+
+  private Settings settings;
+
+  public TestSettingsViews() {
+    super();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    final Source source = new Source() {
+        @Override
+        public final Value getValue(final String name, final Set<Annotation> qualifiers) {
+          return new Value(this, name, qualifiers, qualifiers.isEmpty() ? "default" : "qualified");
+        }
+      };
+    this.settings = new Settings(null,
+                                 (name, qualifiers) -> Collections.singleton(source),
+                                 new Converters(),
+                                 null,
+                                 new PlaceholderInterpolator());
+  }
+
+  @Test
+  public void testWithQualifiers() throws Exception {
+    final Set<Annotation> qualifiers = Collections.singleton(Default.Literal.INSTANCE);
+    final Settings view = this.settings.withQualifiers(qualifiers);
+    assertEquals("default", this.settings.get("view.value"));
+    assertEquals("qualified", view.get("view.value"));
+
+    // Views are interned, and the default qualifiers lead back home.
+    assertSame(view, this.settings.withQualifiers(Collections.singleton(Default.Literal.INSTANCE)));
+    assertSame(this.settings, view.withQualifiers(null));
+    assertSame(view, view.withQualifiers(qualifiers));
+
+    // Caches and invalidation listeners are shared.
+    assertSame(this.settings.getConfigurator(TestSettingsViews.class), view.getConfigurator(TestSettingsViews.class));
+    final AtomicInteger invalidations = new AtomicInteger();
+    this.settings.addInvalidationListener((name, qs) -> invalidations.incrementAndGet());
+    view.invalidate("view.value", qualifiers);
+    assertEquals(1, invalidations.get());
+  }
+
+  @Test
+  public void testViewsUseOverrides() {
+    // Every value is too specific, and so is malformed, for the
+    // qualifiers of both the Settings and its views.
+    final Set<Annotation> valueQualifiers = new HashSet<>(Arrays.asList(Default.Literal.INSTANCE, Any.Literal.INSTANCE));
+    final Source source = new Source() {
+        @Override
+        public final Value getValue(final String name, final Set<Annotation> qualifiers) {
+          return new Value(this, name, valueQualifiers, "value");
+        }
+      };
+    final AtomicInteger malformedValues = new AtomicInteger();
+    final Settings settings = new Settings(null,
+                                           (name, qualifiers) -> Collections.singleton(source),
+                                           new Converters(),
+                                           null,
+                                           new PlaceholderInterpolator()) {
+        @Override
+        protected final void handleMalformedValues(final String name,
+                                                   final Set<Annotation> qualifiers,
+                                                   final Collection<? extends Value> badValues) {
+          malformedValues.incrementAndGet();
+        }
+      };
+    assertEquals("fallback", settings.get("view.value", "fallback"));
+    assertEquals(1, malformedValues.get());
+    final Settings view = settings.withQualifiers(Collections.singleton(Default.Literal.INSTANCE));
+    assertEquals("fallback", view.get("view.value", "fallback"));
+    assertEquals(2, malformedValues.get());
+  }
+
+}
@@ -0,0 +1,147 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.Initialized;
+
+import javax.enterprise.event.Observes;
+
+import javax.enterprise.inject.se.SeContainerInitializer;
+
+import javax.inject.Inject;
+import javax.inject.Qualifier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+@ApplicationScoped
+public class TestSharedResolution {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final AtomicInteger sourceInstances = new AtomicInteger();
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private AutoCloseable container;
+
+  @Inject
+  private Settings defaultSettings;
+
+  @Inject
+  @Tenant
+  private Settings tenantSettings;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  public TestSharedResolution() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @BeforeEach
+  public void startContainer() throws Exception {
+    this.stopContainer();
+    sourceInstances.set(0);
+    final SeContainerInitializer initializer = SeContainerInitializer.newInstance();
+    initializer.addBeanClasses(TestSharedResolution.class, CountingSource.class);
+    this.container = initializer.initialize();
+  }
+
+  @AfterEach
+  public void stopContainer() throws Exception {
+    if (this.container != null) {
+      this.container.close();
+      this.container = null;
+    }
+  }
+
+  private void onStartup(@Observes @Initialized(ApplicationScoped.class) final Object event) {
+    assertNotSame(this.defaultSettings, this.tenantSettings);
+    assertEquals("hello", this.defaultSettings.get("shared.greeting"));
+    assertEquals("hello", this.tenantSettings.get("shared.greeting"));
+    // The two Settings instances share one dependent Source.
+    assertEquals(1, sourceInstances.get());
+  }
+
+  @Test
+  public void testSharedSources() {
+
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  @Dependent
+  private static class CountingSource extends Source {
+
+    CountingSource() {
+      super();
+      sourceInstances.incrementAndGet();
+    }
+
+    @Override
+    public Value getValue(final String name, final Set<Annotation> qualifiers) {
+      return "shared.greeting".equals(name) ? new Value(this, name, qualifiers, "hello") : null;
+    }
+
+  }
+
+  @Qualifier
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.TYPE })
+  private @interface Tenant {
+
+  }
+
+}
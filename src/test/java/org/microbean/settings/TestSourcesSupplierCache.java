@@ -0,0 +1,192 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings;
+
+import java.lang.annotation.Annotation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.Initialized;
+
+import javax.enterprise.event.Observes;
+
+import javax.enterprise.inject.Any;
+
+import javax.enterprise.inject.se.SeContainerInitializer;
+
+import javax.enterprise.inject.spi.BeanManager;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@ApplicationScoped
+public class TestSourcesSupplierCache {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final AtomicInteger sourceInstances = new AtomicInteger();
+
+  private static final AtomicInteger sourceDestructions = new AtomicInteger();
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private AutoCloseable container;
+
+  @Inject
+  private BeanManager beanManager;
+
+  @Inject
+  private Settings settings;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  public TestSourcesSupplierCache() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @BeforeEach
+  public void startContainer() throws Exception {
+    this.stopContainer();
+    sourceInstances.set(0);
+    sourceDestructions.set(0);
+    final SeContainerInitializer initializer = SeContainerInitializer.newInstance();
+    initializer.addBeanClasses(TestSourcesSupplierCache.class, CountingSource.class);
+    this.container = initializer.initialize();
+  }
+
+  @AfterEach
+  public void stopContainer() throws Exception {
+    if (this.container != null) {
+      this.container.close();
+      this.container = null;
+    }
+  }
+
+  private void onStartup(@Observes @Initialized(ApplicationScoped.class) final Object event) {
+    assertEquals("hello", this.settings.get("greeting"));
+    assertEquals("hello", this.settings.get("greeting"));
+    // The installed sources BiFunction resolved the dependent Source
+    // once and reused it.
+    assertEquals(1, sourceInstances.get());
+
+    final AtomicInteger lookups = new AtomicInteger();
+    final BeanManager countingBeanManager = countLookups(this.beanManager, lookups);
+    final BeanManagerBackedReferences references = new BeanManagerBackedReferences(countingBeanManager);
+    final BeanManagerBackedSourcesSupplier sourcesSupplier = new BeanManagerBackedSourcesSupplier(countingBeanManager, references);
+    final Set<? extends Source> sources = sourcesSupplier.apply("greeting", Collections.singleton(Any.Literal.INSTANCE));
+    assertEquals(2, sourceInstances.get());
+    final int lookupsAfterResolution = lookups.get();
+    // Sources are cached by qualifiers alone, so a lookup for another
+    // name with equal qualifiers consults neither the BeanManager nor
+    // the shared references.
+    assertSame(sources, sourcesSupplier.apply("farewell", new HashSet<>(Collections.singleton(Any.Literal.INSTANCE))));
+    assertEquals(lookupsAfterResolution, lookups.get());
+    assertEquals(2, sourceInstances.get());
+    sourcesSupplier.close();
+    references.close();
+    assertEquals(1, sourceDestructions.get());
+  }
+
+  @Test
+  public void testSourcesSupplierCache() throws Exception {
+    // Shutting the container down releases the Source resolved by
+    // the installed sources BiFunction.
+    this.stopContainer();
+    assertEquals(2, sourceDestructions.get());
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final BeanManager countLookups(final BeanManager beanManager, final AtomicInteger lookups) {
+    return (BeanManager)Proxy.newProxyInstance(BeanManager.class.getClassLoader(),
+                                               new Class<?>[] { BeanManager.class },
+                                               (proxy, method, arguments) -> {
+                                                 lookups.incrementAndGet();
+                                                 try {
+                                                   return method.invoke(beanManager, arguments);
+                                                 } catch (final InvocationTargetException invocationTargetException) {
+                                                   throw invocationTargetException.getCause();
+                                                 }
+                                               });
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  @Dependent
+  private static class CountingSource extends Source {
+
+    CountingSource() {
+      super();
+      sourceInstances.incrementAndGet();
+    }
+
+    @Override
+    public Value getValue(final String name, final Set<Annotation> qualifiers) {
+      return "greeting".equals(name) ? new Value(this, name, qualifiers, "hello") : null;
+    }
+
+    @PreDestroy
+    private void destroy() {
+      sourceDestructions.incrementAndGet();
+    }
+
+  }
+
+}
@@ -0,0 +1,191 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2020 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.microbean.settings.processor;
+
+import java.io.File;
+
+import java.lang.reflect.Method;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.enterprise.util.TypeLiteral;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.microbean.settings.Configurator;
+import org.microbean.settings.Converters;
+import org.microbean.settings.PlaceholderInterpolator;
+import org.microbean.settings.Settings;
+import org.microbean.settings.Source;
+import org.microbean.settings.SystemPropertiesSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSettingsProcessor {
+
+  private static final String SOURCE =
+    "package com.example;\n" +
+    "import org.microbean.settings.Setting;\n" +
+    "public class Server {\n" +
+    "  @Setting(name = \"server.host\", defaultValue = \"localhost\") String host;\n" +
+    "  @Setting(name = \"server.tags\") public java.util.List<String> tags;\n" +
+    "  private int port;\n" +
+    "  public int getPort() { return this.port; }\n" +
+    "  public void setPort(final int port) { this.port = port; }\n" +
+    "  public String getHost() { return this.host; }\n" +
+    "  public static class Unbindable { @Setting(name = \"secret\") private String secret; }\n" +
+    "  public static class Nested { @Setting(name = \"nested\") public String value; }\n" +
+    "}\n";
+
+  // Server$Nested and Server_Nested must not share a generated
+  // Configurator name.
+  private static final String COLLIDING_SOURCE =
+    "package com.example;\n" +
+    "import org.microbean.settings.Setting;\n" +
+    "public class Server_Nested { @Setting(name = \"colliding\") public String value; }\n";
+
+  private Path directory;
+
+  public TestSettingsProcessor() {
+    super();
+  }
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    this.directory = Files.createTempDirectory("settings-processor");
+    System.setProperty("gen.port", "8080");
+    System.setProperty("gen.server.tags", "a,b");
+    System.setProperty("gen.nested", "n");
+    System.setProperty("gen.colliding", "c");
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    System.clearProperty("gen.colliding");
+    System.clearProperty("gen.nested");
+    System.clearProperty("gen.server.tags");
+    System.clearProperty("gen.port");
+    if (this.directory != null) {
+      Files.walk(this.directory)
+        .sorted(Collections.reverseOrder())
+        .map(Path::toFile)
+        .forEach(File::delete);
+    }
+  }
+
+  @Test
+  public void testGeneratedConfigurator() throws Exception {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertNotNull(compiler);
+    final Path source = this.directory.resolve("com/example/Server.java");
+    Files.createDirectories(source.getParent());
+    Files.write(source, SOURCE.getBytes(StandardCharsets.UTF_8));
+    final Path collidingSource = this.directory.resolve("com/example/Server_Nested.java");
+    Files.write(collidingSource, COLLIDING_SOURCE.getBytes(StandardCharsets.UTF_8));
+    final Path classes = Files.createDirectories(this.directory.resolve("classes"));
+    final String classpath = location(Configurator.class) + File.pathSeparator + location(TypeLiteral.class);
+    assertEquals(0, compiler.run(null, null, null,
+                                 "-classpath", classpath,
+                                 "-processor", SettingsProcessor.class.getName(),
+                                 "-processorpath", classpath,
+                                 "-d", classes.toString(),
+                                 source.toString(),
+                                 collidingSource.toString()));
+
+    final List<String> index =
+      Files.readAllLines(classes.resolve(SettingsProcessor.INDEX_RESOURCE_NAME), StandardCharsets.UTF_8);
+    assertEquals(Arrays.asList("com.example.Server$Nested\tnested\tjava.lang.String\t\tfalse",
+                               "com.example.Server\tport\tint\t\tfalse",
+                               "com.example.Server\tserver.host\tjava.lang.String\tlocalhost\tfalse",
+                               "com.example.Server\tserver.tags\tjava.util.List<java.lang.String>\t\tfalse",
+                               "com.example.Server_Nested\tcolliding\tjava.lang.String\t\tfalse"),
+                 index);
+
+    try (final URLClassLoader loader = new URLClassLoader(new URL[] { classes.toUri().toURL() },
+                                                          Thread.currentThread().getContextClassLoader())) {
+      final Class<?> serverClass = loader.loadClass("com.example.Server");
+      final Class<?> configuratorClass =
+        loader.loadClass(Configurator.getGeneratedClassName("com.example.Server"));
+      assertTrue(Configurator.class.isAssignableFrom(configuratorClass));
+      // Classes with inaccessible settings are left to introspection.
+      assertThrows(ClassNotFoundException.class,
+                   () -> loader.loadClass(Configurator.getGeneratedClassName("com.example.Server$Unbindable")));
+      final Class<?> nestedClass = loader.loadClass("com.example.Server$Nested");
+      final Class<?> nestedConfiguratorClass = loader.loadClass(Configurator.getGeneratedClassName(nestedClass.getName()));
+      final Class<?> collidingClass = loader.loadClass("com.example.Server_Nested");
+      final Class<?> collidingConfiguratorClass =
+        loader.loadClass(Configurator.getGeneratedClassName(collidingClass.getName()));
+      assertNotEquals(nestedConfiguratorClass, collidingConfiguratorClass);
+
+      final Source systemProperties = new SystemPropertiesSource();
+      final Settings settings = new Settings(null,
+                                             (name, qualifiers) -> Collections.singleton(systemProperties),
+                                             new Converters(),
+                                             null,
+                                             new PlaceholderInterpolator());
+      final Object server = serverClass.getDeclaredConstructor().newInstance();
+      settings.configure(server, "gen.");
+      assertEquals(Integer.valueOf(8080), serverClass.getMethod("getPort").invoke(server));
+      assertEquals("localhost", serverClass.getMethod("getHost").invoke(server));
+      assertEquals(Arrays.asList("a", "b"), serverClass.getField("tags").get(server));
+
+      // Settings used the generated Configurators, not introspection.
+      assertSame(configuratorClass, getConfigurator(settings, serverClass).getClass());
+      assertSame(nestedConfiguratorClass, getConfigurator(settings, nestedClass).getClass());
+      assertSame(collidingConfiguratorClass, getConfigurator(settings, collidingClass).getClass());
+
+      final Object nested = nestedClass.getDeclaredConstructor().newInstance();
+      settings.configure(nested, "gen.");
+      assertEquals("n", nestedClass.getField("value").get(nested));
+      final Object colliding = collidingClass.getDeclaredConstructor().newInstance();
+      settings.configure(colliding, "gen.");
+      assertEquals("c", collidingClass.getField("value").get(colliding));
+    }
+  }
+
+  // Settings#getConfigurator(Class) is package-private.
+  private static final Object getConfigurator(final Settings settings, final Class<?> c) throws Exception {
+    final Method getConfigurator = Settings.class.getDeclaredMethod("getConfigurator", Class.class);
+    getConfigurator.setAccessible(true);
+    return getConfigurator.invoke(settings, c);
+  }
+
+  private static final String location(final Class<?> c) throws Exception {
+    return new File(c.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+  }
+
+}